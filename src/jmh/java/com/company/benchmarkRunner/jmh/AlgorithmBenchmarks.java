@@ -0,0 +1,72 @@
+package com.company.benchmarkRunner.jmh;
+
+import com.company.algorithms.DAGShortestPath;
+import com.company.algorithms.TarjanSCC;
+import com.company.algorithms.TopologicalSort;
+import com.company.graphRepresentation.Graph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The algorithm benchmarks shared by every fixture. Subclasses are the @State:
+// their @Setup fills graph (possibly cyclic), condensation (always a DAG) and
+// source once per trial, so loading and the SCC pass stay out of the
+// measurements of the later phases, as in the BenchmarkRunner pipeline.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class AlgorithmBenchmarks {
+    protected Graph graph;
+    protected Graph condensation;
+    protected int source;
+    private TarjanSCC decomposed;
+
+    protected void prepare(Graph graph) {
+        this.graph = graph;
+        decomposed = new TarjanSCC(graph);
+        decomposed.findSCCs();
+        condensation = decomposed.buildCondensationGraph();
+        int original = graph.getSource() != null ? graph.getSource() : 0;
+        source = original >= 0 && original < graph.getNumVertices() ? decomposed.getComponentMap()[original] : 0;
+    }
+
+    @Benchmark
+    public List<List<Integer>> tarjanFindSCCs() {
+        return new TarjanSCC(graph).findSCCs();
+    }
+
+    // The decomposition is cached in the fixture, so this is the condensation alone.
+    @Benchmark
+    public Graph buildCondensationGraph() {
+        return decomposed.buildCondensationGraph();
+    }
+
+    @Benchmark
+    public List<Integer> sortKahn() {
+        return new TopologicalSort(condensation).sortKahn();
+    }
+
+    @Benchmark
+    public List<Integer> sortDFS() {
+        return new TopologicalSort(condensation).sortDFS();
+    }
+
+    @Benchmark
+    public int[] shortestPaths() {
+        return new DAGShortestPath(condensation).shortestPaths(source);
+    }
+
+    @Benchmark
+    public DAGShortestPath.PathResult longestPath() {
+        return new DAGShortestPath(condensation).longestPath();
+    }
+}
@@ -0,0 +1,26 @@
+package com.company.benchmarkRunner.jmh;
+
+import com.company.graphRepresentation.Graph;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+// The data/ graphs, loaded once per fork. -Dgraph.data points at another directory.
+@State(Scope.Benchmark)
+public class DatasetBenchmarks extends AlgorithmBenchmarks {
+    @Param({"small_dag", "small_cyclic", "small_sparse",
+            "medium_dag", "medium_cyclic", "medium_dense",
+            "large_dag", "large_cyclic", "large_dense"})
+    public String dataset;
+
+    @Setup(Level.Trial)
+    public void load() throws IOException {
+        Path file = Path.of(System.getProperty("graph.data", "data"), dataset + ".json");
+        prepare(Graph.load(file.toString()));
+    }
+}
@@ -0,0 +1,55 @@
+package com.company.benchmarkRunner.jmh;
+
+import com.company.graphRepresentation.Graph;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+// Seeded random graphs: size vertices, density out-edges per vertex on average,
+// and a cyclicity fraction of edges pointing backwards in a hidden order (0 is a DAG).
+@State(Scope.Benchmark)
+public class SyntheticBenchmarks extends AlgorithmBenchmarks {
+    @Param({"1000", "100000"})
+    public int size;
+
+    @Param({"2", "8"})
+    public int density;
+
+    @Param({"0.0", "0.05"})
+    public double cyclicity;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        Random random = new Random(42);
+        int[] rank = new int[size];
+        for (int i = 0; i < size; i++) {
+            int j = random.nextInt(i + 1);
+            rank[i] = rank[j];
+            rank[j] = i;
+        }
+
+        int m = size * density;
+        Graph generated = new Graph(size, m);
+        for (int i = 0; i < m; i++) {
+            int a = random.nextInt(size);
+            int b = random.nextInt(size);
+            if (a == b) {
+                b = (b + 1) % size;
+            }
+            boolean forward = rank[a] < rank[b];
+            if (random.nextDouble() < cyclicity) {
+                forward = !forward;
+            }
+            if (forward) {
+                generated.addEdge(a, b, 1 + random.nextInt(100));
+            } else {
+                generated.addEdge(b, a, 1 + random.nextInt(100));
+            }
+        }
+        prepare(generated);
+    }
+}
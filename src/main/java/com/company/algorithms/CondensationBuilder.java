@@ -0,0 +1,138 @@
+package com.company.algorithms;
+
+import com.company.graphRepresentation.CsrGraph;
+import com.company.graphRepresentation.Graph;
+import com.company.graphRepresentation.WeightType;
+
+import java.util.Arrays;
+
+// Builds the condensation DAG from an already computed decomposition
+// (vertex -> component map) without re-running the SCC search.
+//
+// Cross-component edges are bucketed by source component with a stable
+// counting sort, so each bucket keeps insertion order. Within a bucket,
+// lastSource[c] / slot[c] remember whether target component c was already
+// emitted and where, which deduplicates without any per-edge objects. The
+// result is written straight into CSR arrays. For LONG and DOUBLE weights the
+// loop also records the slot of every cross edge, and a second pass applies
+// the policy to the exact weights.
+public class CondensationBuilder {
+
+    // Which weight a condensation edge keeps when several original edges
+    // connect the same pair of components.
+    public enum WeightPolicy {
+        FIRST,
+        MIN,
+        MAX
+    }
+
+    public static Graph build(Graph graph, int[] componentOf, int numComponents, WeightPolicy policy) {
+        int m = graph.getNumEdges();
+
+        int[] bucketStart = new int[numComponents + 1];
+        for (int i = 0; i < m; i++) {
+            int cu = componentOf[graph.getEdgeSource(i)];
+            if (cu != componentOf[graph.getEdgeTarget(i)]) {
+                bucketStart[cu + 1]++;
+            }
+        }
+        for (int c = 0; c < numComponents; c++) {
+            bucketStart[c + 1] += bucketStart[c];
+        }
+        int crossEdges = bucketStart[numComponents];
+
+        int[] byComponent = new int[crossEdges];
+        int[] next = Arrays.copyOf(bucketStart, numComponents);
+        for (int i = 0; i < m; i++) {
+            int cu = componentOf[graph.getEdgeSource(i)];
+            if (cu != componentOf[graph.getEdgeTarget(i)]) {
+                byComponent[next[cu]++] = i;
+            }
+        }
+
+        int[] offsets = new int[numComponents + 1];
+        int[] targets = new int[crossEdges];
+        int[] weights = new int[crossEdges];
+        WeightType weightType = graph.getWeightType();
+        int[] slotOf = weightType == WeightType.INT ? null : new int[crossEdges];
+        int[] lastSource = new int[numComponents];
+        int[] slot = new int[numComponents];
+        Arrays.fill(lastSource, -1);
+        int size = 0;
+
+        for (int cu = 0; cu < numComponents; cu++) {
+            offsets[cu] = size;
+            for (int k = bucketStart[cu]; k < bucketStart[cu + 1]; k++) {
+                int i = byComponent[k];
+                int cv = componentOf[graph.getEdgeTarget(i)];
+                int w = graph.getEdgeWeight(i);
+
+                if (slotOf != null) {
+                    slotOf[k] = lastSource[cv] != cu ? size : slot[cv];
+                }
+                if (lastSource[cv] != cu) {
+                    lastSource[cv] = cu;
+                    slot[cv] = size;
+                    targets[size] = cv;
+                    weights[size] = w;
+                    size++;
+                } else if (policy == WeightPolicy.MIN) {
+                    weights[slot[cv]] = Math.min(weights[slot[cv]], w);
+                } else if (policy == WeightPolicy.MAX) {
+                    weights[slot[cv]] = Math.max(weights[slot[cv]], w);
+                }
+            }
+        }
+        offsets[numComponents] = size;
+
+        targets = Arrays.copyOf(targets, size);
+        CsrGraph csr;
+        if (weightType == WeightType.LONG) {
+            csr = new CsrGraph(numComponents, offsets, targets, longWeights(graph, byComponent, slotOf, size, policy));
+        } else if (weightType == WeightType.DOUBLE) {
+            csr = new CsrGraph(numComponents, offsets, targets, doubleWeights(graph, byComponent, slotOf, size, policy));
+        } else {
+            csr = new CsrGraph(numComponents, offsets, targets, Arrays.copyOf(weights, size));
+        }
+        return Graph.fromCsr(csr);
+    }
+
+    // Cross edges come in bucket order, so the first edge of a slot is the
+    // one FIRST keeps.
+    private static long[] longWeights(Graph graph, int[] byComponent, int[] slotOf, int size, WeightPolicy policy) {
+        long[] weights = new long[size];
+        boolean[] filled = new boolean[size];
+        for (int k = 0; k < byComponent.length; k++) {
+            int s = slotOf[k];
+            long w = graph.getEdgeWeightLong(byComponent[k]);
+            if (!filled[s]) {
+                filled[s] = true;
+                weights[s] = w;
+            } else if (policy == WeightPolicy.MIN) {
+                weights[s] = Math.min(weights[s], w);
+            } else if (policy == WeightPolicy.MAX) {
+                weights[s] = Math.max(weights[s], w);
+            }
+        }
+        return weights;
+    }
+
+    private static double[] doubleWeights(Graph graph, int[] byComponent, int[] slotOf, int size,
+                                          WeightPolicy policy) {
+        double[] weights = new double[size];
+        boolean[] filled = new boolean[size];
+        for (int k = 0; k < byComponent.length; k++) {
+            int s = slotOf[k];
+            double w = graph.getEdgeWeightDouble(byComponent[k]);
+            if (!filled[s]) {
+                filled[s] = true;
+                weights[s] = w;
+            } else if (policy == WeightPolicy.MIN) {
+                weights[s] = Math.min(weights[s], w);
+            } else if (policy == WeightPolicy.MAX) {
+                weights[s] = Math.max(weights[s], w);
+            }
+        }
+        return weights;
+    }
+}
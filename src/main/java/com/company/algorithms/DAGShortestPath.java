@@ -3,161 +3,106 @@ package com.company.algorithms;
 import com.company.graphRepresentation.Graph;
 import com.company.metrics.Metrics;
 
-import java.util.*;
+import java.util.List;
 
+// Shortest and longest paths on a DAG. Queries go through a PreparedDAG, so the
+// topological order is computed on the first query and reused by later ones
+// until the graph changes.
 public class DAGShortestPath {
-    private Graph graph;
-    private Metrics metrics;
+    private final PreparedDAG prepared;
 
     public DAGShortestPath(Graph graph) {
-        this.graph = graph;
-        this.metrics = new Metrics();
+        this.prepared = new PreparedDAG(graph);
     }
 
-    public int[] shortestPaths(int source) {
-        int n = graph.getNumVertices();
-        int[] dist = new int[n];
-        Arrays.fill(dist, Integer.MAX_VALUE);
-        dist[source] = 0;
-
-        TopologicalSort topoSort = new TopologicalSort(graph);
-        List<Integer> topoOrder = topoSort.sortDFS();
-
-        metrics.startTimer();
+    public DAGShortestPath(PreparedDAG prepared) {
+        this.prepared = prepared;
+    }
 
-        for (int u : topoOrder) {
-            if (dist[u] != Integer.MAX_VALUE) {
-                for (Graph.Edge edge : graph.getNeighbors(u)) {
-                    int v = edge.v;
-                    int w = edge.w;
+    public int[] shortestPaths(int source) {
+        return prepared.shortestPaths(source);
+    }
 
-                    metrics.incrementCounter("relaxations");
+    public PathResult longestPath() {
+        return prepared.longestPath();
+    }
 
-                    if (dist[u] + w < dist[v]) {
-                        dist[v] = dist[u] + w;
-                    }
-                }
-            }
-        }
+    public PathResult shortestPath(int source, int target) {
+        return prepared.shortestPath(source, target);
+    }
 
-        metrics.stopTimer();
+    // The k heaviest source-to-sink paths, heaviest first; see KBestPaths.
+    public List<PathResult> longestPaths(int k) {
+        return new KBestPaths(prepared).longestPaths(k);
+    }
 
-        return dist;
+    // The k shortest paths from source to target, shortest first.
+    public List<PathResult> shortestPaths(int source, int target, int k) {
+        return new KBestPaths(prepared).shortestPaths(source, target, k);
     }
 
-    public PathResult longestPath() {
-        int n = graph.getNumVertices();
-        int[] dist = new int[n];
-        int[] parent = new int[n];
-        Arrays.fill(dist, Integer.MIN_VALUE);
-        Arrays.fill(parent, -1);
-
-        boolean[] hasIncoming = new boolean[n];
-        for (Graph.Edge edge : graph.getEdges()) {
-            hasIncoming[edge.v] = true;
-        }
+    // Kernels for graphs whose CsrGraph.getWeightType() is LONG or DOUBLE.
+    public long[] shortestPathsLong(int source) {
+        return prepared.shortestPathsLong(source);
+    }
 
-        for (int i = 0; i < n; i++) {
-            if (!hasIncoming[i]) {
-                dist[i] = 0;
-            }
-        }
+    public double[] shortestPathsDouble(int source) {
+        return prepared.shortestPathsDouble(source);
+    }
 
-        TopologicalSort topoSort = new TopologicalSort(graph);
-        List<Integer> topoOrder = topoSort.sortDFS();
+    public LongPathResult longestPathLong() {
+        return prepared.longestPathLong();
+    }
 
-        metrics.startTimer();
+    public DoublePathResult longestPathDouble() {
+        return prepared.longestPathDouble();
+    }
 
-        for (int u : topoOrder) {
-            if (dist[u] != Integer.MIN_VALUE) {
-                for (Graph.Edge edge : graph.getNeighbors(u)) {
-                    int v = edge.v;
-                    int w = edge.w;
+    public Metrics getMetrics() {
+        return prepared.getMetrics();
+    }
 
-                    metrics.incrementCounter("relaxations");
+    public static class PathResult {
+        private List<Integer> path;
+        private int length;
 
-                    if (dist[u] + w > dist[v]) {
-                        dist[v] = dist[u] + w;
-                        parent[v] = u;
-                    }
-                }
-            }
+        public PathResult(List<Integer> path, int length) {
+            this.path = path;
+            this.length = length;
         }
 
-        metrics.stopTimer();
-
-        int maxDist = Integer.MIN_VALUE;
-        int endVertex = -1;
-        for (int i = 0; i < n; i++) {
-            if (dist[i] > maxDist) {
-                maxDist = dist[i];
-                endVertex = i;
-            }
+        public List<Integer> getPath() {
+            return path;
         }
 
-        List<Integer> path = reconstructPath(parent, endVertex);
-
-        return new PathResult(path, maxDist);
-    }
-
-    public PathResult shortestPath(int source, int target) {
-        int n = graph.getNumVertices();
-        int[] dist = new int[n];
-        int[] parent = new int[n];
-        Arrays.fill(dist, Integer.MAX_VALUE);
-        Arrays.fill(parent, -1);
-        dist[source] = 0;
-
-        TopologicalSort topoSort = new TopologicalSort(graph);
-        List<Integer> topoOrder = topoSort.sortDFS();
-
-        metrics.startTimer();
-
-        for (int u : topoOrder) {
-            if (dist[u] != Integer.MAX_VALUE) {
-                for (Graph.Edge edge : graph.getNeighbors(u)) {
-                    int v = edge.v;
-                    int w = edge.w;
-
-                    metrics.incrementCounter("relaxations");
-
-                    if (dist[u] + w < dist[v]) {
-                        dist[v] = dist[u] + w;
-                        parent[v] = u;
-                    }
-                }
-            }
+        public int getLength() {
+            return length;
         }
-
-        metrics.stopTimer();
-
-        List<Integer> path = reconstructPath(parent, target);
-
-        return new PathResult(path, dist[target]);
     }
 
-    private List<Integer> reconstructPath(int[] parent, int end) {
-        List<Integer> path = new ArrayList<>();
-        if (end == -1) return path;
+    public static class LongPathResult {
+        private final List<Integer> path;
+        private final long length;
 
-        int current = end;
-        while (current != -1) {
-            path.add(0, current);
-            current = parent[current];
+        public LongPathResult(List<Integer> path, long length) {
+            this.path = path;
+            this.length = length;
         }
 
-        return path;
-    }
+        public List<Integer> getPath() {
+            return path;
+        }
 
-    public Metrics getMetrics() {
-        return metrics;
+        public long getLength() {
+            return length;
+        }
     }
 
-    public static class PathResult {
-        private List<Integer> path;
-        private int length;
+    public static class DoublePathResult {
+        private final List<Integer> path;
+        private final double length;
 
-        public PathResult(List<Integer> path, int length) {
+        public DoublePathResult(List<Integer> path, double length) {
             this.path = path;
             this.length = length;
         }
@@ -166,7 +111,7 @@ public class DAGShortestPath {
             return path;
         }
 
-        public int getLength() {
+        public double getLength() {
             return length;
         }
     }
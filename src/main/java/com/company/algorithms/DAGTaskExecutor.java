@@ -0,0 +1,319 @@
+package com.company.algorithms;
+
+import com.company.graphRepresentation.CsrGraph;
+import com.company.graphRepresentation.Graph;
+import com.company.metrics.ConcurrentMetrics;
+import com.company.metrics.Metrics;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Runs one task per component of a condensation as soon as every component it
+// depends on has finished. pending[c] starts at c's in-degree and is counted
+// down with an atomic decrement by each finishing predecessor; the one that
+// brings it to zero submits c. There is no lock and no ready queue of our own:
+// a ForkJoinPool worker submitting from inside a task pushes onto its own deque,
+// so ready successors run on the same thread unless another one steals them.
+//
+// inFlight counts submitted tasks that have not finished. A task submits its
+// successors before it leaves inFlight, so inFlight only reaches zero once all
+// work is done or, after a failure, once the tasks already running are done.
+// The first failure stops further submissions and is rethrown by execute.
+public class DAGTaskExecutor {
+
+    // Body of the work for one component; members are its vertices.
+    @FunctionalInterface
+    public interface ComponentTask {
+        void run(int component, int[] members);
+    }
+
+    private final CsrGraph dag;
+    private final int[] inDegree;
+    private final int[] memberOffsets;
+    private final int[] members;
+    private final int[] order;
+    private final Metrics metrics;
+    private final int tasksRun;
+    private final int dependenciesReleased;
+
+    public DAGTaskExecutor(Graph graph) {
+        this(SCCFinder.create(graph));
+    }
+
+    // Reuses the finder's decomposition.
+    public DAGTaskExecutor(SCCFinder finder) {
+        int[] componentOf = finder.getComponentMap();
+        Graph condensation = finder.buildCondensationGraph();
+        this.dag = condensation.toCsr();
+        this.inDegree = dag.inDegrees();
+        this.order = new TopologicalSort(condensation).orderDFS();
+
+        int k = dag.getNumVertices();
+        this.memberOffsets = new int[k + 1];
+        for (int c : componentOf) {
+            memberOffsets[c + 1]++;
+        }
+        for (int c = 0; c < k; c++) {
+            memberOffsets[c + 1] += memberOffsets[c];
+        }
+        this.members = new int[componentOf.length];
+        int[] fill = new int[k];
+        for (int v = 0; v < componentOf.length; v++) {
+            int c = componentOf[v];
+            members[memberOffsets[c] + fill[c]++] = v;
+        }
+
+        this.metrics = new ConcurrentMetrics();
+        this.tasksRun = metrics.register("tasks_run");
+        this.dependenciesReleased = metrics.register("dependencies_released");
+    }
+
+    public int getNumComponents() {
+        return dag.getNumVertices();
+    }
+
+    // Fresh copy of the vertices of component c.
+    public int[] getMembers(int c) {
+        int[] result = new int[memberOffsets[c + 1] - memberOffsets[c]];
+        System.arraycopy(members, memberOffsets[c], result, 0, result.length);
+        return result;
+    }
+
+    // Work-stealing execution on pool.
+    public Report execute(ComponentTask task, ForkJoinPool pool) {
+        return run(task, pool, pool.getParallelism());
+    }
+
+    // One virtual thread per component; parallelism is that of the carrier pool.
+    public Report executeOnVirtualThreads(ComponentTask task) {
+        int carriers = Integer.getInteger("jdk.virtualThreadScheduler.parallelism",
+                Runtime.getRuntime().availableProcessors());
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            return run(task, threads, carriers);
+        }
+    }
+
+    // Every component on the calling thread in topological order: the baseline.
+    public Report executeSerial(ComponentTask task) {
+        int k = order.length;
+        long[] start = new long[k];
+        long[] finish = new long[k];
+        metrics.reset();
+        metrics.startTimer();
+        long origin = System.nanoTime();
+        for (int c : order) {
+            start[c] = System.nanoTime() - origin;
+            task.run(c, getMembers(c));
+            finish[c] = System.nanoTime() - origin;
+            metrics.increment(tasksRun);
+        }
+        long makespan = System.nanoTime() - origin;
+        metrics.stopTimer();
+        return new Report(start, finish, makespan, 1, criticalPath(start, finish), k);
+    }
+
+    private Report run(ComponentTask task, Executor executor, int parallelism) {
+        int k = order.length;
+        long[] start = new long[k];
+        long[] finish = new long[k];
+        metrics.reset();
+        metrics.startTimer();
+        Run run = new Run(task, executor, start, finish);
+        run.inFlight.incrementAndGet(); // held by the caller until the sources are submitted
+        for (int c = 0; c < k; c++) {
+            if (inDegree[c] == 0) {
+                run.submit(c);
+            }
+        }
+        run.leave();
+        try {
+            run.done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            run.fail(e);
+        }
+        long makespan = System.nanoTime() - run.origin;
+        metrics.stopTimer();
+        Throwable failure = run.failure.get();
+        if (failure != null) {
+            throw failure instanceof CompletionException ? (CompletionException) failure
+                    : new CompletionException(failure);
+        }
+        return new Report(start, finish, makespan, parallelism, criticalPath(start, finish), run.completed.get());
+    }
+
+    // Longest chain of measured task times along the dependencies: a lower
+    // bound on the makespan with unlimited workers.
+    private long criticalPath(long[] start, long[] finish) {
+        int[] offsets = dag.getOffsets();
+        int[] targets = dag.getTargets();
+        long[] chain = new long[order.length];
+        long longest = 0;
+        for (int c : order) {
+            long end = chain[c] + finish[c] - start[c];
+            longest = Math.max(longest, end);
+            for (int e = offsets[c], stop = offsets[c + 1]; e < stop; e++) {
+                if (end > chain[targets[e]]) {
+                    chain[targets[e]] = end;
+                }
+            }
+        }
+        return longest;
+    }
+
+    // State of one execute call, shared by its tasks.
+    private final class Run {
+        final ComponentTask task;
+        final Executor executor;
+        final long[] start;
+        final long[] finish;
+        final AtomicIntegerArray pending = new AtomicIntegerArray(inDegree);
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger completed = new AtomicInteger();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final CountDownLatch done = new CountDownLatch(1);
+        final long origin = System.nanoTime();
+
+        Run(ComponentTask task, Executor executor, long[] start, long[] finish) {
+            this.task = task;
+            this.executor = executor;
+            this.start = start;
+            this.finish = finish;
+        }
+
+        void submit(int c) {
+            inFlight.incrementAndGet();
+            try {
+                executor.execute(() -> runComponent(c));
+            } catch (RejectedExecutionException e) {
+                fail(e);
+                leave();
+            }
+        }
+
+        void runComponent(int c) {
+            try {
+                if (failure.get() == null) {
+                    start[c] = System.nanoTime() - origin;
+                    task.run(c, getMembers(c));
+                    finish[c] = System.nanoTime() - origin;
+                    metrics.increment(tasksRun);
+                    completed.incrementAndGet();
+                    release(c);
+                }
+            } catch (Throwable t) {
+                fail(t);
+            } finally {
+                leave();
+            }
+        }
+
+        void release(int c) {
+            int[] offsets = dag.getOffsets();
+            int[] targets = dag.getTargets();
+            for (int e = offsets[c], end = offsets[c + 1]; e < end; e++) {
+                metrics.increment(dependenciesReleased);
+                if (pending.decrementAndGet(targets[e]) == 0 && failure.get() == null) {
+                    submit(targets[e]);
+                }
+            }
+        }
+
+        void fail(Throwable t) {
+            failure.compareAndSet(null, t);
+        }
+
+        void leave() {
+            if (inFlight.decrementAndGet() == 0) {
+                done.countDown();
+            }
+        }
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    // Timings of one execution. Start and finish offsets are nanoseconds from
+    // the start of the run, indexed by component.
+    public static class Report {
+        private final long[] start;
+        private final long[] finish;
+        private final long makespanNanos;
+        private final int parallelism;
+        private final long criticalPathNanos;
+        private final long busyNanos;
+        private final int tasksRun;
+
+        Report(long[] start, long[] finish, long makespanNanos, int parallelism, long criticalPathNanos,
+               int tasksRun) {
+            this.start = start;
+            this.finish = finish;
+            this.makespanNanos = makespanNanos;
+            this.parallelism = parallelism;
+            this.criticalPathNanos = criticalPathNanos;
+            long busy = 0;
+            for (int c = 0; c < start.length; c++) {
+                busy += finish[c] - start[c];
+            }
+            this.busyNanos = busy;
+            this.tasksRun = tasksRun;
+        }
+
+        public long getMakespanNanos() {
+            return makespanNanos;
+        }
+
+        // Sum of the task times.
+        public long getBusyNanos() {
+            return busyNanos;
+        }
+
+        public long getCriticalPathNanos() {
+            return criticalPathNanos;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public int getTasksRun() {
+            return tasksRun;
+        }
+
+        // Share of the workers' time spent in tasks.
+        public double getUtilization() {
+            return makespanNanos == 0 ? 0 : busyNanos / ((double) makespanNanos * parallelism);
+        }
+
+        // Critical path over makespan: 1.0 when the longest dependency chain
+        // never waited for a worker.
+        public double getCriticalPathEfficiency() {
+            return makespanNanos == 0 ? 0 : criticalPathNanos / (double) makespanNanos;
+        }
+
+        public long getStartNanos(int c) {
+            return start[c];
+        }
+
+        public long getFinishNanos(int c) {
+            return finish[c];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d tasks, makespan %.2f ms, busy %.2f ms, critical path %.2f ms,"
+                            + " utilization %.1f%% of %d workers, critical-path efficiency %.1f%%",
+                    tasksRun, makespanNanos / 1e6, busyNanos / 1e6, criticalPathNanos / 1e6,
+                    100 * getUtilization(), parallelism, 100 * getCriticalPathEfficiency());
+        }
+    }
+}
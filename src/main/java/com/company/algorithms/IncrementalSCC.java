@@ -0,0 +1,526 @@
+package com.company.algorithms;
+
+import com.company.graphRepresentation.CsrGraph;
+import com.company.graphRepresentation.Graph;
+import com.company.metrics.Metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Strongly connected components of a growing graph. Tarjan runs once; after
+// that every inserted edge is handled on the condensation DAG: components are
+// union-find sets over the initial Tarjan components, and their topological
+// order is repaired Pearce-Kelly style. An edge against the order searches
+// only the components positioned between its endpoints; if it closes a cycle,
+// the components both reachable from its target and reaching its source are
+// merged into one, and the condensation edges of the merged set are folded
+// into the surviving component.
+//
+// Components are identified by a stable id: the index of one of the Tarjan
+// components it absorbed (getComponent, getSuccessors, getMembers,
+// getComponentOrder). The SCCFinder methods renumber them compactly in
+// reverse topological order, like TarjanSCC does, and cache that numbering
+// until the next change.
+public class IncrementalSCC implements SCCFinder {
+    private final Graph graph;
+    private final int[] initialComponentOf;
+
+    // Union-find over the initial component ids.
+    private final int[] parentOf;
+    private final int[] setSize;
+    private int numComponents;
+
+    // Members as a linked list over vertices, headed at the representative.
+    private final int[] firstMember;
+    private final int[] lastMember;
+    private final int[] nextMember;
+
+    // Condensation edges: the Tarjan condensation CSR, plus per-component
+    // lists for inserted edges and for components that absorbed others (whose
+    // CSR range is then no longer used). Entries may name merged components
+    // and are resolved with find().
+    private final CsrGraph base;
+    private final CsrGraph baseReverse;
+    private final boolean[] baseRetired;
+    private final int[][] extraOut;
+    private final int[][] extraIn;
+    private final int[] extraOutSize;
+    private final int[] extraInSize;
+
+    // Topological order of the live components; merged-away slots hold -1.
+    private final int[] positionOf;
+    private final int[] componentAt;
+
+    private final int[] markForward;
+    private final int[] markBackward;
+    private final int[] stack;
+    private int stamp;
+    private final IntList forward = new IntList();
+    private final IntList backward = new IntList();
+
+    private int seenEdges;
+    private long version;
+    private long numberedAt = -1;
+    private int[] compactOf;
+    private int[] componentOf;
+    private List<List<Integer>> sccs;
+
+    private final Metrics metrics;
+    private final int insertions;
+    private final int reorders;
+    private final int merges;
+    private final int componentsVisited;
+
+    public IncrementalSCC(Graph graph) {
+        this.graph = graph;
+        this.metrics = new Metrics();
+        this.insertions = metrics.register("insertions");
+        this.reorders = metrics.register("reorders");
+        this.merges = metrics.register("merges");
+        this.componentsVisited = metrics.register("components_visited");
+
+        TarjanSCC tarjan = new TarjanSCC(graph);
+        int k = tarjan.findSCCs().size();
+        this.initialComponentOf = tarjan.getComponentMap().clone();
+        this.base = tarjan.buildCondensationGraph().toCsr();
+        this.baseReverse = base.transpose();
+        this.seenEdges = graph.getNumEdges();
+        this.numComponents = k;
+
+        int n = graph.getNumVertices();
+        this.parentOf = new int[k];
+        this.setSize = new int[k];
+        this.firstMember = new int[k];
+        this.lastMember = new int[k];
+        this.nextMember = new int[n];
+        Arrays.fill(firstMember, -1);
+        for (int c = 0; c < k; c++) {
+            parentOf[c] = c;
+            setSize[c] = 1;
+        }
+        for (int v = n - 1; v >= 0; v--) {
+            int c = initialComponentOf[v];
+            nextMember[v] = firstMember[c];
+            if (firstMember[c] == -1) {
+                lastMember[c] = v;
+            }
+            firstMember[c] = v;
+        }
+
+        this.baseRetired = new boolean[k];
+        this.extraOut = new int[k][];
+        this.extraIn = new int[k][];
+        this.extraOutSize = new int[k];
+        this.extraInSize = new int[k];
+
+        // Tarjan numbers components in reverse topological order.
+        this.positionOf = new int[k];
+        this.componentAt = new int[k];
+        for (int c = 0; c < k; c++) {
+            positionOf[c] = k - 1 - c;
+            componentAt[k - 1 - c] = c;
+        }
+
+        this.markForward = new int[k];
+        this.markBackward = new int[k];
+        this.stack = new int[k];
+    }
+
+    // Adds u -> v to the graph and updates the components. Returns true if the
+    // edge closed a cycle and components were merged.
+    public boolean addEdge(int u, int v, int w) {
+        sync();
+        graph.addEdge(u, v, w);
+        seenEdges++;
+        return insert(u, v);
+    }
+
+    // Stable id of v's component.
+    public int getComponent(int v) {
+        sync();
+        return find(initialComponentOf[v]);
+    }
+
+    public boolean sameComponent(int u, int v) {
+        return getComponent(u) == getComponent(v);
+    }
+
+    public int getNumComponents() {
+        sync();
+        return numComponents;
+    }
+
+    // Stable ids of the live components in topological order.
+    public int[] getComponentOrder() {
+        sync();
+        int[] order = new int[numComponents];
+        int size = 0;
+        for (int c : componentAt) {
+            if (c != -1) {
+                order[size++] = c;
+            }
+        }
+        return order;
+    }
+
+    // Distinct successor components of a live component in the condensation.
+    public int[] getSuccessors(int component) {
+        sync();
+        int current = ++stamp;
+        markForward[component] = current;
+        IntList successors = new IntList();
+        int[] offsets = base.getOffsets();
+        int[] targets = base.getTargets();
+        if (!baseRetired[component]) {
+            for (int e = offsets[component], end = offsets[component + 1]; e < end; e++) {
+                addUnmarked(successors, find(targets[e]), current);
+            }
+        }
+        for (int i = 0; i < extraOutSize[component]; i++) {
+            addUnmarked(successors, find(extraOut[component][i]), current);
+        }
+        return successors.toArray();
+    }
+
+    private void addUnmarked(IntList list, int c, int current) {
+        if (markForward[c] != current) {
+            markForward[c] = current;
+            list.add(c);
+        }
+    }
+
+    public int[] getMembers(int component) {
+        sync();
+        int[] members = new int[countMembers(component)];
+        int i = 0;
+        for (int v = firstMember[component]; v != -1; v = nextMember[v]) {
+            members[i++] = v;
+        }
+        return members;
+    }
+
+    private int countMembers(int component) {
+        int count = 0;
+        for (int v = firstMember[component]; v != -1; v = nextMember[v]) {
+            count++;
+        }
+        return count;
+    }
+
+    // Components as member lists, numbered in reverse topological order.
+    @Override
+    public List<List<Integer>> findSCCs() {
+        number();
+        return sccs;
+    }
+
+    @Override
+    public int[] getComponentMap() {
+        number();
+        return componentOf;
+    }
+
+    @Override
+    public Graph buildCondensationGraph(CondensationBuilder.WeightPolicy policy) {
+        number();
+        return CondensationBuilder.build(graph, componentOf, sccs.size(), policy);
+    }
+
+    private void number() {
+        sync();
+        if (numberedAt == version) {
+            return;
+        }
+        compactOf = new int[componentAt.length];
+        sccs = new ArrayList<>(numComponents);
+        for (int p = componentAt.length - 1; p >= 0; p--) {
+            int c = componentAt[p];
+            if (c == -1) {
+                continue;
+            }
+            compactOf[c] = sccs.size();
+            List<Integer> members = new ArrayList<>(countMembers(c));
+            for (int v = firstMember[c]; v != -1; v = nextMember[v]) {
+                members.add(v);
+            }
+            sccs.add(members);
+        }
+        componentOf = new int[initialComponentOf.length];
+        for (int v = 0; v < componentOf.length; v++) {
+            componentOf[v] = compactOf[find(initialComponentOf[v])];
+        }
+        numberedAt = version;
+    }
+
+    // Edges appended to the graph directly since the last call.
+    private void sync() {
+        int numEdges = graph.getNumEdges();
+        for (; seenEdges < numEdges; seenEdges++) {
+            insert(graph.getEdgeSource(seenEdges), graph.getEdgeTarget(seenEdges));
+        }
+    }
+
+    private boolean insert(int u, int v) {
+        metrics.increment(insertions);
+        int cu = find(initialComponentOf[u]);
+        int cv = find(initialComponentOf[v]);
+        if (cu == cv) {
+            return false;
+        }
+        version++;
+        int lower = positionOf[cv];
+        int upper = positionOf[cu];
+        if (lower > upper) {
+            link(cu, cv);
+            return false;
+        }
+
+        // Region [positionOf[cv], positionOf[cu]]: the forward set is what cv
+        // reaches inside it, the backward set what reaches cu. They overlap
+        // exactly when the new edge closes a cycle.
+        boolean cycle = searchForward(cv, upper, cu);
+        searchBackward(cu, lower);
+        metrics.increment(reorders);
+        metrics.add(componentsVisited, forward.size() + backward.size());
+        if (!cycle) {
+            reorder(-1);
+            link(cu, cv);
+            return false;
+        }
+
+        int survivor = cu;
+        for (int i = 0; i < forward.size(); i++) {
+            int c = forward.get(i);
+            if (markBackward[c] == stamp && find(c) != survivor) {
+                survivor = union(survivor, c);
+            }
+        }
+        metrics.increment(merges);
+        reorder(survivor);
+        foldEdges(survivor);
+        return true;
+    }
+
+    // DFS over successors of start positioned at most upper; returns whether
+    // target was reached. Unlike the acyclic case it does not stop there,
+    // since every component on a cycle through target is needed.
+    private boolean searchForward(int start, int upper, int target) {
+        int current = ++stamp;
+        forward.clear();
+        int top = 0;
+        markForward[start] = current;
+        stack[top++] = start;
+        int[] offsets = base.getOffsets();
+        int[] targets = base.getTargets();
+        while (top > 0) {
+            int x = stack[--top];
+            forward.add(x);
+            if (!baseRetired[x]) {
+                for (int e = offsets[x], end = offsets[x + 1]; e < end; e++) {
+                    top = pushForward(find(targets[e]), upper, current, top);
+                }
+            }
+            for (int i = 0; i < extraOutSize[x]; i++) {
+                top = pushForward(find(extraOut[x][i]), upper, current, top);
+            }
+        }
+        return markForward[target] == current;
+    }
+
+    private int pushForward(int y, int upper, int current, int top) {
+        if (markForward[y] != current && positionOf[y] <= upper) {
+            markForward[y] = current;
+            stack[top++] = y;
+        }
+        return top;
+    }
+
+    // Shares the forward search's stamp, so markForward and markBackward both
+    // equal stamp for the components on the new cycle.
+    private void searchBackward(int start, int lower) {
+        int current = stamp;
+        backward.clear();
+        int top = 0;
+        markBackward[start] = current;
+        stack[top++] = start;
+        int[] offsets = baseReverse.getOffsets();
+        int[] sources = baseReverse.getTargets();
+        while (top > 0) {
+            int x = stack[--top];
+            backward.add(x);
+            if (!baseRetired[x]) {
+                for (int e = offsets[x], end = offsets[x + 1]; e < end; e++) {
+                    top = pushBackward(find(sources[e]), lower, current, top);
+                }
+            }
+            for (int i = 0; i < extraInSize[x]; i++) {
+                top = pushBackward(find(extraIn[x][i]), lower, current, top);
+            }
+        }
+    }
+
+    private int pushBackward(int y, int lower, int current, int top) {
+        if (markBackward[y] != current && positionOf[y] >= lower) {
+            markBackward[y] = current;
+            stack[top++] = y;
+        }
+        return top;
+    }
+
+    // Among the positions the searched components held, the backward-only
+    // components take the lowest, the merged one (if any) the next, and the
+    // forward-only components the highest, so that no component moves past an
+    // unsearched neighbour. The positions in between become holes.
+    private void reorder(int merged) {
+        int[] back = onlyIn(backward, markForward);
+        int[] ahead = onlyIn(forward, markBackward);
+        int[] slots = new int[forward.size() + backward.size()];
+        int k = 0;
+        for (int i = 0; i < backward.size(); i++) {
+            slots[k++] = positionOf[backward.get(i)];
+        }
+        for (int i = 0; i < forward.size(); i++) {
+            int c = forward.get(i);
+            if (markBackward[c] != stamp) {
+                slots[k++] = positionOf[c];
+            }
+        }
+        slots = Arrays.copyOf(slots, k);
+        Arrays.sort(slots);
+        for (int slot : slots) {
+            componentAt[slot] = -1;
+        }
+        k = 0;
+        for (int c : back) {
+            place(c, slots[k++]);
+        }
+        if (merged != -1) {
+            place(merged, slots[k]);
+        }
+        k = slots.length - ahead.length;
+        for (int c : ahead) {
+            place(c, slots[k++]);
+        }
+    }
+
+    // Components of the list not marked with the current stamp in other,
+    // sorted by their current position.
+    private int[] onlyIn(IntList list, int[] other) {
+        IntList positions = new IntList(list.size());
+        for (int i = 0; i < list.size(); i++) {
+            int c = list.get(i);
+            if (other[c] != stamp) {
+                positions.add(positionOf[c]);
+            }
+        }
+        int[] result = positions.toArray();
+        Arrays.sort(result);
+        for (int i = 0; i < result.length; i++) {
+            result[i] = componentAt[result[i]];
+        }
+        return result;
+    }
+
+    private void place(int c, int position) {
+        positionOf[c] = position;
+        componentAt[position] = c;
+    }
+
+    // Collects the edges of every component merged into survivor into its
+    // extra lists, dropping the ones that became internal and duplicates.
+    private void foldEdges(int survivor) {
+        int current = ++stamp;
+        IntList out = new IntList();
+        IntList in = new IntList();
+        for (int i = 0; i < forward.size(); i++) {
+            int c = forward.get(i);
+            if (find(c) != survivor) {
+                continue;
+            }
+            if (!baseRetired[c]) {
+                for (int e = base.getEdgeStart(c), end = base.getEdgeEnd(c); e < end; e++) {
+                    collect(out, markForward, find(base.getTarget(e)), survivor, current);
+                }
+                for (int e = baseReverse.getEdgeStart(c), end = baseReverse.getEdgeEnd(c); e < end; e++) {
+                    collect(in, markBackward, find(baseReverse.getTarget(e)), survivor, current);
+                }
+                baseRetired[c] = true;
+            }
+            for (int j = 0; j < extraOutSize[c]; j++) {
+                collect(out, markForward, find(extraOut[c][j]), survivor, current);
+            }
+            for (int j = 0; j < extraInSize[c]; j++) {
+                collect(in, markBackward, find(extraIn[c][j]), survivor, current);
+            }
+            extraOut[c] = null;
+            extraIn[c] = null;
+            extraOutSize[c] = 0;
+            extraInSize[c] = 0;
+        }
+        extraOut[survivor] = out.toArray();
+        extraOutSize[survivor] = out.size();
+        extraIn[survivor] = in.toArray();
+        extraInSize[survivor] = in.size();
+    }
+
+    private static void collect(IntList list, int[] mark, int c, int survivor, int current) {
+        if (c != survivor && mark[c] != current) {
+            mark[c] = current;
+            list.add(c);
+        }
+    }
+
+    // Union by size; the merged members are spliced onto the survivor's list.
+    private int union(int a, int b) {
+        if (setSize[a] < setSize[b]) {
+            int tmp = a;
+            a = b;
+            b = tmp;
+        }
+        parentOf[b] = a;
+        setSize[a] += setSize[b];
+        nextMember[lastMember[a]] = firstMember[b];
+        lastMember[a] = lastMember[b];
+        firstMember[b] = -1;
+        numComponents--;
+        return a;
+    }
+
+    private int find(int c) {
+        int root = c;
+        while (parentOf[root] != root) {
+            root = parentOf[root];
+        }
+        while (parentOf[c] != root) {
+            int next = parentOf[c];
+            parentOf[c] = root;
+            c = next;
+        }
+        return root;
+    }
+
+    private void link(int cu, int cv) {
+        extraOut[cu] = append(extraOut[cu], extraOutSize[cu]++, cv);
+        extraIn[cv] = append(extraIn[cv], extraInSize[cv]++, cu);
+    }
+
+    private static int[] append(int[] list, int size, int value) {
+        if (list == null) {
+            list = new int[2];
+        } else if (size == list.length) {
+            list = Arrays.copyOf(list, Math.max(2, size * 2));
+        }
+        list[size] = value;
+        return list;
+    }
+
+    public Graph getGraph() {
+        return graph;
+    }
+
+    @Override
+    public Metrics getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,309 @@
+package com.company.algorithms;
+
+import com.company.graphRepresentation.CsrGraph;
+import com.company.graphRepresentation.Graph;
+import com.company.metrics.Metrics;
+
+import java.util.Arrays;
+
+// Topological order of a growing DAG, kept up to date with the Pearce-Kelly
+// algorithm: an edge u -> v that already agrees with the order costs O(1);
+// otherwise only the vertices between v and u in the order that are reachable
+// from v, or reach u, are searched and reshuffled among their own positions.
+// The edges present at construction stay in the frozen CSR and its transpose;
+// later edges go into small per-vertex lists. Edges added straight to the
+// Graph are picked up on the next call.
+public class IncrementalTopologicalOrder {
+    private final Graph graph;
+    private final CsrGraph base;
+    private final CsrGraph baseReverse;
+    private final int[][] extraOut;
+    private final int[][] extraIn;
+    private final int[] extraOutSize;
+    private final int[] extraInSize;
+
+    // positionOf[v] is v's index in vertexAt.
+    private final int[] positionOf;
+    private final int[] vertexAt;
+
+    // Search state, reused across insertions; mark[v] == stamp means visited.
+    private final int[] mark;
+    private final int[] parent;
+    private final int[] stack;
+    private int stamp;
+    private final IntList forward = new IntList();
+    private final IntList backward = new IntList();
+
+    private int seenEdges;
+    private int[] lastCycle = new int[0];
+
+    private final Metrics metrics;
+    private final int insertions;
+    private final int reorders;
+    private final int verticesVisited;
+    private final int cyclesRejected;
+
+    public IncrementalTopologicalOrder(Graph graph) {
+        this.graph = graph;
+        this.base = graph.toCsr();
+        this.baseReverse = base.transpose();
+        int n = base.getNumVertices();
+        this.extraOut = new int[n][];
+        this.extraIn = new int[n][];
+        this.extraOutSize = new int[n];
+        this.extraInSize = new int[n];
+        this.mark = new int[n];
+        this.parent = new int[n];
+        this.stack = new int[n];
+        this.seenEdges = graph.getNumEdges();
+
+        this.metrics = new Metrics();
+        this.insertions = metrics.register("insertions");
+        this.reorders = metrics.register("reorders");
+        this.verticesVisited = metrics.register("vertices_visited");
+        this.cyclesRejected = metrics.register("cycles_rejected");
+
+        TopologicalLevels levels = new TopologicalSort(graph).sortLevels();
+        if (!levels.isAcyclic()) {
+            throw new IllegalArgumentException("Graph is not a DAG, cycle: " + Arrays.toString(levels.findCycle()));
+        }
+        this.vertexAt = levels.getOrder().clone();
+        this.positionOf = new int[n];
+        for (int i = 0; i < n; i++) {
+            positionOf[vertexAt[i]] = i;
+        }
+    }
+
+    // Adds u -> v to the graph and repairs the order. Returns false, leaving
+    // the graph unchanged, if the edge would close a cycle; getLastCycle()
+    // then holds it.
+    public boolean addEdge(int u, int v, int w) {
+        sync();
+        if (!insert(u, v)) {
+            return false;
+        }
+        graph.addEdge(u, v, w);
+        seenEdges++;
+        return true;
+    }
+
+    // True if u -> v can be added without closing a cycle. Runs the same
+    // bounded search as addEdge but leaves the order as it is.
+    public boolean canAddEdge(int u, int v) {
+        sync();
+        if (u == v) {
+            return false;
+        }
+        if (positionOf[u] < positionOf[v]) {
+            return true;
+        }
+        return !searchForward(v, positionOf[u], u);
+    }
+
+    // The cycle found by the last rejected insertion of u -> v, as the path
+    // v ... u; the new edge from the last vertex back to the first closes it.
+    public int[] getLastCycle() {
+        return lastCycle;
+    }
+
+    public int[] getOrder() {
+        sync();
+        return vertexAt.clone();
+    }
+
+    // Index of v in getOrder().
+    public int getPosition(int v) {
+        sync();
+        return positionOf[v];
+    }
+
+    // Edges appended to the graph directly since the last call.
+    private void sync() {
+        int numEdges = graph.getNumEdges();
+        for (; seenEdges < numEdges; seenEdges++) {
+            int u = graph.getEdgeSource(seenEdges);
+            int v = graph.getEdgeTarget(seenEdges);
+            if (!insert(u, v)) {
+                seenEdges++;
+                throw new IllegalStateException("Edge " + u + " -> " + v
+                        + " added to the graph closes the cycle " + Arrays.toString(lastCycle));
+            }
+        }
+    }
+
+    private boolean insert(int u, int v) {
+        metrics.increment(insertions);
+        if (u == v) {
+            metrics.increment(cyclesRejected);
+            lastCycle = new int[]{u};
+            return false;
+        }
+        int lower = positionOf[v];
+        int upper = positionOf[u];
+        if (lower > upper) {
+            link(u, v);
+            return true;
+        }
+
+        // The affected region is [positionOf[v], positionOf[u]]. Everything
+        // reachable from v inside it must move behind everything reaching u.
+        if (searchForward(v, upper, u)) {
+            metrics.increment(cyclesRejected);
+            lastCycle = pathTo(u);
+            return false;
+        }
+        searchBackward(u, lower);
+        metrics.increment(reorders);
+        metrics.add(verticesVisited, forward.size() + backward.size());
+        reorder();
+        link(u, v);
+        return true;
+    }
+
+    // DFS from start over out-edges, skipping vertices positioned after upper.
+    // Fills forward and returns true as soon as target is reached.
+    private boolean searchForward(int start, int upper, int target) {
+        int current = ++stamp;
+        forward.clear();
+        int top = 0;
+        mark[start] = current;
+        parent[start] = -1;
+        stack[top++] = start;
+        int[] offsets = base.getOffsets();
+        int[] targets = base.getTargets();
+        while (top > 0) {
+            int x = stack[--top];
+            forward.add(x);
+            for (int e = offsets[x], end = offsets[x + 1]; e < end; e++) {
+                int y = targets[e];
+                if (mark[y] != current && positionOf[y] <= upper) {
+                    if (visitForward(x, y, current, target)) {
+                        return true;
+                    }
+                    stack[top++] = y;
+                }
+            }
+            for (int i = 0; i < extraOutSize[x]; i++) {
+                int y = extraOut[x][i];
+                if (mark[y] != current && positionOf[y] <= upper) {
+                    if (visitForward(x, y, current, target)) {
+                        return true;
+                    }
+                    stack[top++] = y;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean visitForward(int x, int y, int current, int target) {
+        mark[y] = current;
+        parent[y] = x;
+        return y == target;
+    }
+
+    // DFS from start over in-edges, skipping vertices positioned before lower.
+    // The forward set is disjoint from it, or the insertion was a cycle.
+    private void searchBackward(int start, int lower) {
+        int current = ++stamp;
+        backward.clear();
+        int top = 0;
+        mark[start] = current;
+        stack[top++] = start;
+        int[] offsets = baseReverse.getOffsets();
+        int[] sources = baseReverse.getTargets();
+        while (top > 0) {
+            int x = stack[--top];
+            backward.add(x);
+            for (int e = offsets[x], end = offsets[x + 1]; e < end; e++) {
+                int y = sources[e];
+                if (mark[y] != current && positionOf[y] >= lower) {
+                    mark[y] = current;
+                    stack[top++] = y;
+                }
+            }
+            for (int i = 0; i < extraInSize[x]; i++) {
+                int y = extraIn[x][i];
+                if (mark[y] != current && positionOf[y] >= lower) {
+                    mark[y] = current;
+                    stack[top++] = y;
+                }
+            }
+        }
+    }
+
+    // The backward set, then the forward set, each in its old relative order,
+    // take over the union of the positions both sets occupied.
+    private void reorder() {
+        int[] back = sortByPosition(backward.toArray());
+        int[] ahead = sortByPosition(forward.toArray());
+        int[] slots = new int[back.length + ahead.length];
+        int k = 0;
+        for (int x : back) {
+            slots[k++] = positionOf[x];
+        }
+        for (int x : ahead) {
+            slots[k++] = positionOf[x];
+        }
+        Arrays.sort(slots);
+        k = 0;
+        for (int x : back) {
+            place(x, slots[k++]);
+        }
+        for (int x : ahead) {
+            place(x, slots[k++]);
+        }
+    }
+
+    private int[] sortByPosition(int[] vertices) {
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = positionOf[vertices[i]];
+        }
+        Arrays.sort(vertices);
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = vertexAt[vertices[i]];
+        }
+        return vertices;
+    }
+
+    private void place(int v, int position) {
+        positionOf[v] = position;
+        vertexAt[position] = v;
+    }
+
+    // Follows the forward search's parents back from to; the start has parent -1.
+    private int[] pathTo(int to) {
+        int length = 0;
+        for (int x = to; x != -1; x = parent[x]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int x = to; x != -1; x = parent[x]) {
+            path[--length] = x;
+        }
+        return path;
+    }
+
+    private void link(int u, int v) {
+        extraOut[u] = append(extraOut[u], extraOutSize[u]++, v);
+        extraIn[v] = append(extraIn[v], extraInSize[v]++, u);
+    }
+
+    private static int[] append(int[] list, int size, int value) {
+        if (list == null) {
+            list = new int[2];
+        } else if (size == list.length) {
+            list = Arrays.copyOf(list, size * 2);
+        }
+        list[size] = value;
+        return list;
+    }
+
+    public Graph getGraph() {
+        return graph;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+}
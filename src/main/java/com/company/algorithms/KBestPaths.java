@@ -0,0 +1,464 @@
+package com.company.algorithms;
+
+import com.company.graphRepresentation.CsrGraph;
+import com.company.graphRepresentation.Graph;
+import com.company.metrics.Metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// The K shortest paths between two vertices, or the K longest source-to-sink
+// chains, of a DAG (Eppstein). One sweep in reverse topological order gives
+// every vertex its best cost to the end and the tree edge achieving it. Every
+// other edge is a sidetrack, costing delta = how much worse taking it is; a
+// path is the sequence of sidetracks it takes. Each vertex heapifies its own
+// sidetracks, and the same sweep builds, per vertex, a persistent leftist heap
+// of the best sidetrack of every vertex on its tree path, sharing structure
+// with its successor's heap. Best-first search over these heaps then yields
+// the paths in order, at O(log K) each. A query costs one sweep,
+// O(V log V) heap nodes and O(K log K) for the paths.
+//
+// Longest paths are searched as shortest paths over negated weights, from a
+// virtual hub linked to every vertex without in-edges, ending at any vertex
+// without out-edges. Lengths are summed in long and reported as int; a length
+// outside the int range throws ArithmeticException. Graphs with LONG or DOUBLE
+// weights are refused with IllegalStateException, as by PreparedDAG's int
+// queries.
+public class KBestPaths {
+    private static final long UNREACHED = Long.MAX_VALUE;
+
+    private final PreparedDAG prepared;
+    private final Metrics metrics;
+    private final int relaxations;
+    private final int heapNodes;
+    private final int candidates;
+
+    public KBestPaths(Graph graph) {
+        this(new PreparedDAG(graph));
+    }
+
+    public KBestPaths(PreparedDAG prepared) {
+        this.prepared = prepared;
+        this.metrics = new Metrics();
+        this.relaxations = metrics.register("relaxations");
+        this.heapNodes = metrics.register("heap_nodes");
+        this.candidates = metrics.register("candidates");
+    }
+
+    // Up to k paths from source to target, shortest first. Fewer come back when
+    // fewer exist; none when target is unreachable.
+    public List<DAGShortestPath.PathResult> shortestPaths(int source, int target, int k) {
+        requireIntWeights();
+        requirePositive(k);
+        int[] order = prepared.getTopologicalOrder();
+        int from = prepared.getPosition(source);
+        int to = prepared.getPosition(target);
+        if (from > to) {
+            return new ArrayList<>();
+        }
+        return new Search(order, 1, new int[]{target}).run(from, to, new int[]{source}, k);
+    }
+
+    // Up to k heaviest paths from a vertex without in-edges to one without
+    // out-edges, heaviest first; the first is the critical path.
+    public List<DAGShortestPath.PathResult> longestPaths(int k) {
+        requireIntWeights();
+        requirePositive(k);
+        int[] order = prepared.getTopologicalOrder();
+        CsrGraph csr = prepared.getGraph().toCsr();
+        int n = order.length;
+        IntList roots = new IntList();
+        IntList sinks = new IntList();
+        int[] inDegree = csr.inDegrees();
+        for (int v = 0; v < n; v++) {
+            if (inDegree[v] == 0) {
+                roots.add(v);
+            }
+            if (csr.getOutDegree(v) == 0) {
+                sinks.add(v);
+            }
+        }
+        return new Search(order, -1, sinks.toArray()).run(0, n - 1, roots.toArray(), k);
+    }
+
+    private void requireIntWeights() {
+        PreparedDAG.requireIntWeights(prepared.getGraph().toCsr(), "K best paths need INT weights");
+    }
+
+    private static void requirePositive(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be positive");
+        }
+    }
+
+    // State of one query. Vertex n is the hub the paths start from.
+    private final class Search {
+        final int[] order;
+        final int sign;
+        final CsrGraph csr;
+        final int n;
+        final long[] best;
+        final int[] next;
+        final boolean[] isEnd;
+        // Sidetracks out of v: a min-heap by delta in [sideStart[v], sideStart[v] + sideCount[v]).
+        final int[] sideStart;
+        final int[] sideCount;
+        final int[] sideHead;
+        final long[] sideDelta;
+        // Root of the persistent heap for v's tree path, -1 if it has no sidetracks.
+        final int[] pathHeap;
+
+        // Persistent leftist heap nodes; each stands for the sidetrack heap of one vertex.
+        long[] nodeKey = new long[64];
+        int[] nodeVertex = new int[64];
+        int[] nodeLeft = new int[64];
+        int[] nodeRight = new int[64];
+        int[] nodeRank = new int[64];
+        int nodes;
+
+        Search(int[] order, int sign, int[] ends) {
+            this.order = order;
+            this.sign = sign;
+            this.csr = prepared.getGraph().toCsr();
+            this.n = order.length;
+            this.best = new long[n + 1];
+            this.next = new int[n + 1];
+            this.isEnd = new boolean[n];
+            this.sideStart = new int[n + 1];
+            this.sideCount = new int[n + 1];
+            this.pathHeap = new int[n + 1];
+            int edges = csr.getNumEdges();
+            this.sideHead = new int[edges + n];
+            this.sideDelta = new long[edges + n];
+            Arrays.fill(best, UNREACHED);
+            Arrays.fill(next, -1);
+            Arrays.fill(pathHeap, -1);
+            for (int v : ends) {
+                isEnd[v] = true;
+            }
+        }
+
+        List<DAGShortestPath.PathResult> run(int from, int to, int[] starts, int k) {
+            int[] offsets = csr.getOffsets();
+            int[] targets = csr.getTargets();
+            int[] weights = csr.getWeights();
+            long relaxed = 0;
+
+            metrics.startTimer();
+
+            for (int i = to; i >= from; i--) {
+                int v = order[i];
+                if (isEnd[v]) {
+                    best[v] = 0;
+                    continue;
+                }
+                settle(v, targets, weights, offsets[v], offsets[v + 1], offsets[v]);
+                relaxed += offsets[v + 1] - offsets[v];
+            }
+            // The hub's edges to the starts weigh nothing.
+            settle(n, starts, null, 0, starts.length, csr.getNumEdges());
+            metrics.add(relaxations, relaxed);
+
+            List<DAGShortestPath.PathResult> paths = best[n] == UNREACHED ? new ArrayList<>() : enumerate(k);
+
+            metrics.stopTimer();
+            metrics.add(heapNodes, nodes);
+            return paths;
+        }
+
+        // Picks v's tree edge, heapifies its other edges as sidetracks at
+        // slot.. and adds the best of them to the successor's path heap.
+        void settle(int v, int[] heads, int[] weights, int start, int end, int slot) {
+            long bestCost = UNREACHED;
+            int bestEdge = -1;
+            for (int e = start; e < end; e++) {
+                long tail = best[heads[e]];
+                if (tail != UNREACHED) {
+                    long cost = (weights == null ? 0 : sign * (long) weights[e]) + tail;
+                    if (cost < bestCost) {
+                        bestCost = cost;
+                        bestEdge = e;
+                    }
+                }
+            }
+            if (bestEdge < 0) {
+                return;
+            }
+            best[v] = bestCost;
+            next[v] = heads[bestEdge];
+            sideStart[v] = slot;
+            int count = 0;
+            for (int e = start; e < end; e++) {
+                long tail = best[heads[e]];
+                if (e != bestEdge && tail != UNREACHED) {
+                    sideHead[slot + count] = heads[e];
+                    sideDelta[slot + count] = (weights == null ? 0 : sign * (long) weights[e]) + tail - bestCost;
+                    count++;
+                }
+            }
+            sideCount[v] = count;
+            for (int i = count / 2 - 1; i >= 0; i--) {
+                siftDown(slot, count, i);
+            }
+            pathHeap[v] = count == 0 ? pathHeap[next[v]] : insert(pathHeap[next[v]], v);
+        }
+
+        void siftDown(int base, int count, int i) {
+            while (true) {
+                int smallest = i;
+                int left = 2 * i + 1;
+                if (left < count && sideDelta[base + left] < sideDelta[base + smallest]) {
+                    smallest = left;
+                }
+                if (left + 1 < count && sideDelta[base + left + 1] < sideDelta[base + smallest]) {
+                    smallest = left + 1;
+                }
+                if (smallest == i) {
+                    return;
+                }
+                long delta = sideDelta[base + i];
+                sideDelta[base + i] = sideDelta[base + smallest];
+                sideDelta[base + smallest] = delta;
+                int head = sideHead[base + i];
+                sideHead[base + i] = sideHead[base + smallest];
+                sideHead[base + smallest] = head;
+                i = smallest;
+            }
+        }
+
+        // Persistent insert of v's best sidetrack: copies the right spine only.
+        int insert(int heap, int v) {
+            int single = newNode(sideDelta[sideStart[v]], v, -1, -1, 1);
+            return merge(heap, single);
+        }
+
+        int merge(int a, int b) {
+            if (a < 0) {
+                return b;
+            }
+            if (b < 0) {
+                return a;
+            }
+            if (nodeKey[b] < nodeKey[a]) {
+                int t = a;
+                a = b;
+                b = t;
+            }
+            int right = merge(nodeRight[a], b);
+            int left = nodeLeft[a];
+            if (rank(left) < rank(right)) {
+                int t = left;
+                left = right;
+                right = t;
+            }
+            return newNode(nodeKey[a], nodeVertex[a], left, right, rank(right) + 1);
+        }
+
+        int rank(int node) {
+            return node < 0 ? 0 : nodeRank[node];
+        }
+
+        int newNode(long key, int vertex, int left, int right, int rank) {
+            if (nodes == nodeKey.length) {
+                int capacity = nodes * 2;
+                nodeKey = Arrays.copyOf(nodeKey, capacity);
+                nodeVertex = Arrays.copyOf(nodeVertex, capacity);
+                nodeLeft = Arrays.copyOf(nodeLeft, capacity);
+                nodeRight = Arrays.copyOf(nodeRight, capacity);
+                nodeRank = Arrays.copyOf(nodeRank, capacity);
+            }
+            nodeKey[nodes] = key;
+            nodeVertex[nodes] = vertex;
+            nodeLeft[nodes] = left;
+            nodeRight[nodes] = right;
+            nodeRank[nodes] = rank;
+            return nodes++;
+        }
+
+        // Best-first over the path graph. A candidate is a path heap node, a
+        // slot in its vertex's sidetrack heap and the result it extends; its
+        // successors swap the last sidetrack for the next ones in either heap
+        // or append the best sidetrack after it.
+        List<DAGShortestPath.PathResult> enumerate(int k) {
+            // Result 0 is the all-tree path; result r took sidetrack (resultTail, resultSlot) after resultPrefix.
+            int[] resultPrefix = new int[Math.max(1, k)];
+            int[] resultTail = new int[resultPrefix.length];
+            int[] resultSlot = new int[resultPrefix.length];
+            long[] resultCost = new long[resultPrefix.length];
+            resultPrefix[0] = -1;
+            resultCost[0] = best[n];
+            int results = 1;
+
+            CandidateQueue queue = new CandidateQueue();
+            if (pathHeap[n] >= 0) {
+                queue.push(best[n] + nodeKey[pathHeap[n]], pathHeap[n], 0, 0);
+            }
+            while (results < k && queue.size > 0) {
+                long cost = queue.peekCost();
+                int node = queue.peekNode();
+                int slot = queue.peekSlot();
+                int prefix = queue.peekPrefix();
+                queue.pop();
+                int v = nodeVertex[node];
+                int base = sideStart[v];
+                int r = results++;
+                resultPrefix[r] = prefix;
+                resultTail[r] = v;
+                resultSlot[r] = base + slot;
+                resultCost[r] = cost;
+
+                long withoutLast = cost - sideDelta[base + slot];
+                if (slot == 0 && nodeLeft[node] >= 0) {
+                    queue.push(withoutLast + nodeKey[nodeLeft[node]], nodeLeft[node], 0, prefix);
+                }
+                if (slot == 0 && nodeRight[node] >= 0) {
+                    queue.push(withoutLast + nodeKey[nodeRight[node]], nodeRight[node], 0, prefix);
+                }
+                for (int j = 2 * slot + 1; j <= 2 * slot + 2 && j < sideCount[v]; j++) {
+                    queue.push(withoutLast + sideDelta[base + j], node, j, prefix);
+                }
+                int after = pathHeap[sideHead[base + slot]];
+                if (after >= 0) {
+                    queue.push(cost + nodeKey[after], after, 0, r);
+                }
+            }
+            metrics.add(candidates, queue.pushed);
+
+            List<DAGShortestPath.PathResult> paths = new ArrayList<>(results);
+            for (int r = 0; r < results; r++) {
+                paths.add(new DAGShortestPath.PathResult(walk(r, resultPrefix, resultTail, resultSlot),
+                        toLength(sign * resultCost[r])));
+            }
+            return paths;
+        }
+
+        // Follows tree edges from the hub, taking result r's sidetracks in order.
+        List<Integer> walk(int r, int[] prefix, int[] tail, int[] slot) {
+            IntList taken = new IntList();
+            for (int x = r; x > 0; x = prefix[x]) {
+                taken.add(x);
+            }
+            List<Integer> path = new ArrayList<>();
+            int v = n;
+            for (int i = taken.size() - 1; i >= 0; i--) {
+                int x = taken.get(i);
+                while (v != tail[x]) {
+                    v = step(path, v, next[v]);
+                }
+                v = step(path, v, sideHead[slot[x]]);
+            }
+            while (next[v] >= 0) {
+                v = step(path, v, next[v]);
+            }
+            if (v != n) {
+                path.add(v);
+            }
+            return path;
+        }
+
+        private int step(List<Integer> path, int from, int to) {
+            if (from != n) {
+                path.add(from);
+            }
+            return to;
+        }
+    }
+
+    private static int toLength(long length) {
+        if (length > Integer.MAX_VALUE || length < Integer.MIN_VALUE) {
+            throw new ArithmeticException("Path length " + length + " overflows int");
+        }
+        return (int) length;
+    }
+
+    // Binary min-heap of candidates by cost, in parallel primitive arrays.
+    private static final class CandidateQueue {
+        long[] cost = new long[64];
+        int[] node = new int[64];
+        int[] slot = new int[64];
+        int[] prefix = new int[64];
+        int size;
+        long pushed;
+
+        void push(long c, int nd, int sl, int pf) {
+            if (size == cost.length) {
+                cost = Arrays.copyOf(cost, size * 2);
+                node = Arrays.copyOf(node, size * 2);
+                slot = Arrays.copyOf(slot, size * 2);
+                prefix = Arrays.copyOf(prefix, size * 2);
+            }
+            int i = size++;
+            pushed++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (cost[parent] <= c) {
+                    break;
+                }
+                move(parent, i);
+                i = parent;
+            }
+            cost[i] = c;
+            node[i] = nd;
+            slot[i] = sl;
+            prefix[i] = pf;
+        }
+
+        long peekCost() {
+            return cost[0];
+        }
+
+        int peekNode() {
+            return node[0];
+        }
+
+        int peekSlot() {
+            return slot[0];
+        }
+
+        int peekPrefix() {
+            return prefix[0];
+        }
+
+        void pop() {
+            size--;
+            if (size == 0) {
+                return;
+            }
+            long c = cost[size];
+            int nd = node[size];
+            int sl = slot[size];
+            int pf = prefix[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && cost[child + 1] < cost[child]) {
+                    child++;
+                }
+                if (c <= cost[child]) {
+                    break;
+                }
+                move(child, i);
+                i = child;
+            }
+            cost[i] = c;
+            node[i] = nd;
+            slot[i] = sl;
+            prefix[i] = pf;
+        }
+
+        private void move(int from, int to) {
+            cost[to] = cost[from];
+            node[to] = node[from];
+            slot[to] = slot[from];
+            prefix[to] = prefix[from];
+        }
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,278 @@
+package com.company.algorithms;
+
+import com.company.graphRepresentation.CsrGraph;
+import com.company.graphRepresentation.Graph;
+import com.company.metrics.ConcurrentMetrics;
+import com.company.metrics.Metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Single-source shortest paths from many sources on one DAG. The topological
+// order is computed once in the constructor. Sources are sorted by their
+// position in that order and processed in blocks of blockSize: each block keeps
+// its distances interleaved (dist[v * blockSize + s]), so one sweep over the
+// edge arrays relaxes every source of the block, and the sweep starts at the
+// earliest source of the block since nothing before it is reachable. Blocks
+// run in parallel on the pool. Like PreparedDAG, relaxations throw
+// ArithmeticException rather than let a distance wrap around, and graphs with
+// LONG or DOUBLE weights are refused with IllegalStateException.
+public class MultiSourceShortestPaths {
+    public static final int DEFAULT_BLOCK_SIZE = 8;
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    // Receives the distances from one source. Called from pool threads; dist is
+    // reused after the call returns, so copy it to keep it.
+    public interface ResultConsumer {
+        void accept(int source, int[] dist);
+    }
+
+    private final CsrGraph csr;
+    private final int[] order;
+    private final int[] positionOf;
+    private final ForkJoinPool pool;
+    private final int blockSize;
+    private final Metrics metrics;
+    private final int relaxations;
+
+    public MultiSourceShortestPaths(Graph graph) {
+        this(graph, ForkJoinPool.commonPool(), DEFAULT_BLOCK_SIZE);
+    }
+
+    public MultiSourceShortestPaths(Graph graph, ForkJoinPool pool, int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("blockSize must be positive");
+        }
+        this.csr = graph.toCsr();
+        PreparedDAG.requireIntWeights(csr, "use PreparedDAG.shortestPathsLong / shortestPathsDouble per source");
+        this.order = new TopologicalSort(graph).orderDFS();
+        this.positionOf = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            positionOf[order[i]] = i;
+        }
+        this.pool = pool;
+        // One block holds n * blockSize distances in a single array.
+        this.blockSize = Math.max(1, Math.min(blockSize, (Integer.MAX_VALUE - 8) / Math.max(1, order.length)));
+        this.metrics = new ConcurrentMetrics();
+        this.relaxations = metrics.register("relaxations");
+    }
+
+    // Row i holds the distances from sources[i]; UNREACHABLE where there is no path.
+    public int[][] distances(int[] sources) {
+        int[][] matrix = new int[sources.length][];
+        run(sources, (index, dist) -> matrix[index] = dist.clone());
+        return matrix;
+    }
+
+    public void forEachSource(int[] sources, ResultConsumer consumer) {
+        run(sources, (index, dist) -> consumer.accept(sources[index], dist));
+    }
+
+    // byIndex receives the index into sources rather than the source itself.
+    private void run(int[] sources, ResultConsumer byIndex) {
+        int n = csr.getNumVertices();
+        for (int s : sources) {
+            if (s < 0 || s >= n) {
+                throw new IllegalArgumentException("Source " + s + " out of range");
+            }
+        }
+
+        // Indices into sources, ordered by topological position.
+        long[] keys = new long[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            keys[i] = (long) positionOf[sources[i]] << 32 | i;
+        }
+        Arrays.sort(keys);
+        int[] byPosition = new int[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            byPosition[i] = (int) keys[i];
+        }
+
+        int numBlocks = (sources.length + blockSize - 1) / blockSize;
+        metrics.startTimer();
+        pool.invoke(new Blocks(sources, byPosition, byIndex, 0, numBlocks));
+        metrics.stopTimer();
+    }
+
+    private final class Blocks extends RecursiveAction {
+        private final int[] sources;
+        private final int[] byPosition;
+        private final ResultConsumer byIndex;
+        private final int from;
+        private final int to;
+
+        Blocks(int[] sources, int[] byPosition, ResultConsumer byIndex, int from, int to) {
+            this.sources = sources;
+            this.byPosition = byPosition;
+            this.byIndex = byIndex;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Blocks(sources, byPosition, byIndex, from, mid),
+                        new Blocks(sources, byPosition, byIndex, mid, to));
+                return;
+            }
+            if (from < to) {
+                int first = from * blockSize;
+                int last = Math.min(byPosition.length, first + blockSize);
+                solveBlock(sources, byPosition, first, last, byIndex);
+            }
+        }
+    }
+
+    private void solveBlock(int[] sources, int[] byPosition, int first, int last, ResultConsumer byIndex) {
+        int n = csr.getNumVertices();
+        int width = last - first;
+        int[] dist = new int[n * width];
+        Arrays.fill(dist, UNREACHABLE);
+        for (int s = 0; s < width; s++) {
+            dist[sources[byPosition[first + s]] * width + s] = 0;
+        }
+
+        int start = positionOf[sources[byPosition[first]]];
+        long relaxed = width == 1 ? relaxSingle(dist, start) : relaxBlock(dist, width, start);
+        metrics.add(relaxations, relaxed);
+
+        int[] row = new int[n];
+        for (int s = 0; s < width; s++) {
+            for (int v = 0; v < n; v++) {
+                row[v] = dist[v * width + s];
+            }
+            byIndex.accept(byPosition[first + s], row);
+        }
+    }
+
+    // A block of one: the plain single-source sweep, without the per-vertex
+    // bookkeeping relaxBlock needs for its contiguous runs.
+    private long relaxSingle(int[] dist, int start) {
+        int n = order.length;
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        int[] weights = csr.getWeights();
+        long relaxed = 0;
+        boolean outOfRange = false;
+        for (int i = start; i < n; i++) {
+            int u = order[i];
+            int du = dist[u];
+            if (du == UNREACHABLE) {
+                continue;
+            }
+            for (int e = offsets[u], end = offsets[u + 1]; e < end; e++) {
+                int v = targets[e];
+                long candidate = (long) du + weights[e];
+                if (candidate < dist[v]) {
+                    if (candidate <= Integer.MIN_VALUE) {
+                        throw PreparedDAG.overflow(u, v);
+                    }
+                    dist[v] = (int) candidate;
+                } else if (dist[v] == UNREACHABLE) {
+                    outOfRange = true;
+                }
+            }
+            relaxed += offsets[u + 1] - offsets[u];
+        }
+        if (outOfRange) {
+            requireReached(dist, 1, start);
+        }
+        return relaxed;
+    }
+
+    private long relaxBlock(int[] dist, int width, int start) {
+        int n = order.length;
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        int[] weights = csr.getWeights();
+        long relaxed = 0;
+        boolean outOfRange = false;
+        for (int i = start; i < n; i++) {
+            int u = order[i];
+            int ub = u * width;
+            int reached = 0;
+            long low = Long.MAX_VALUE;
+            long high = Long.MIN_VALUE;
+            for (int s = 0; s < width; s++) {
+                int d = dist[ub + s];
+                if (d != UNREACHABLE) {
+                    reached++;
+                    low = Math.min(low, d);
+                    high = Math.max(high, d);
+                }
+            }
+            if (reached == 0) {
+                continue;
+            }
+            // Edges outside, sources inside: each edge updates the target's
+            // width distances as one contiguous run. When every source has
+            // reached u and no sum can leave the int range, that run is a
+            // plain element-wise minimum. u's own run is never a target, as
+            // the graph has no self-loops, so it is read in place.
+            for (int e = offsets[u], end = offsets[u + 1]; e < end; e++) {
+                int tb = targets[e] * width;
+                int w = weights[e];
+                if (reached == width && high + w < UNREACHABLE && low + w > Integer.MIN_VALUE) {
+                    for (int s = 0; s < width; s++) {
+                        int candidate = dist[ub + s] + w;
+                        if (candidate < dist[tb + s]) {
+                            dist[tb + s] = candidate;
+                        }
+                    }
+                    continue;
+                }
+                for (int s = 0; s < width; s++) {
+                    int d = dist[ub + s];
+                    if (d == UNREACHABLE) {
+                        continue;
+                    }
+                    long candidate = (long) d + w;
+                    if (candidate < dist[tb + s]) {
+                        if (candidate <= Integer.MIN_VALUE) {
+                            throw PreparedDAG.overflow(u, targets[e]);
+                        }
+                        dist[tb + s] = (int) candidate;
+                    } else if (dist[tb + s] == UNREACHABLE) {
+                        outOfRange = true;
+                    }
+                }
+            }
+            relaxed += (long) reached * (offsets[u + 1] - offsets[u]);
+        }
+        if (outOfRange) {
+            requireReached(dist, width, start);
+        }
+        return relaxed;
+    }
+
+    // As in PreparedDAG: candidates past the int range are dropped, and only a
+    // vertex left unreached from a reached predecessor is an overflow.
+    private void requireReached(int[] dist, int width, int start) {
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        for (int i = start; i < order.length; i++) {
+            int u = order[i];
+            for (int s = 0; s < width; s++) {
+                if (dist[u * width + s] == UNREACHABLE) {
+                    continue;
+                }
+                for (int e = offsets[u], end = offsets[u + 1]; e < end; e++) {
+                    if (dist[targets[e] * width + s] == UNREACHABLE) {
+                        throw PreparedDAG.overflow(u, targets[e]);
+                    }
+                }
+            }
+        }
+    }
+
+    public int[] getTopologicalOrder() {
+        return order;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,469 @@
+package com.company.algorithms;
+
+import com.company.graphRepresentation.CsrGraph;
+import com.company.graphRepresentation.Graph;
+import com.company.metrics.ConcurrentMetrics;
+import com.company.metrics.Metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Forward-backward SCC decomposition on a ForkJoinPool.
+//
+// 1. Trimming: vertices with no remaining in- or out-edges are singleton SCCs
+//    and are peeled off level by level in parallel.
+// 2. Every remaining partition picks a pivot; the vertices it reaches both
+//    forwards and backwards form its SCC, and the forward-only, backward-only
+//    and unreached vertices become three independent partitions.
+// 3. Partitions of at most SEQUENTIAL_CUTOFF vertices run Tarjan restricted
+//    to the partition.
+//
+// Partitions are disjoint, so per-vertex arrays are shared between tasks;
+// label[v] holds the partition id of v and is only changed by CAS.
+// Components are returned in reverse topological order, like TarjanSCC.
+public class ParallelSCC implements SCCFinder {
+    private static final int SEQUENTIAL_CUTOFF = 4096;
+    private static final int GRAIN = 4096;
+    private static final int TRIMMED = -1;
+    private static final int DONE = -2;
+
+    private final Graph graph;
+    private final ForkJoinPool pool;
+    private final Metrics metrics;
+    private List<List<Integer>> sccs;
+    private int[] componentOf;
+    private long computedAt = -1;
+
+    private CsrGraph csr;
+    private CsrGraph reverse;
+    private AtomicIntegerArray label;
+    private int[] component;
+    private AtomicInteger nextComponent;
+    private AtomicInteger nextLabel;
+    private int[] disc;
+    private int[] low;
+    private int[] cursor;
+    private boolean[] onStack;
+    private final int visits;
+    private final int edgesExplored;
+    private final int trimmed;
+    private final int pivots;
+
+    public ParallelSCC(Graph graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    public ParallelSCC(Graph graph, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+        this.metrics = new ConcurrentMetrics();
+        this.visits = metrics.register("DFS_visits");
+        this.edgesExplored = metrics.register("edges_explored");
+        this.trimmed = metrics.register("trimmed");
+        this.pivots = metrics.register("pivots");
+    }
+
+    @Override
+    public List<List<Integer>> findSCCs() {
+        csr = graph.toCsr();
+        int n = csr.getNumVertices();
+
+        metrics.startTimer();
+
+        reverse = csr.transpose();
+        label = new AtomicIntegerArray(n);
+        component = new int[n];
+        nextComponent = new AtomicInteger();
+        nextLabel = new AtomicInteger();
+        disc = new int[n];
+        low = new int[n];
+        cursor = new int[n];
+        onStack = new boolean[n];
+
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                trim();
+                IntList remaining = new IntList();
+                for (int v = 0; v < n; v++) {
+                    if (label.get(v) == 0) {
+                        remaining.add(v);
+                    }
+                }
+                new Decompose(remaining.toArray(), 0).invoke();
+            }
+        });
+
+        sccs = orderComponents();
+
+        metrics.stopTimer();
+        computedAt = graph.getModCount();
+
+        return sccs;
+    }
+
+    @Override
+    public int[] getComponentMap() {
+        ensureComputed();
+        return componentOf;
+    }
+
+    @Override
+    public Graph buildCondensationGraph(CondensationBuilder.WeightPolicy policy) {
+        ensureComputed();
+        return CondensationBuilder.build(graph, componentOf, sccs.size(), policy);
+    }
+
+    private void ensureComputed() {
+        if (sccs == null || computedAt != graph.getModCount()) {
+            findSCCs();
+        }
+    }
+
+    @Override
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    private void trim() {
+        int n = csr.getNumVertices();
+        AtomicIntegerArray inDegree = new AtomicIntegerArray(n);
+        AtomicIntegerArray outDegree = new AtomicIntegerArray(n);
+        for (int v = 0; v < n; v++) {
+            inDegree.set(v, reverse.getOutDegree(v));
+            outDegree.set(v, csr.getOutDegree(v));
+        }
+
+        int[] frontier = new ChunkCollector(n) {
+            @Override
+            void process(int from, int to, IntList out) {
+                for (int v = from; v < to; v++) {
+                    if ((inDegree.get(v) == 0 || outDegree.get(v) == 0) && label.compareAndSet(v, 0, TRIMMED)) {
+                        out.add(v);
+                    }
+                }
+            }
+        }.invoke();
+
+        while (frontier.length > 0) {
+            int[] current = frontier;
+            for (int v : current) {
+                component[v] = nextComponent.getAndIncrement();
+            }
+            metrics.add(trimmed, current.length);
+            frontier = new ChunkCollector(current.length) {
+                @Override
+                void process(int from, int to, IntList out) {
+                    long explored = 0;
+                    for (int i = from; i < to; i++) {
+                        int u = current[i];
+                        for (int e = csr.getEdgeStart(u), end = csr.getEdgeEnd(u); e < end; e++) {
+                            int v = csr.getTarget(e);
+                            if (inDegree.decrementAndGet(v) == 0 && label.compareAndSet(v, 0, TRIMMED)) {
+                                out.add(v);
+                            }
+                        }
+                        for (int e = reverse.getEdgeStart(u), end = reverse.getEdgeEnd(u); e < end; e++) {
+                            int w = reverse.getTarget(e);
+                            if (outDegree.decrementAndGet(w) == 0 && label.compareAndSet(w, 0, TRIMMED)) {
+                                out.add(w);
+                            }
+                        }
+                        explored += csr.getOutDegree(u) + reverse.getOutDegree(u);
+                    }
+                    metrics.add(edgesExplored, explored);
+                }
+            }.invoke();
+        }
+    }
+
+    private class Decompose extends RecursiveAction {
+        private final int[] vertices;
+        private final int partition;
+
+        Decompose(int[] vertices, int partition) {
+            this.vertices = vertices;
+            this.partition = partition;
+        }
+
+        @Override
+        protected void compute() {
+            if (vertices.length == 0) {
+                return;
+            }
+            if (vertices.length <= SEQUENTIAL_CUTOFF) {
+                tarjanWithin(vertices, partition);
+                return;
+            }
+
+            metrics.increment(pivots);
+            int pivot = vertices[vertices.length / 2];
+            int forwardLabel = nextLabel.incrementAndGet();
+            int backwardLabel = nextLabel.incrementAndGet();
+
+            label.set(pivot, forwardLabel);
+            IntList forward = new IntList();
+            forward.add(pivot);
+            search(pivot, csr, partition, forwardLabel, forward, DONE, DONE, null);
+
+            // Backwards from the pivot: forward-reached vertices are in its SCC.
+            label.set(pivot, DONE);
+            IntList scc = new IntList();
+            scc.add(pivot);
+            IntList backwardOnly = new IntList();
+            search(pivot, reverse, forwardLabel, DONE, scc, partition, backwardLabel, backwardOnly);
+
+            int c = nextComponent.getAndIncrement();
+            for (int i = 0; i < scc.size(); i++) {
+                component[scc.get(i)] = c;
+            }
+
+            IntList forwardOnly = new IntList();
+            for (int i = 0; i < forward.size(); i++) {
+                if (label.get(forward.get(i)) == forwardLabel) {
+                    forwardOnly.add(forward.get(i));
+                }
+            }
+            IntList rest = new IntList();
+            for (int v : vertices) {
+                if (label.get(v) == partition) {
+                    rest.add(v);
+                }
+            }
+
+            ForkJoinTask.invokeAll(
+                    new Decompose(forwardOnly.toArray(), forwardLabel),
+                    new Decompose(backwardOnly.toArray(), backwardLabel),
+                    new Decompose(rest.toArray(), partition));
+        }
+    }
+
+    // Level-synchronous BFS from start over g. A vertex labelled fromA is
+    // relabelled toA and collected in outA (likewise for B); anything else is
+    // not entered. Large frontiers are expanded in parallel.
+    private void search(int start, CsrGraph g,
+                        int fromA, int toA, IntList outA,
+                        int fromB, int toB, IntList outB) {
+        int[] frontier = {start};
+        while (frontier.length > 0) {
+            int[] current = frontier;
+            frontier = new ChunkCollector(current.length) {
+                @Override
+                void process(int from, int to, IntList out) {
+                    long explored = 0;
+                    for (int i = from; i < to; i++) {
+                        int u = current[i];
+                        for (int e = g.getEdgeStart(u), end = g.getEdgeEnd(u); e < end; e++) {
+                            int v = g.getTarget(e);
+                            int l = label.get(v);
+                            if ((l == fromA && label.compareAndSet(v, fromA, toA))
+                                    || (outB != null && l == fromB && label.compareAndSet(v, fromB, toB))) {
+                                out.add(v);
+                            }
+                        }
+                        explored += g.getOutDegree(u);
+                    }
+                    metrics.add(edgesExplored, explored);
+                }
+            }.invoke();
+
+            metrics.add(visits, frontier.length);
+            for (int v : frontier) {
+                int l = label.get(v);
+                if (l == toA) {
+                    outA.add(v);
+                } else {
+                    outB.add(v);
+                }
+            }
+        }
+    }
+
+    // Iterative Tarjan over the vertices whose label is partition.
+    private void tarjanWithin(int[] vertices, int partition) {
+        for (int v : vertices) {
+            disc[v] = -1;
+        }
+        int[] callStack = new int[vertices.length];
+        int[] sccStack = new int[vertices.length];
+        int callTop = 0;
+        int sccTop = 0;
+        int time = 0;
+        long explored = 0;
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+
+        for (int root : vertices) {
+            if (disc[root] != -1) {
+                continue;
+            }
+            disc[root] = low[root] = time++;
+            sccStack[sccTop++] = root;
+            onStack[root] = true;
+            cursor[root] = offsets[root];
+            callStack[callTop++] = root;
+
+            while (callTop > 0) {
+                int u = callStack[callTop - 1];
+                if (cursor[u] < offsets[u + 1]) {
+                    int v = targets[cursor[u]++];
+                    explored++;
+                    if (label.get(v) != partition) {
+                        continue;
+                    }
+                    if (disc[v] == -1) {
+                        disc[v] = low[v] = time++;
+                        sccStack[sccTop++] = v;
+                        onStack[v] = true;
+                        cursor[v] = offsets[v];
+                        callStack[callTop++] = v;
+                    } else if (onStack[v]) {
+                        low[u] = Math.min(low[u], disc[v]);
+                    }
+                    continue;
+                }
+
+                callTop--;
+                if (low[u] == disc[u]) {
+                    int c = nextComponent.getAndIncrement();
+                    int v;
+                    do {
+                        v = sccStack[--sccTop];
+                        onStack[v] = false;
+                        component[v] = c;
+                    } while (v != u);
+                }
+                if (callTop > 0) {
+                    int parent = callStack[callTop - 1];
+                    low[parent] = Math.min(low[parent], low[u]);
+                }
+            }
+        }
+
+        for (int v : vertices) {
+            label.set(v, DONE);
+        }
+        metrics.add(visits, vertices.length);
+        metrics.add(edgesExplored, explored);
+    }
+
+    // Renumbers components in reverse topological order of the condensation
+    // (Kahn over the component graph) and groups their vertices.
+    private List<List<Integer>> orderComponents() {
+        int n = csr.getNumVertices();
+        int count = nextComponent.get();
+
+        int[] inDegree = new int[count];
+        int[] outOffsets = new int[count + 1];
+        for (int u = 0; u < n; u++) {
+            for (int e = csr.getEdgeStart(u), end = csr.getEdgeEnd(u); e < end; e++) {
+                int cu = component[u];
+                int cv = component[csr.getTarget(e)];
+                if (cu != cv) {
+                    outOffsets[cu + 1]++;
+                    inDegree[cv]++;
+                }
+            }
+        }
+        for (int c = 0; c < count; c++) {
+            outOffsets[c + 1] += outOffsets[c];
+        }
+        int[] outTargets = new int[outOffsets[count]];
+        int[] next = new int[count];
+        System.arraycopy(outOffsets, 0, next, 0, count);
+        for (int u = 0; u < n; u++) {
+            for (int e = csr.getEdgeStart(u), end = csr.getEdgeEnd(u); e < end; e++) {
+                int cu = component[u];
+                int cv = component[csr.getTarget(e)];
+                if (cu != cv) {
+                    outTargets[next[cu]++] = cv;
+                }
+            }
+        }
+
+        int[] queue = new int[count];
+        int head = 0;
+        int tail = 0;
+        for (int c = 0; c < count; c++) {
+            if (inDegree[c] == 0) {
+                queue[tail++] = c;
+            }
+        }
+        int[] rank = new int[count];
+        while (head < tail) {
+            int c = queue[head++];
+            rank[c] = count - head;
+            for (int e = outOffsets[c]; e < outOffsets[c + 1]; e++) {
+                if (--inDegree[outTargets[e]] == 0) {
+                    queue[tail++] = outTargets[e];
+                }
+            }
+        }
+
+        componentOf = new int[n];
+        List<List<Integer>> result = new ArrayList<>(count);
+        for (int c = 0; c < count; c++) {
+            result.add(new ArrayList<>());
+        }
+        for (int v = 0; v < n; v++) {
+            componentOf[v] = rank[component[v]];
+            result.get(componentOf[v]).add(v);
+        }
+        return result;
+    }
+
+    // Splits [0, size) into GRAIN-sized chunks processed as fork-join
+    // subtasks and concatenates what they collect. Must run inside the pool.
+    private abstract static class ChunkCollector extends RecursiveTask<int[]> {
+        private final int size;
+
+        ChunkCollector(int size) {
+            this.size = size;
+        }
+
+        abstract void process(int from, int to, IntList out);
+
+        @Override
+        protected int[] compute() {
+            if (size <= GRAIN) {
+                IntList out = new IntList();
+                process(0, size, out);
+                return out.toArray();
+            }
+
+            List<RecursiveTask<int[]>> chunks = new ArrayList<>();
+            for (int from = 0; from < size; from += GRAIN) {
+                int start = from;
+                int end = Math.min(size, from + GRAIN);
+                chunks.add(new RecursiveTask<int[]>() {
+                    @Override
+                    protected int[] compute() {
+                        IntList out = new IntList();
+                        process(start, end, out);
+                        return out.toArray();
+                    }
+                });
+            }
+            ForkJoinTask.invokeAll(chunks);
+
+            int total = 0;
+            for (RecursiveTask<int[]> chunk : chunks) {
+                total += chunk.join().length;
+            }
+            int[] result = new int[total];
+            int at = 0;
+            for (RecursiveTask<int[]> chunk : chunks) {
+                int[] part = chunk.join();
+                System.arraycopy(part, 0, result, at, part.length);
+                at += part.length;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,683 @@
+package com.company.algorithms;
+
+import com.company.graphRepresentation.CsrGraph;
+import com.company.graphRepresentation.Graph;
+import com.company.graphRepresentation.WeightType;
+import com.company.metrics.Metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// A DAG with its topological order computed once and kept as an int[] next to
+// the CSR arrays, so every shortest / longest / point-to-point query is a
+// single relaxation sweep. The order is recomputed only after the graph is
+// mutated (Graph.getModCount()). Queries only read the prepared arrays and
+// allocate their own results (point-to-point queries reuse pooled scratch
+// arrays), so one instance can serve several threads; give it ConcurrentMetrics
+// then, as plain Metrics counters and timer race. Relaxations add in long and throw
+// ArithmeticException when a result (a shortest / longest distance) leaves the
+// int range instead of wrapping around; longer paths that lose to a shorter
+// one (or shorter ones that lose to a longer one) are simply dropped.
+//
+// The int queries need a graph with INT weights (see WeightType). Graphs with
+// LONG or DOUBLE weights go through the *Long / *Double sweeps instead, each a
+// separate loop over the primitive weight array of its type, so the callers
+// pick the kernel once from CsrGraph.getWeightType() and nothing is boxed.
+// Long sums are checked like the int ones; doubles are not.
+public class PreparedDAG {
+    private static final int PRUNE_LIMIT = 32;
+
+    private final Graph graph;
+    private final Metrics metrics;
+    private final int relaxations;
+    private final int verticesSearched;
+    // Pooled rather than thread-local: the query service runs each request on
+    // a fresh virtual thread.
+    private final ConcurrentLinkedQueue<Scratch> scratch = new ConcurrentLinkedQueue<>();
+    private volatile Prepared prepared;
+
+    private static final class Prepared {
+        final long modCount;
+        final CsrGraph csr;
+        final int[] order;
+        final int[] positionOf;
+        final int[] roots;
+        private volatile CsrGraph reverse;
+
+        Prepared(long modCount, CsrGraph csr, int[] order) {
+            this.modCount = modCount;
+            this.csr = csr;
+            this.order = order;
+            this.positionOf = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                positionOf[order[i]] = i;
+            }
+            int[] inDegree = csr.inDegrees();
+            IntList sources = new IntList();
+            for (int v = 0; v < inDegree.length; v++) {
+                if (inDegree[v] == 0) {
+                    sources.add(v);
+                }
+            }
+            this.roots = sources.toArray();
+        }
+
+        // Built on the first point-to-point query; a race only builds it twice.
+        CsrGraph reverse() {
+            CsrGraph r = reverse;
+            if (r == null) {
+                r = csr.transpose();
+                reverse = r;
+            }
+            return r;
+        }
+    }
+
+    // Arrays for one point-to-point query at a time. An entry of dist / parent
+    // is only meaningful while mark holds the current stamp, so a query costs
+    // time in the vertices it touches rather than in n.
+    private static final class Scratch {
+        final int[] mark;
+        final int[] dist;
+        final int[] parent;
+        final int[] stack;
+        int stamp;
+
+        Scratch(int n) {
+            mark = new int[n];
+            dist = new int[n];
+            parent = new int[n];
+            stack = new int[n];
+        }
+    }
+
+    public PreparedDAG(Graph graph) {
+        this(graph, new Metrics());
+    }
+
+    public PreparedDAG(Graph graph, Metrics metrics) {
+        this.graph = graph;
+        this.metrics = metrics;
+        this.relaxations = metrics.register("relaxations");
+        this.verticesSearched = metrics.register("vertices_searched");
+    }
+
+    private Prepared prepare() {
+        Prepared current = prepared;
+        if (current == null || current.modCount != graph.getModCount()) {
+            synchronized (this) {
+                current = prepared;
+                if (current == null || current.modCount != graph.getModCount()) {
+                    long modCount = graph.getModCount();
+                    current = new Prepared(modCount, graph.toCsr(), new TopologicalSort(graph).orderDFS());
+                    prepared = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    public int[] getTopologicalOrder() {
+        return prepare().order;
+    }
+
+    // Index of v in getTopologicalOrder().
+    public int getPosition(int v) {
+        return prepare().positionOf[v];
+    }
+
+    public int[] shortestPaths(int source) {
+        Prepared p = prepare();
+        requireIntWeights(p);
+        int[] dist = new int[p.order.length];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        dist[source] = 0;
+
+        metrics.startTimer();
+        relaxShortest(p, dist, null, source, p.order.length - 1);
+        metrics.stopTimer();
+
+        return dist;
+    }
+
+    // Point-to-point, touching only positions between source and target. A
+    // backward search from target, bounded to the positions from source's
+    // onwards, marks the vertices that can reach target, and only those are
+    // relaxed, in topological order. When that set grows past 1/PRUNE_LIMIT of
+    // the positions in between, sorting it would cost more than it saves, so
+    // the query sweeps those positions in order instead. Either way nothing
+    // after target's position is relaxed. An unreachable target gives the
+    // path [target] with length Integer.MAX_VALUE.
+    public DAGShortestPath.PathResult shortestPath(int source, int target) {
+        Prepared p = prepare();
+        requireIntWeights(p);
+        int n = p.order.length;
+        Scratch s = scratch.poll();
+        if (s == null || s.mark.length != n) {
+            s = new Scratch(n); // a pooled one of a stale size is dropped
+        }
+        try {
+            return shortestPath(p, s, source, target);
+        } finally {
+            scratch.offer(s);
+        }
+    }
+
+    private DAGShortestPath.PathResult shortestPath(Prepared p, Scratch s, int source, int target) {
+        int n = p.order.length;
+        metrics.startTimer();
+
+        int lower = p.positionOf[source];
+        int upper = p.positionOf[target];
+        int current = nextStamp(s);
+        s.mark[target] = current;
+        s.dist[target] = Integer.MAX_VALUE;
+        s.parent[target] = -1;
+        if (lower <= upper) {
+            int found = markAncestors(p, s, target, lower, (upper - lower) / PRUNE_LIMIT + 1);
+            if (found < 0) {
+                int[] dist = new int[n];
+                int[] parent = new int[n];
+                Arrays.fill(dist, Integer.MAX_VALUE);
+                Arrays.fill(parent, -1);
+                dist[source] = 0;
+                relaxShortest(p, dist, parent, source, upper);
+                metrics.stopTimer();
+                return new DAGShortestPath.PathResult(reconstructPath(parent, target), dist[target]);
+            }
+            if (s.mark[source] == current) {
+                relaxMarked(p, s, source, found);
+            }
+        }
+
+        metrics.stopTimer();
+
+        return new DAGShortestPath.PathResult(reconstructPath(s.parent, target), s.dist[target]);
+    }
+
+    private static int nextStamp(Scratch s) {
+        if (++s.stamp == 0) {
+            Arrays.fill(s.mark, 0);
+            s.stamp = 1;
+        }
+        return s.stamp;
+    }
+
+    // Marks every vertex at position >= lower with a path to target, resetting
+    // its dist / parent, and leaves them in s.stack[0..count). The stack is
+    // read from a separate cursor, so the same array is work list and result.
+    // Returns -1 once more than limit vertices are marked.
+    private int markAncestors(Prepared p, Scratch s, int target, int lower, int limit) {
+        CsrGraph reverse = p.reverse();
+        int[] offsets = reverse.getOffsets();
+        int[] sources = reverse.getTargets();
+        int current = s.stamp;
+        int count = 0;
+        s.stack[count++] = target;
+        for (int next = 0; next < count; next++) {
+            int x = s.stack[next];
+            for (int e = offsets[x], end = offsets[x + 1]; e < end; e++) {
+                int y = sources[e];
+                if (s.mark[y] != current && p.positionOf[y] >= lower) {
+                    if (count > limit) {
+                        metrics.add(verticesSearched, count);
+                        return -1;
+                    }
+                    s.mark[y] = current;
+                    s.dist[y] = Integer.MAX_VALUE;
+                    s.parent[y] = -1;
+                    s.stack[count++] = y;
+                }
+            }
+        }
+        metrics.add(verticesSearched, count);
+        return count;
+    }
+
+    // Relaxes the found vertices marked by markAncestors in topological order.
+    private void relaxMarked(Prepared p, Scratch s, int source, int found) {
+        int[] region = new int[found];
+        for (int i = 0; i < found; i++) {
+            region[i] = p.positionOf[s.stack[i]];
+        }
+        Arrays.sort(region);
+        int current = s.stamp;
+        int[] mark = s.mark;
+        int[] dist = s.dist;
+        int[] parent = s.parent;
+        dist[source] = 0;
+
+        int[] offsets = p.csr.getOffsets();
+        int[] targets = p.csr.getTargets();
+        int[] weights = p.csr.getWeights();
+        long relaxed = 0;
+        boolean outOfRange = false;
+        for (int position : region) {
+            int u = p.order[position];
+            int du = dist[u];
+            if (du == Integer.MAX_VALUE) {
+                continue;
+            }
+            for (int e = offsets[u], end = offsets[u + 1]; e < end; e++) {
+                int v = targets[e];
+                if (mark[v] != current) {
+                    continue;
+                }
+                long candidate = (long) du + weights[e];
+                if (candidate < dist[v]) {
+                    dist[v] = checkedShortest(candidate, u, v);
+                    parent[v] = u;
+                } else if (dist[v] == Integer.MAX_VALUE) {
+                    outOfRange = true;
+                }
+            }
+            relaxed += offsets[u + 1] - offsets[u];
+        }
+        metrics.add(relaxations, relaxed);
+
+        // A marked vertex still unreached from a reached one only ever got
+        // candidates past the int range.
+        if (outOfRange) {
+            for (int position : region) {
+                int u = p.order[position];
+                if (dist[u] == Integer.MAX_VALUE) {
+                    continue;
+                }
+                for (int e = offsets[u], end = offsets[u + 1]; e < end; e++) {
+                    if (mark[targets[e]] == current && dist[targets[e]] == Integer.MAX_VALUE) {
+                        throw overflow(u, targets[e]);
+                    }
+                }
+            }
+        }
+    }
+
+    // Critical path: the heaviest path starting at any vertex without in-edges.
+    public DAGShortestPath.PathResult longestPath() {
+        Prepared p = prepare();
+        requireIntWeights(p);
+        int n = p.order.length;
+        int[] dist = new int[n];
+        int[] parent = new int[n];
+        Arrays.fill(dist, Integer.MIN_VALUE);
+        Arrays.fill(parent, -1);
+        for (int root : p.roots) {
+            dist[root] = 0;
+        }
+
+        int[] offsets = p.csr.getOffsets();
+        int[] targets = p.csr.getTargets();
+        int[] weights = p.csr.getWeights();
+        long relaxed = 0;
+        boolean outOfRange = false;
+
+        metrics.startTimer();
+
+        for (int u : p.order) {
+            int du = dist[u];
+            if (du == Integer.MIN_VALUE) {
+                continue;
+            }
+            for (int e = offsets[u], end = offsets[u + 1]; e < end; e++) {
+                int v = targets[e];
+                long candidate = (long) du + weights[e];
+                if (candidate > dist[v]) {
+                    if (candidate > Integer.MAX_VALUE) {
+                        throw overflow(u, v);
+                    }
+                    dist[v] = (int) candidate;
+                    parent[v] = u;
+                } else if (dist[v] == Integer.MIN_VALUE) {
+                    outOfRange = true;
+                }
+            }
+            relaxed += offsets[u + 1] - offsets[u];
+        }
+        if (outOfRange) {
+            requireReached(p, dist, Integer.MIN_VALUE, p.order.length - 1);
+        }
+
+        metrics.stopTimer();
+        metrics.add(relaxations, relaxed);
+
+        int maxDist = Integer.MIN_VALUE;
+        int endVertex = -1;
+        for (int i = 0; i < n; i++) {
+            if (dist[i] > maxDist) {
+                maxDist = dist[i];
+                endVertex = i;
+            }
+        }
+
+        return new DAGShortestPath.PathResult(reconstructPath(parent, endVertex), maxDist);
+    }
+
+    // Long.MAX_VALUE marks unreachable vertices.
+    public long[] shortestPathsLong(int source) {
+        Prepared p = prepare();
+        int[] order = p.order;
+        int[] offsets = p.csr.getOffsets();
+        int[] targets = p.csr.getTargets();
+        long[] weights = p.csr.getLongWeights();
+        long[] dist = new long[order.length];
+        Arrays.fill(dist, Long.MAX_VALUE);
+        dist[source] = 0;
+        long relaxed = 0;
+        boolean outOfRange = false;
+
+        metrics.startTimer();
+
+        for (int i = p.positionOf[source]; i < order.length; i++) {
+            int u = order[i];
+            long du = dist[u];
+            if (du == Long.MAX_VALUE) {
+                continue;
+            }
+            for (int e = offsets[u], end = offsets[u + 1]; e < end; e++) {
+                int v = targets[e];
+                long w = weights[e];
+                long candidate = du + w;
+                boolean wrapped = ((du ^ candidate) & (w ^ candidate)) < 0;
+                if (wrapped ? w < 0 : candidate < dist[v]) {
+                    if (wrapped || candidate == Long.MIN_VALUE) {
+                        throw overflowLong(u, v);
+                    }
+                    dist[v] = candidate;
+                } else if (dist[v] == Long.MAX_VALUE) {
+                    outOfRange = true;
+                }
+            }
+            relaxed += offsets[u + 1] - offsets[u];
+        }
+        if (outOfRange) {
+            requireReached(p, dist, Long.MAX_VALUE);
+        }
+
+        metrics.stopTimer();
+        metrics.add(relaxations, relaxed);
+
+        return dist;
+    }
+
+    // Double.POSITIVE_INFINITY marks unreachable vertices.
+    public double[] shortestPathsDouble(int source) {
+        Prepared p = prepare();
+        int[] order = p.order;
+        int[] offsets = p.csr.getOffsets();
+        int[] targets = p.csr.getTargets();
+        double[] weights = p.csr.getDoubleWeights();
+        double[] dist = new double[order.length];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        dist[source] = 0;
+        long relaxed = 0;
+
+        metrics.startTimer();
+
+        for (int i = p.positionOf[source]; i < order.length; i++) {
+            int u = order[i];
+            double du = dist[u];
+            if (du == Double.POSITIVE_INFINITY) {
+                continue;
+            }
+            for (int e = offsets[u], end = offsets[u + 1]; e < end; e++) {
+                int v = targets[e];
+                double candidate = du + weights[e];
+                if (candidate < dist[v]) {
+                    dist[v] = candidate;
+                }
+            }
+            relaxed += offsets[u + 1] - offsets[u];
+        }
+
+        metrics.stopTimer();
+        metrics.add(relaxations, relaxed);
+
+        return dist;
+    }
+
+    // longestPath() over LONG (or INT) weights.
+    public DAGShortestPath.LongPathResult longestPathLong() {
+        Prepared p = prepare();
+        int n = p.order.length;
+        int[] offsets = p.csr.getOffsets();
+        int[] targets = p.csr.getTargets();
+        long[] weights = p.csr.getLongWeights();
+        long[] dist = new long[n];
+        int[] parent = new int[n];
+        Arrays.fill(dist, Long.MIN_VALUE);
+        Arrays.fill(parent, -1);
+        for (int root : p.roots) {
+            dist[root] = 0;
+        }
+        long relaxed = 0;
+        boolean outOfRange = false;
+
+        metrics.startTimer();
+
+        for (int u : p.order) {
+            long du = dist[u];
+            if (du == Long.MIN_VALUE) {
+                continue;
+            }
+            for (int e = offsets[u], end = offsets[u + 1]; e < end; e++) {
+                int v = targets[e];
+                long w = weights[e];
+                long candidate = du + w;
+                boolean wrapped = ((du ^ candidate) & (w ^ candidate)) < 0;
+                if (wrapped ? w > 0 : candidate > dist[v]) {
+                    if (wrapped || candidate == Long.MAX_VALUE) {
+                        throw overflowLong(u, v);
+                    }
+                    dist[v] = candidate;
+                    parent[v] = u;
+                } else if (dist[v] == Long.MIN_VALUE) {
+                    outOfRange = true;
+                }
+            }
+            relaxed += offsets[u + 1] - offsets[u];
+        }
+        if (outOfRange) {
+            requireReached(p, dist, Long.MIN_VALUE);
+        }
+
+        metrics.stopTimer();
+        metrics.add(relaxations, relaxed);
+
+        int endVertex = -1;
+        long maxDist = Long.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            if (dist[i] > maxDist) {
+                maxDist = dist[i];
+                endVertex = i;
+            }
+        }
+        return new DAGShortestPath.LongPathResult(reconstructPath(parent, endVertex), maxDist);
+    }
+
+    // longestPath() over weights of any type as double.
+    public DAGShortestPath.DoublePathResult longestPathDouble() {
+        Prepared p = prepare();
+        int n = p.order.length;
+        int[] offsets = p.csr.getOffsets();
+        int[] targets = p.csr.getTargets();
+        double[] weights = p.csr.getDoubleWeights();
+        double[] dist = new double[n];
+        int[] parent = new int[n];
+        Arrays.fill(dist, Double.NEGATIVE_INFINITY);
+        Arrays.fill(parent, -1);
+        for (int root : p.roots) {
+            dist[root] = 0;
+        }
+        long relaxed = 0;
+
+        metrics.startTimer();
+
+        for (int u : p.order) {
+            double du = dist[u];
+            if (du == Double.NEGATIVE_INFINITY) {
+                continue;
+            }
+            for (int e = offsets[u], end = offsets[u + 1]; e < end; e++) {
+                int v = targets[e];
+                double candidate = du + weights[e];
+                if (candidate > dist[v]) {
+                    dist[v] = candidate;
+                    parent[v] = u;
+                }
+            }
+            relaxed += offsets[u + 1] - offsets[u];
+        }
+
+        metrics.stopTimer();
+        metrics.add(relaxations, relaxed);
+
+        int endVertex = -1;
+        double maxDist = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            if (dist[i] > maxDist) {
+                maxDist = dist[i];
+                endVertex = i;
+            }
+        }
+        return new DAGShortestPath.DoublePathResult(reconstructPath(parent, endVertex), maxDist);
+    }
+
+    // Long.MIN_VALUE / MAX_VALUE mark unreached vertices, so an improving
+    // candidate of exactly that length counts as overflow too, as for int.
+    private static ArithmeticException overflowLong(int u, int v) {
+        return new ArithmeticException("Path length through edge " + u + " -> " + v + " overflows long");
+    }
+
+    // Out-of-range candidates are only an error if they were the best a vertex
+    // got: the sweeps drop them, and when one fell on a vertex that was still
+    // unreached at the time, this pass throws for any vertex at a position up
+    // to last that stayed unreached although a reached vertex has an edge to it.
+    private static void requireReached(Prepared p, int[] dist, int unreached, int last) {
+        int[] offsets = p.csr.getOffsets();
+        int[] targets = p.csr.getTargets();
+        for (int i = 0; i <= last; i++) {
+            int u = p.order[i];
+            if (dist[u] == unreached) {
+                continue;
+            }
+            for (int e = offsets[u], end = offsets[u + 1]; e < end; e++) {
+                int v = targets[e];
+                if (dist[v] == unreached && p.positionOf[v] <= last) {
+                    throw overflow(u, v);
+                }
+            }
+        }
+    }
+
+    private static void requireReached(Prepared p, long[] dist, long unreached) {
+        int[] offsets = p.csr.getOffsets();
+        int[] targets = p.csr.getTargets();
+        for (int u : p.order) {
+            if (dist[u] == unreached) {
+                continue;
+            }
+            for (int e = offsets[u], end = offsets[u + 1]; e < end; e++) {
+                if (dist[targets[e]] == unreached) {
+                    throw overflowLong(u, targets[e]);
+                }
+            }
+        }
+    }
+
+    private static void requireIntWeights(Prepared p) {
+        String kernel = p.csr.getWeightType() == WeightType.LONG ? "Long" : "Double";
+        requireIntWeights(p.csr, "use shortestPaths" + kernel + " / longestPath" + kernel);
+    }
+
+    // For the other int-only algorithms on the condensation, so that none of
+    // them silently runs on the saturated / rounded int copy of wider weights.
+    static void requireIntWeights(CsrGraph csr, String instead) {
+        WeightType type = csr.getWeightType();
+        if (type != WeightType.INT) {
+            throw new IllegalStateException("Graph has " + type + " weights; " + instead);
+        }
+    }
+
+    // Nothing before the source's position is reachable, so the sweep starts
+    // there; it ends after relaxing position last.
+    private void relaxShortest(Prepared p, int[] dist, int[] parent, int source, int last) {
+        int[] order = p.order;
+        int[] offsets = p.csr.getOffsets();
+        int[] targets = p.csr.getTargets();
+        int[] weights = p.csr.getWeights();
+        long relaxed = 0;
+        boolean outOfRange = false;
+
+        for (int i = p.positionOf[source]; i <= last; i++) {
+            int u = order[i];
+            int du = dist[u];
+            if (du == Integer.MAX_VALUE) {
+                continue;
+            }
+            for (int e = offsets[u], end = offsets[u + 1]; e < end; e++) {
+                int v = targets[e];
+                long candidate = (long) du + weights[e];
+                if (candidate < dist[v]) {
+                    dist[v] = checkedShortest(candidate, u, v);
+                    if (parent != null) {
+                        parent[v] = u;
+                    }
+                } else if (dist[v] == Integer.MAX_VALUE) {
+                    outOfRange = true;
+                }
+            }
+            relaxed += offsets[u + 1] - offsets[u];
+        }
+        if (outOfRange) {
+            requireReached(p, dist, Integer.MAX_VALUE, last);
+        }
+
+        metrics.add(relaxations, relaxed);
+    }
+
+    // candidate is already below some int distance, so only the bottom of the
+    // range can be left.
+    private static int checkedShortest(long candidate, int u, int v) {
+        if (candidate <= Integer.MIN_VALUE) {
+            throw overflow(u, v);
+        }
+        return (int) candidate;
+    }
+
+    // Integer.MAX_VALUE / MIN_VALUE mark unreached vertices, so a path of
+    // exactly that length counts as overflow too.
+    static ArithmeticException overflow(int u, int v) {
+        return new ArithmeticException("Path length through edge " + u + " -> " + v + " overflows int");
+    }
+
+    // Walks the parents once into an int[] and fills the list front to back.
+    static List<Integer> reconstructPath(int[] parent, int end) {
+        if (end == -1) {
+            return new ArrayList<>();
+        }
+        int length = 0;
+        for (int v = end; v != -1; v = parent[v]) {
+            length++;
+        }
+        int[] reversed = new int[length];
+        int i = length;
+        for (int v = end; v != -1; v = parent[v]) {
+            reversed[--i] = v;
+        }
+        List<Integer> path = new ArrayList<>(length);
+        for (int v : reversed) {
+            path.add(v);
+        }
+        return path;
+    }
+
+    public Graph getGraph() {
+        return graph;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+}
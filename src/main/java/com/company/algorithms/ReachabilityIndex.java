@@ -0,0 +1,286 @@
+package com.company.algorithms;
+
+import com.company.graphRepresentation.CsrGraph;
+import com.company.graphRepresentation.Graph;
+import com.company.metrics.ConcurrentMetrics;
+import com.company.metrics.Metrics;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Answers "can u reach v?" on the original vertex ids from a small index over
+// the condensation (GRAIL). Each of d randomized DFS traversals of the
+// condensation gives every component an interval [low, post]: its post-order
+// rank and the smallest rank below it. If a reaches b, b's interval lies
+// inside a's in every traversal, so one traversal without containment is a
+// definite "no". Components must also be on increasing topological levels
+// and decreasing heights (longest path to a sink).
+// The first rank given out below a marks its DFS-tree subtree, so a post rank
+// of b in there is a definite "yes". Only pairs left open by all of these fall
+// back to a DFS that skips every child failing them and stops at the first
+// one proven to reach b. The index takes O(d * components) ints, next to the
+// condensation it searches.
+public class ReachabilityIndex {
+    public static final int DEFAULT_TRAVERSALS = 5;
+
+    private final int[] componentOf;
+    private final CsrGraph condensation;
+    private final int[] levelOf;
+    private final int[] heightOf;
+    private final int traversals;
+    // For component c and traversal i, from 3 * (c * traversals + i): low,
+    // first rank of the tree subtree, post.
+    private final int[] intervals;
+    private final long buildNanos;
+    // Pooled rather than thread-local: the query service runs each request on
+    // a fresh virtual thread.
+    private final ConcurrentLinkedQueue<Scratch> scratch = new ConcurrentLinkedQueue<>();
+
+    private final Metrics metrics;
+    private final int queries;
+    private final int searches;
+    private final int componentsVisited;
+
+    private static final class Scratch {
+        final int[] mark;
+        final int[] stack;
+        int stamp;
+
+        Scratch(int k) {
+            mark = new int[k];
+            stack = new int[k];
+        }
+    }
+
+    public ReachabilityIndex(Graph graph) {
+        this(graph, DEFAULT_TRAVERSALS, 42);
+    }
+
+    public ReachabilityIndex(Graph graph, int traversals, long seed) {
+        this(SCCFinder.create(graph), traversals, seed);
+    }
+
+    public ReachabilityIndex(SCCFinder finder, int traversals, long seed) {
+        this(finder.getComponentMap(), finder.buildCondensationGraph(), traversals, seed);
+    }
+
+    // For callers that already hold the decomposition: componentOf maps each
+    // vertex to its vertex in dag.
+    public ReachabilityIndex(int[] componentOf, Graph dag, int traversals, long seed) {
+        if (traversals < 1) {
+            throw new IllegalArgumentException("traversals must be positive");
+        }
+        this.metrics = new ConcurrentMetrics();
+        this.queries = metrics.register("queries");
+        this.searches = metrics.register("dfs_fallbacks");
+        this.componentsVisited = metrics.register("components_visited");
+
+        long start = System.nanoTime();
+        this.componentOf = componentOf;
+        this.condensation = dag.toCsr();
+        TopologicalLevels levels = new TopologicalSort(dag).sortLevels();
+        this.levelOf = levels.getLevelOf();
+        this.traversals = traversals;
+        int k = condensation.getNumVertices();
+        this.heightOf = new int[k];
+        int[] order = levels.getOrder();
+        int[] offsets = condensation.getOffsets();
+        int[] targets = condensation.getTargets();
+        for (int i = k - 1; i >= 0; i--) {
+            int u = order[i];
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                heightOf[u] = Math.max(heightOf[u], heightOf[targets[e]] + 1);
+            }
+        }
+        this.intervals = new int[3 * k * traversals];
+        int[] inDegree = condensation.inDegrees();
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < traversals; i++) {
+            label(i, inDegree, random.split());
+        }
+        this.buildNanos = System.nanoTime() - start;
+    }
+
+    // One randomized post-order DFS from the roots in random order, visiting
+    // each component's children from a random offset.
+    private void label(int traversal, int[] inDegree, SplittableRandom random) {
+        int k = condensation.getNumVertices();
+        int[] offsets = condensation.getOffsets();
+        int[] targets = condensation.getTargets();
+        int[] roots = new int[k];
+        int numRoots = 0;
+        for (int c = 0; c < k; c++) {
+            if (inDegree[c] == 0) {
+                roots[numRoots++] = c;
+            }
+        }
+        for (int i = numRoots - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = roots[i];
+            roots[i] = roots[j];
+            roots[j] = tmp;
+        }
+
+        boolean[] visited = new boolean[k];
+        int[] first = new int[k];
+        int[] step = new int[k];
+        int[] low = new int[k];
+        int[] entry = new int[k];
+        int[] callStack = new int[k];
+        int rank = 0;
+        for (int r = 0; r < numRoots; r++) {
+            int root = roots[r];
+            int top = 0;
+            visited[root] = true;
+            low[root] = Integer.MAX_VALUE;
+            entry[root] = rank;
+            first[root] = randomOffset(root, offsets, random);
+            callStack[top++] = root;
+            while (top > 0) {
+                int u = callStack[top - 1];
+                int degree = offsets[u + 1] - offsets[u];
+                if (step[u] < degree) {
+                    int index = first[u] + step[u]++;
+                    int v = targets[offsets[u] + (index >= degree ? index - degree : index)];
+                    if (!visited[v]) {
+                        visited[v] = true;
+                        low[v] = Integer.MAX_VALUE;
+                        entry[v] = rank;
+                        first[v] = randomOffset(v, offsets, random);
+                        callStack[top++] = v;
+                    } else {
+                        low[u] = Math.min(low[u], low[v]);
+                    }
+                    continue;
+                }
+                top--;
+                int post = rank++;
+                low[u] = Math.min(low[u], post);
+                int slot = 3 * (u * traversals + traversal);
+                intervals[slot] = low[u];
+                intervals[slot + 1] = entry[u];
+                intervals[slot + 2] = post;
+                if (top > 0) {
+                    int parent = callStack[top - 1];
+                    low[parent] = Math.min(low[parent], low[u]);
+                }
+            }
+        }
+    }
+
+    private static int randomOffset(int u, int[] offsets, SplittableRandom random) {
+        int degree = offsets[u + 1] - offsets[u];
+        return degree > 1 ? random.nextInt(degree) : 0;
+    }
+
+    public boolean reachable(int u, int v) {
+        metrics.increment(queries);
+        int cu = componentOf[u];
+        int cv = componentOf[v];
+        if (cu == cv) {
+            return true;
+        }
+        if (!mayReach(cu, cv)) {
+            return false;
+        }
+        if (mustReach(cu, cv)) {
+            return true;
+        }
+        metrics.increment(searches);
+        Scratch s = scratch.poll();
+        if (s == null) {
+            s = new Scratch(condensation.getNumVertices());
+        }
+        try {
+            return search(s, cu, cv);
+        } finally {
+            scratch.offer(s);
+        }
+    }
+
+    private boolean search(Scratch s, int cu, int cv) {
+        if (++s.stamp == 0) {
+            Arrays.fill(s.mark, 0);
+            s.stamp = 1;
+        }
+        int current = s.stamp;
+        int[] offsets = condensation.getOffsets();
+        int[] targets = condensation.getTargets();
+        int top = 0;
+        int visited = 0;
+        s.mark[cu] = current;
+        s.stack[top++] = cu;
+        while (top > 0) {
+            int x = s.stack[--top];
+            visited++;
+            for (int e = offsets[x], end = offsets[x + 1]; e < end; e++) {
+                int y = targets[e];
+                if (y == cv) {
+                    metrics.add(componentsVisited, visited);
+                    return true;
+                }
+                if (s.mark[y] != current && mayReach(y, cv)) {
+                    if (mustReach(y, cv)) {
+                        metrics.add(componentsVisited, visited);
+                        return true;
+                    }
+                    s.mark[y] = current;
+                    s.stack[top++] = y;
+                }
+            }
+        }
+        metrics.add(componentsVisited, visited);
+        return false;
+    }
+
+    // False only if a cannot reach b; a != b.
+    private boolean mayReach(int a, int b) {
+        if (levelOf[a] >= levelOf[b] || heightOf[a] <= heightOf[b]) {
+            return false;
+        }
+        int sa = 3 * a * traversals;
+        int sb = 3 * b * traversals;
+        for (int i = 0; i < 3 * traversals; i += 3) {
+            if (intervals[sb + i] < intervals[sa + i] || intervals[sb + i + 2] > intervals[sa + i + 2]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // True only if a reaches b: b sits in a's DFS subtree in some traversal.
+    private boolean mustReach(int a, int b) {
+        int sa = 3 * a * traversals;
+        int sb = 3 * b * traversals;
+        for (int i = 0; i < 3 * traversals; i += 3) {
+            int post = intervals[sb + i + 2];
+            if (post >= intervals[sa + i + 1] && post <= intervals[sa + i + 2]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int getNumComponents() {
+        return condensation.getNumVertices();
+    }
+
+    public int getTraversals() {
+        return traversals;
+    }
+
+    public long getBuildNanos() {
+        return buildNanos;
+    }
+
+    // Intervals, levels and heights, plus the vertex map and the condensation the
+    // fallback search walks.
+    public long getIndexBytes() {
+        return 4L * intervals.length + 8L * levelOf.length + 4L * componentOf.length + condensation.getMemoryBytes();
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+}
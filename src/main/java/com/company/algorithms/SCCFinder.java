@@ -0,0 +1,44 @@
+package com.company.algorithms;
+
+import com.company.graphRepresentation.Graph;
+import com.company.metrics.Metrics;
+
+import java.util.List;
+
+public interface SCCFinder {
+    // Graphs with at least this many edges use ParallelSCC when more than one core is available.
+    int PARALLEL_EDGE_THRESHOLD = 1_000_000;
+
+    List<List<Integer>> findSCCs();
+
+    // Vertex -> index into findSCCs(); reuses the last decomposition unless
+    // the graph changed since.
+    int[] getComponentMap();
+
+    // Reuses the last decomposition unless the graph changed since. Parallel
+    // edges between two components keep the first edge's weight.
+    default Graph buildCondensationGraph() {
+        return buildCondensationGraph(CondensationBuilder.WeightPolicy.FIRST);
+    }
+
+    Graph buildCondensationGraph(CondensationBuilder.WeightPolicy policy);
+
+    Metrics getMetrics();
+
+    // Engine chosen by -Dscc.engine=tarjan|parallel|auto (default auto: by graph size).
+    static SCCFinder create(Graph graph) {
+        String engine = System.getProperty("scc.engine", "auto");
+        switch (engine) {
+            case "tarjan":
+                return new TarjanSCC(graph);
+            case "parallel":
+                return new ParallelSCC(graph);
+            case "auto":
+                boolean large = graph.getNumEdges() >= PARALLEL_EDGE_THRESHOLD;
+                boolean multiCore = Runtime.getRuntime().availableProcessors() > 1;
+                return large && multiCore ? new ParallelSCC(graph) : new TarjanSCC(graph);
+            default:
+                throw new IllegalArgumentException("Unknown scc.engine: " + engine);
+        }
+    }
+}
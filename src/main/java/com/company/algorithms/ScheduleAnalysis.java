@@ -0,0 +1,162 @@
+package com.company.algorithms;
+
+import com.company.graphRepresentation.CsrGraph;
+import com.company.graphRepresentation.Graph;
+import com.company.graphRepresentation.WeightType;
+import com.company.metrics.Metrics;
+
+// Critical-path schedule of every vertex in two sweeps over the condensation:
+// earliest starts in topological order, then latest starts backwards from the
+// project length, which gives each vertex its slack; vertices without slack
+// are critical. Under the "edge" weight model vertices are events and an edge
+// u -> v of weight w means v starts at least w after u. Under the "node" model
+// vertices are tasks with the durations from Graph.getNodeWeights(), an edge
+// means v starts once u has finished, and edge weights are ignored. A
+// component of the condensation is scheduled as one task: its members share
+// its start, and under the node model its duration is the sum of theirs.
+// All times are long; under the edge model LONG weights are used exactly and
+// DOUBLE weights are rejected.
+public class ScheduleAnalysis {
+    private final int[] componentOf;
+    private final long[] componentDuration;
+    private final long[] earliestStart;
+    private final long[] latestStart;
+    private final long[] slack;
+    private final boolean[] critical;
+    private final boolean nodeWeighted;
+    private final long projectLength;
+    private final int numCritical;
+    private final Metrics metrics;
+
+    public ScheduleAnalysis(Graph graph) {
+        this(graph, SCCFinder.create(graph));
+    }
+
+    // finder must be working on graph; its decomposition is reused.
+    public ScheduleAnalysis(Graph graph, SCCFinder finder) {
+        this.metrics = new Metrics();
+        int relaxations = metrics.register("relaxations");
+        int[] nodeWeights = graph.getNodeWeights();
+        this.nodeWeighted = nodeWeights != null;
+
+        metrics.startTimer();
+
+        this.componentOf = finder.getComponentMap();
+        // Between two components only the heaviest edge can bind.
+        CsrGraph dag = finder.buildCondensationGraph(CondensationBuilder.WeightPolicy.MAX).toCsr();
+        int k = dag.getNumVertices();
+        int n = graph.getNumVertices();
+        this.componentDuration = new long[k];
+        if (nodeWeighted) {
+            for (int v = 0; v < n; v++) {
+                componentDuration[componentOf[v]] += nodeWeights[v];
+            }
+        }
+        int[] order = new TopologicalSort(Graph.fromCsr(dag)).orderDFS();
+        int[] offsets = dag.getOffsets();
+        int[] targets = dag.getTargets();
+        if (!nodeWeighted && dag.getWeightType() == WeightType.DOUBLE) {
+            throw new IllegalStateException("Schedule needs integer edge weights, graph has DOUBLE");
+        }
+        long[] weights = nodeWeighted ? null : dag.getLongWeights();
+
+        long[] es = new long[k];
+        long length = 0;
+        for (int c : order) {
+            long finish = es[c] + componentDuration[c];
+            length = Math.max(length, finish);
+            for (int e = offsets[c], end = offsets[c + 1]; e < end; e++) {
+                long next = finish + lag(weights, e);
+                if (next > es[targets[e]]) {
+                    es[targets[e]] = next;
+                }
+            }
+        }
+        this.projectLength = length;
+
+        long[] ls = new long[k];
+        for (int i = k - 1; i >= 0; i--) {
+            int c = order[i];
+            long latestFinish = length;
+            for (int e = offsets[c], end = offsets[c + 1]; e < end; e++) {
+                latestFinish = Math.min(latestFinish, ls[targets[e]] - lag(weights, e));
+            }
+            ls[c] = latestFinish - componentDuration[c];
+        }
+        metrics.add(relaxations, 2L * dag.getNumEdges());
+
+        this.earliestStart = new long[n];
+        this.latestStart = new long[n];
+        this.slack = new long[n];
+        this.critical = new boolean[n];
+        int count = 0;
+        for (int v = 0; v < n; v++) {
+            int c = componentOf[v];
+            earliestStart[v] = es[c];
+            latestStart[v] = ls[c];
+            slack[v] = ls[c] - es[c];
+            critical[v] = slack[v] == 0;
+            if (critical[v]) {
+                count++;
+            }
+        }
+        this.numCritical = count;
+
+        metrics.stopTimer();
+    }
+
+    private static long lag(long[] weights, int e) {
+        return weights == null ? 0 : weights[e];
+    }
+
+    public boolean isNodeWeighted() {
+        return nodeWeighted;
+    }
+
+    // Earliest finish of the whole graph.
+    public long getProjectLength() {
+        return projectLength;
+    }
+
+    public int getNumCritical() {
+        return numCritical;
+    }
+
+    // The arrays below are indexed by vertex and shared, not copied.
+    public long[] getEarliestStart() {
+        return earliestStart;
+    }
+
+    public long[] getLatestStart() {
+        return latestStart;
+    }
+
+    public long[] getSlack() {
+        return slack;
+    }
+
+    public boolean[] getCritical() {
+        return critical;
+    }
+
+    public int[] getComponentMap() {
+        return componentOf;
+    }
+
+    // Duration of v's component: 0 under the edge model.
+    public long getDuration(int v) {
+        return componentDuration[componentOf[v]];
+    }
+
+    public long getEarliestFinish(int v) {
+        return earliestStart[v] + getDuration(v);
+    }
+
+    public long getLatestFinish(int v) {
+        return latestStart[v] + getDuration(v);
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+}
@@ -1,113 +1,132 @@
 package com.company.algorithms;
 
 
+import com.company.graphRepresentation.CsrGraph;
 import com.company.graphRepresentation.Graph;
 import com.company.metrics.Metrics;
 
 import java.util.*;
 
-public class TarjanSCC {
+// Iterative Tarjan: the DFS call stack is an int[] of vertices plus a per-vertex
+// cursor into its CSR edge range, so recursion depth never limits graph size.
+public class TarjanSCC implements SCCFinder {
     private Graph graph;
     private Metrics metrics;
-    private int[] disc;
-    private int[] low;
-    private boolean[] onStack;
-    private Stack<Integer> stack;
-    private int time;
+    private final int dfsVisits;
+    private final int edgesExplored;
     private List<List<Integer>> sccs;
+    private int[] componentOf;
+    private long computedAt = -1;
 
     public TarjanSCC(Graph graph) {
         this.graph = graph;
         this.metrics = new Metrics();
+        this.dfsVisits = metrics.register("DFS_visits");
+        this.edgesExplored = metrics.register("edges_explored");
     }
 
+    @Override
     public List<List<Integer>> findSCCs() {
-        int n = graph.getNumVertices();
-        disc = new int[n];
-        low = new int[n];
-        onStack = new boolean[n];
-        stack = new Stack<>();
+        CsrGraph csr = graph.toCsr();
+        int n = csr.getNumVertices();
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+
+        int[] disc = new int[n];
+        int[] low = new int[n];
+        boolean[] onStack = new boolean[n];
+        int[] cursor = new int[n];
+        int[] callStack = new int[n];
+        int[] sccStack = new int[n];
+        int callTop = 0;
+        int sccTop = 0;
+        int time = 0;
         sccs = new ArrayList<>();
-        time = 0;
+        componentOf = new int[n];
 
         Arrays.fill(disc, -1);
         Arrays.fill(low, -1);
 
         metrics.startTimer();
 
-        for (int i = 0; i < n; i++) {
-            if (disc[i] == -1) {
-                dfs(i);
+        for (int root = 0; root < n; root++) {
+            if (disc[root] != -1) {
+                continue;
             }
-        }
-
-        metrics.stopTimer();
-
-        return sccs;
-    }
 
-    private void dfs(int u) {
-        metrics.incrementCounter("DFS_visits");
-
-        disc[u] = low[u] = time++;
-        stack.push(u);
-        onStack[u] = true;
-
-        for (Graph.Edge edge : graph.getNeighbors(u)) {
-            int v = edge.v;
-            metrics.incrementCounter("edges_explored");
+            metrics.increment(dfsVisits);
+            disc[root] = low[root] = time++;
+            sccStack[sccTop++] = root;
+            onStack[root] = true;
+            cursor[root] = offsets[root];
+            callStack[callTop++] = root;
+
+            while (callTop > 0) {
+                int u = callStack[callTop - 1];
+
+                if (cursor[u] < offsets[u + 1]) {
+                    int v = targets[cursor[u]++];
+                    metrics.increment(edgesExplored);
+
+                    if (disc[v] == -1) {
+                        metrics.increment(dfsVisits);
+                        disc[v] = low[v] = time++;
+                        sccStack[sccTop++] = v;
+                        onStack[v] = true;
+                        cursor[v] = offsets[v];
+                        callStack[callTop++] = v;
+                    } else if (onStack[v]) {
+                        low[u] = Math.min(low[u], disc[v]);
+                    }
+                    continue;
+                }
 
-            if (disc[v] == -1) {
-                dfs(v);
-                low[u] = Math.min(low[u], low[v]);
-            } else if (onStack[v]) {
-                low[u] = Math.min(low[u], disc[v]);
+                // All edges of u explored: this is the return from dfs(u).
+                callTop--;
+                if (low[u] == disc[u]) {
+                    List<Integer> scc = new ArrayList<>();
+                    int v;
+                    do {
+                        v = sccStack[--sccTop];
+                        onStack[v] = false;
+                        componentOf[v] = sccs.size();
+                        scc.add(v);
+                    } while (v != u);
+
+                    sccs.add(scc);
+                }
+                if (callTop > 0) {
+                    int parent = callStack[callTop - 1];
+                    low[parent] = Math.min(low[parent], low[u]);
+                }
             }
         }
 
-        if (low[u] == disc[u]) {
-            List<Integer> scc = new ArrayList<>();
-            int v;
-            do {
-                v = stack.pop();
-                onStack[v] = false;
-                scc.add(v);
-            } while (v != u);
+        metrics.stopTimer();
+        computedAt = graph.getModCount();
 
-            sccs.add(scc);
-        }
+        return sccs;
     }
 
-    public Graph buildCondensationGraph() {
-        List<List<Integer>> sccs = findSCCs();
-        int numSCCs = sccs.size();
-
-        int[] vertexToSCC = new int[graph.getNumVertices()];
-        for (int i = 0; i < sccs.size(); i++) {
-            for (int vertex : sccs.get(i)) {
-                vertexToSCC[vertex] = i;
-            }
-        }
-
-        Graph condensation = new Graph(numSCCs);
-        Set<String> addedEdges = new HashSet<>();
+    @Override
+    public int[] getComponentMap() {
+        ensureComputed();
+        return componentOf;
+    }
 
-        for (Graph.Edge edge : graph.getEdges()) {
-            int sccU = vertexToSCC[edge.u];
-            int sccV = vertexToSCC[edge.v];
+    @Override
+    public Graph buildCondensationGraph(CondensationBuilder.WeightPolicy policy) {
+        ensureComputed();
+        return CondensationBuilder.build(graph, componentOf, sccs.size(), policy);
+    }
 
-            if (sccU != sccV) {
-                String edgeKey = sccU + "->" + sccV;
-                if (!addedEdges.contains(edgeKey)) {
-                    condensation.addEdge(sccU, sccV, edge.w);
-                    addedEdges.add(edgeKey);
-                }
-            }
+    private void ensureComputed() {
+        if (sccs == null || computedAt != graph.getModCount()) {
+            findSCCs();
         }
-
-        return condensation;
     }
 
+    @Override
     public Metrics getMetrics() {
         return metrics;
     }
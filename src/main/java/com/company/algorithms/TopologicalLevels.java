@@ -0,0 +1,102 @@
+package com.company.algorithms;
+
+import com.company.graphRepresentation.CsrGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Result of a level-synchronous Kahn sort. Level 0 holds the vertices without
+// in-edges and level k the vertices whose last predecessor is in level k - 1,
+// so every level is a batch of mutually independent vertices. The order lists
+// the levels one after another, each level sorted by vertex id.
+public class TopologicalLevels {
+    private final CsrGraph csr;
+    private final int[] order;
+    private final int[] levelStart;
+    private final int[] levelOf;
+
+    TopologicalLevels(CsrGraph csr, int[] order, int[] levelStart, int[] levelOf) {
+        this.csr = csr;
+        this.order = order;
+        this.levelStart = levelStart;
+        this.levelOf = levelOf;
+    }
+
+    public boolean isAcyclic() {
+        return order.length == csr.getNumVertices();
+    }
+
+    // The sorted vertices; on a cyclic graph only those not on or behind a cycle.
+    public int[] getOrder() {
+        return order;
+    }
+
+    // Level of every vertex, -1 for vertices on or behind a cycle.
+    public int[] getLevelOf() {
+        return levelOf;
+    }
+
+    public int getNumLevels() {
+        return levelStart.length - 1;
+    }
+
+    public int getLevelSize(int level) {
+        return levelStart[level + 1] - levelStart[level];
+    }
+
+    public int[] getLevel(int level) {
+        return Arrays.copyOfRange(order, levelStart[level], levelStart[level + 1]);
+    }
+
+    // Same contract as TopologicalSort.sortKahn(): the order, or an empty list on a cycle.
+    public List<Integer> toList() {
+        if (!isAcyclic()) {
+            return new ArrayList<>();
+        }
+        List<Integer> result = new ArrayList<>(order.length);
+        for (int v : order) {
+            result.add(v);
+        }
+        return result;
+    }
+
+    // One directed cycle as a vertex sequence (the edge from the last vertex
+    // back to the first closes it), or an empty array for a DAG. Every unsorted
+    // vertex keeps an unsorted predecessor, so walking predecessors must repeat.
+    public int[] findCycle() {
+        if (isAcyclic()) {
+            return new int[0];
+        }
+        int n = csr.getNumVertices();
+        CsrGraph reverse = csr.transpose();
+        int[] sources = reverse.getTargets();
+        int[] step = new int[n];
+        Arrays.fill(step, -1);
+
+        int v = 0;
+        while (levelOf[v] != -1) {
+            v++;
+        }
+        IntList walk = new IntList();
+        while (step[v] == -1) {
+            step[v] = walk.size();
+            walk.add(v);
+            int next = -1;
+            for (int e = reverse.getEdgeStart(v), end = reverse.getEdgeEnd(v); e < end && next == -1; e++) {
+                if (levelOf[sources[e]] == -1) {
+                    next = sources[e];
+                }
+            }
+            v = next;
+        }
+
+        // walk[step[v]..] follows edges backwards; reverse it into edge direction.
+        int length = walk.size() - step[v];
+        int[] cycle = new int[length];
+        for (int i = 0; i < length; i++) {
+            cycle[i] = walk.get(walk.size() - 1 - i);
+        }
+        return cycle;
+    }
+}
@@ -1,98 +1,235 @@
 package com.company.algorithms;
 
 
+import com.company.graphRepresentation.CsrGraph;
 import com.company.graphRepresentation.Graph;
 import com.company.metrics.Metrics;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 public class TopologicalSort {
+    private static final int LEVEL_GRAIN = 2048;
+
     private Graph graph;
     private Metrics metrics;
+    private final int queuePops;
+    private final int queuePushes;
+    private final int dfsVisits;
+    private final int levels;
 
     public TopologicalSort(Graph graph) {
         this.graph = graph;
         this.metrics = new Metrics();
+        this.queuePops = metrics.register("queue_pops");
+        this.queuePushes = metrics.register("queue_pushes");
+        this.dfsVisits = metrics.register("DFS_visits");
+        this.levels = metrics.register("levels");
     }
 
     public List<Integer> sortKahn() {
-        int n = graph.getNumVertices();
-        int[] inDegree = new int[n];
-
-        for (Graph.Edge edge : graph.getEdges()) {
-            inDegree[edge.v]++;
-        }
-
-        Queue<Integer> queue = new LinkedList<>();
+        CsrGraph csr = graph.toCsr();
+        int n = csr.getNumVertices();
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        int[] inDegree = csr.inDegrees();
+
+        // Every vertex enters the queue at most once, so an int[] of n slots is enough.
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
         for (int i = 0; i < n; i++) {
             if (inDegree[i] == 0) {
-                queue.offer(i);
+                queue[tail++] = i;
             }
         }
 
-        List<Integer> result = new ArrayList<>();
-
         metrics.startTimer();
 
-        while (!queue.isEmpty()) {
-            metrics.incrementCounter("queue_pops");
-            int u = queue.poll();
-            result.add(u);
-
-            for (Graph.Edge edge : graph.getNeighbors(u)) {
-                int v = edge.v;
-                inDegree[v]--;
+        while (head < tail) {
+            metrics.increment(queuePops);
+            int u = queue[head++];
 
-                if (inDegree[v] == 0) {
-                    metrics.incrementCounter("queue_pushes");
-                    queue.offer(v);
+            for (int e = offsets[u], end = offsets[u + 1]; e < end; e++) {
+                int v = targets[e];
+                if (--inDegree[v] == 0) {
+                    metrics.increment(queuePushes);
+                    queue[tail++] = v;
                 }
             }
         }
 
         metrics.stopTimer();
 
-        if (result.size() != n) {
+        if (tail != n) {
             return new ArrayList<>();
         }
 
+        List<Integer> result = new ArrayList<>(n);
+        for (int u : queue) {
+            result.add(u);
+        }
         return result;
     }
 
-    public List<Integer> sortDFS() {
-        int n = graph.getNumVertices();
-        boolean[] visited = new boolean[n];
-        Stack<Integer> stack = new Stack<>();
+    public TopologicalLevels sortLevels() {
+        return sortLevels(ForkJoinPool.commonPool());
+    }
+
+    // Level-synchronous Kahn: the frontier of each level is split into chunks
+    // that decrement in-degrees atomically on the pool, and the vertices that
+    // reach zero form the next level. Small frontiers run on the caller.
+    public TopologicalLevels sortLevels(ForkJoinPool pool) {
+        CsrGraph csr = graph.toCsr();
+        int n = csr.getNumVertices();
+        AtomicIntegerArray inDegree = new AtomicIntegerArray(csr.inDegrees());
+        int[] levelOf = new int[n];
+        Arrays.fill(levelOf, -1);
+        int[] order = new int[n];
+        IntList levelStart = new IntList();
+
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            if (inDegree.get(i) == 0) {
+                order[size++] = i;
+            }
+        }
 
         metrics.startTimer();
 
-        for (int i = 0; i < n; i++) {
-            if (!visited[i]) {
-                dfsUtil(i, visited, stack);
+        int start = 0;
+        int level = 0;
+        while (start < size) {
+            levelStart.add(start);
+            for (int i = start; i < size; i++) {
+                levelOf[order[i]] = level;
             }
+            metrics.increment(levels);
+            metrics.add(queuePops, size - start);
+
+            int[] next = size - start <= LEVEL_GRAIN
+                    ? new Frontier(csr, inDegree, order, start, size).compute()
+                    : pool.invoke(new Frontier(csr, inDegree, order, start, size));
+            Arrays.sort(next);
+            metrics.add(queuePushes, next.length);
+            System.arraycopy(next, 0, order, size, next.length);
+            start = size;
+            size += next.length;
+            level++;
         }
+        levelStart.add(size);
 
         metrics.stopTimer();
 
-        List<Integer> result = new ArrayList<>();
-        while (!stack.isEmpty()) {
-            result.add(stack.pop());
+        return new TopologicalLevels(csr, size == n ? order : Arrays.copyOf(order, size),
+                levelStart.toArray(), levelOf);
+    }
+
+    private static final class Frontier extends RecursiveTask<int[]> {
+        private final CsrGraph csr;
+        private final AtomicIntegerArray inDegree;
+        private final int[] order;
+        private final int from;
+        private final int to;
+
+        Frontier(CsrGraph csr, AtomicIntegerArray inDegree, int[] order, int from, int to) {
+            this.csr = csr;
+            this.inDegree = inDegree;
+            this.order = order;
+            this.from = from;
+            this.to = to;
         }
 
+        @Override
+        protected int[] compute() {
+            if (to - from > LEVEL_GRAIN) {
+                int mid = (from + to) >>> 1;
+                Frontier right = new Frontier(csr, inDegree, order, mid, to);
+                right.fork();
+                int[] left = new Frontier(csr, inDegree, order, from, mid).compute();
+                int[] rest = right.join();
+                int[] both = Arrays.copyOf(left, left.length + rest.length);
+                System.arraycopy(rest, 0, both, left.length, rest.length);
+                return both;
+            }
+            int[] offsets = csr.getOffsets();
+            int[] targets = csr.getTargets();
+            IntList ready = new IntList();
+            for (int i = from; i < to; i++) {
+                int u = order[i];
+                for (int e = offsets[u], end = offsets[u + 1]; e < end; e++) {
+                    if (inDegree.decrementAndGet(targets[e]) == 0) {
+                        ready.add(targets[e]);
+                    }
+                }
+            }
+            return ready.toArray();
+        }
+    }
+
+    public List<Integer> sortDFS() {
+        int[] order = orderDFS();
+        List<Integer> result = new ArrayList<>(order.length);
+        for (int u : order) {
+            result.add(u);
+        }
         return result;
     }
 
-    private void dfsUtil(int u, boolean[] visited, Stack<Integer> stack) {
-        metrics.incrementCounter("DFS_visits");
-        visited[u] = true;
+    // Iterative DFS with an int[] call stack and per-vertex edge cursors;
+    // vertices are emitted in reverse post-order, as the recursive version did.
+    public int[] orderDFS() {
+        CsrGraph csr = graph.toCsr();
+        int n = csr.getNumVertices();
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        boolean[] visited = new boolean[n];
+        int[] cursor = new int[n];
+        int[] callStack = new int[n];
+        int[] postOrder = new int[n];
+        int callTop = 0;
+        int finished = 0;
 
-        for (Graph.Edge edge : graph.getNeighbors(u)) {
-            if (!visited[edge.v]) {
-                dfsUtil(edge.v, visited, stack);
+        metrics.startTimer();
+
+        for (int i = 0; i < n; i++) {
+            if (visited[i]) {
+                continue;
+            }
+
+            metrics.increment(dfsVisits);
+            visited[i] = true;
+            cursor[i] = offsets[i];
+            callStack[callTop++] = i;
+
+            while (callTop > 0) {
+                int u = callStack[callTop - 1];
+                if (cursor[u] < offsets[u + 1]) {
+                    int v = targets[cursor[u]++];
+                    if (!visited[v]) {
+                        metrics.increment(dfsVisits);
+                        visited[v] = true;
+                        cursor[v] = offsets[v];
+                        callStack[callTop++] = v;
+                    }
+                } else {
+                    callTop--;
+                    postOrder[finished++] = u;
+                }
             }
         }
 
-        stack.push(u);
+        metrics.stopTimer();
+
+        for (int i = 0, j = finished - 1; i < j; i++, j--) {
+            int tmp = postOrder[i];
+            postOrder[i] = postOrder[j];
+            postOrder[j] = tmp;
+        }
+
+        return postOrder;
     }
 
     public Metrics getMetrics() {
@@ -0,0 +1,364 @@
+package com.company.algorithms;
+
+import com.company.graphRepresentation.CsrGraph;
+import com.company.graphRepresentation.Graph;
+import com.company.metrics.ConcurrentMetrics;
+import com.company.metrics.Metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.IntStream;
+
+// Full transitive closure of the condensation as one bitset row per
+// component. Bits are indexed by position in the level order of
+// TopologicalSort.sortLevels(), so a component's descendants all sit after it
+// and its row only stores the words from its own position on (ancestor rows
+// the words up to it), about half of k * k bits. Rows are filled level by
+// level from the sinks up: a component ORs in the rows of its children, in
+// position order, skipping a child already covered by an earlier one. Each
+// level's rows are independent and are split across the pool.
+//
+// When the descendant rows would not fit in the memory budget nothing is
+// materialized (see isMaterialized()): sets and counts then run one search per
+// call and reaches() goes through a ReachabilityIndex. Ancestor rows are only
+// built on first use, and only if they fit in what the budget has left.
+public class TransitiveClosure {
+    // Rows per chunk of a level handed to the pool.
+    static final int ROW_GRAIN = 32;
+
+    private final int[] componentOf;
+    private final Graph condensation;
+    private final CsrGraph dag;
+    private final CsrGraph reverse;
+    private final int[] order;
+    private final int[] positionOf;
+    private final int[] levelStart;
+    private final int words;
+    private final long memoryBudget;
+    private final ForkJoinPool pool;
+    private final long[][] descendants;
+    private volatile long[][] ancestors;
+    private volatile boolean ancestorsRefused;
+    private ReachabilityIndex fallback;
+    private final long buildNanos;
+
+    private final Metrics metrics;
+    private final int wordsOred;
+    private final int childrenSkipped;
+
+    public TransitiveClosure(Graph graph) {
+        this(graph, defaultMemoryBudget());
+    }
+
+    public TransitiveClosure(Graph graph, long memoryBudget) {
+        this(SCCFinder.create(graph), memoryBudget, ForkJoinPool.commonPool());
+    }
+
+    public TransitiveClosure(SCCFinder finder, long memoryBudget, ForkJoinPool pool) {
+        this(finder.getComponentMap(), finder.buildCondensationGraph(), memoryBudget, pool);
+    }
+
+    // componentOf maps each vertex to its vertex in dag.
+    public TransitiveClosure(int[] componentOf, Graph dag, long memoryBudget, ForkJoinPool pool) {
+        this.metrics = new ConcurrentMetrics();
+        this.wordsOred = metrics.register("words_ored");
+        this.childrenSkipped = metrics.register("children_skipped");
+
+        long start = System.nanoTime();
+        this.componentOf = componentOf;
+        this.condensation = dag;
+        this.dag = dag.toCsr();
+        this.reverse = this.dag.transpose();
+        this.memoryBudget = memoryBudget;
+        this.pool = pool;
+        TopologicalLevels levels = new TopologicalSort(dag).sortLevels(pool);
+        if (!levels.isAcyclic()) {
+            throw new IllegalArgumentException("Transitive closure needs a DAG");
+        }
+        this.order = levels.getOrder();
+        int k = order.length;
+        this.positionOf = new int[k];
+        for (int p = 0; p < k; p++) {
+            positionOf[order[p]] = p;
+        }
+        this.levelStart = new int[levels.getNumLevels() + 1];
+        for (int level = 0; level < levels.getNumLevels(); level++) {
+            levelStart[level + 1] = levelStart[level] + levels.getLevelSize(level);
+        }
+        this.words = (k + 63) >>> 6;
+        this.descendants = requiredBytes(k) <= memoryBudget ? close(true) : null;
+        this.buildNanos = System.nanoTime() - start;
+    }
+
+    // Half the heap.
+    public static long defaultMemoryBudget() {
+        return Runtime.getRuntime().maxMemory() / 2;
+    }
+
+    // Bytes of the descendant rows for a condensation of k components; the
+    // ancestor rows take about the same.
+    public static long requiredBytes(int k) {
+        long words = (k + 63) >>> 6;
+        long bytes = 0;
+        for (long block = 0; block < words; block++) {
+            long rows = Math.min(64, k - block * 64);
+            bytes += rows * (16 + 8 * (words - block));
+        }
+        return bytes + 16 + 8L * k;
+    }
+
+    private long[][] close(boolean down) {
+        CsrGraph adjacency = down ? dag : reverse;
+        long[][] rows = new long[order.length][];
+        int numLevels = levelStart.length - 1;
+        for (int i = 0; i < numLevels; i++) {
+            int level = down ? numLevels - 1 - i : i;
+            Rows task = new Rows(adjacency, rows, down, levelStart[level], levelStart[level + 1]);
+            if (task.to - task.from <= ROW_GRAIN) {
+                task.compute();
+            } else {
+                pool.invoke(task);
+            }
+        }
+        return rows;
+    }
+
+    // First word a row stores: descendant rows start at their own position,
+    // ancestor rows at 0.
+    private static int firstWord(int position, boolean down) {
+        return down ? position >>> 6 : 0;
+    }
+
+    private int rowWords(int position, boolean down) {
+        return down ? words - (position >>> 6) : (position >>> 6) + 1;
+    }
+
+    private final class Rows extends RecursiveAction {
+        private final CsrGraph adjacency;
+        private final long[][] rows;
+        private final boolean down;
+        private final int from;
+        private final int to;
+
+        Rows(CsrGraph adjacency, long[][] rows, boolean down, int from, int to) {
+            this.adjacency = adjacency;
+            this.rows = rows;
+            this.down = down;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > ROW_GRAIN) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Rows(adjacency, rows, down, from, mid), new Rows(adjacency, rows, down, mid, to));
+                return;
+            }
+            int[] offsets = adjacency.getOffsets();
+            int[] targets = adjacency.getTargets();
+            int[] next = new int[16];
+            long ored = 0;
+            long skipped = 0;
+            for (int p = from; p < to; p++) {
+                int c = order[p];
+                int degree = offsets[c + 1] - offsets[c];
+                if (next.length < degree) {
+                    next = new int[degree];
+                }
+                for (int i = 0; i < degree; i++) {
+                    next[i] = positionOf[targets[offsets[c] + i]];
+                }
+                // Nearest first: a nearer neighbor may cover the farther ones.
+                Arrays.sort(next, 0, degree);
+                int base = firstWord(p, down);
+                long[] row = new long[rowWords(p, down)];
+                for (int i = 0; i < degree; i++) {
+                    int q = down ? next[i] : next[degree - 1 - i];
+                    int bit = (q >>> 6) - base;
+                    long mask = 1L << q;
+                    if ((row[bit] & mask) != 0) {
+                        skipped++;
+                        continue;
+                    }
+                    row[bit] |= mask;
+                    long[] other = rows[q];
+                    int offset = firstWord(q, down) - base;
+                    for (int w = 0; w < other.length; w++) {
+                        row[offset + w] |= other[w];
+                    }
+                    ored += other.length;
+                }
+                rows[p] = row;
+            }
+            metrics.add(wordsOred, ored);
+            metrics.add(childrenSkipped, skipped);
+        }
+    }
+
+    public boolean isMaterialized() {
+        return descendants != null;
+    }
+
+    public int getNumComponents() {
+        return order.length;
+    }
+
+    public int getComponent(int v) {
+        return componentOf[v];
+    }
+
+    // Whether u can reach v, on vertex ids.
+    public boolean reachable(int u, int v) {
+        return reaches(componentOf[u], componentOf[v]);
+    }
+
+    // Whether component a reaches component b; every component reaches itself.
+    public boolean reaches(int a, int b) {
+        if (a == b) {
+            return true;
+        }
+        if (descendants == null) {
+            return fallback().reachable(a, b);
+        }
+        int p = positionOf[a];
+        int q = positionOf[b];
+        return q > p && (descendants[p][(q >>> 6) - (p >>> 6)] & (1L << q)) != 0;
+    }
+
+    public int[] getDescendants(int component) {
+        return members(row(component, true), firstWord(positionOf[component], true));
+    }
+
+    public int[] getAncestors(int component) {
+        return members(row(component, false), 0);
+    }
+
+    public int getDescendantCount(int component) {
+        return count(row(component, true));
+    }
+
+    public int getAncestorCount(int component) {
+        return count(row(component, false));
+    }
+
+    // Counts for every component, indexed by component id.
+    public int[] getDescendantCounts() {
+        return counts(true);
+    }
+
+    public int[] getAncestorCounts() {
+        return counts(false);
+    }
+
+    private int[] counts(boolean down) {
+        int[] result = new int[order.length];
+        pool.submit(() -> IntStream.range(0, order.length).parallel()
+                .forEach(c -> result[c] = count(row(c, down)))).join();
+        return result;
+    }
+
+    private long[] row(int component, boolean down) {
+        int p = positionOf[component];
+        long[][] rows = down ? descendants : ancestors();
+        return rows != null ? rows[p] : search(p, down);
+    }
+
+    private long[][] ancestors() {
+        long[][] rows = ancestors;
+        if (rows == null && descendants != null && !ancestorsRefused) {
+            synchronized (this) {
+                rows = ancestors;
+                if (rows == null && !ancestorsRefused) {
+                    if (2 * requiredBytes(order.length) <= memoryBudget) {
+                        ancestors = rows = close(false);
+                    } else {
+                        ancestorsRefused = true;
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
+    // Unmaterialized row: DFS from position p, laid out like a stored row.
+    private long[] search(int p, boolean down) {
+        CsrGraph adjacency = down ? dag : reverse;
+        int[] offsets = adjacency.getOffsets();
+        int[] targets = adjacency.getTargets();
+        int base = firstWord(p, down);
+        long[] row = new long[rowWords(p, down)];
+        int[] stack = new int[16];
+        int top = 0;
+        stack[top++] = order[p];
+        while (top > 0) {
+            int c = stack[--top];
+            for (int e = offsets[c], end = offsets[c + 1]; e < end; e++) {
+                int q = positionOf[targets[e]];
+                int bit = (q >>> 6) - base;
+                if ((row[bit] & (1L << q)) == 0) {
+                    row[bit] |= 1L << q;
+                    if (top == stack.length) {
+                        stack = Arrays.copyOf(stack, top * 2);
+                    }
+                    stack[top++] = targets[e];
+                }
+            }
+        }
+        return row;
+    }
+
+    private int[] members(long[] row, int base) {
+        int[] result = new int[count(row)];
+        int size = 0;
+        for (int w = 0; w < row.length; w++) {
+            for (long bits = row[w]; bits != 0; bits &= bits - 1) {
+                result[size++] = order[((base + w) << 6) + Long.numberOfTrailingZeros(bits)];
+            }
+        }
+        return result;
+    }
+
+    private static int count(long[] row) {
+        int count = 0;
+        for (long word : row) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    // Indexed on the condensation itself, so it takes component ids.
+    private synchronized ReachabilityIndex fallback() {
+        if (fallback == null) {
+            int[] identity = new int[order.length];
+            Arrays.setAll(identity, c -> c);
+            fallback = new ReachabilityIndex(identity, condensation, ReachabilityIndex.DEFAULT_TRAVERSALS, 42);
+        }
+        return fallback;
+    }
+
+    // Bytes held by the materialized rows, 0 when nothing is materialized.
+    public long getMemoryBytes() {
+        long bytes = 0;
+        if (descendants != null) {
+            bytes += requiredBytes(order.length);
+        }
+        if (ancestors != null) {
+            bytes += requiredBytes(order.length);
+        }
+        return bytes;
+    }
+
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    public long getBuildNanos() {
+        return buildNanos;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+}
@@ -1,18 +1,35 @@
 package com.company.benchmarkRunner;
 
 import com.company.algorithms.DAGShortestPath;
-import com.company.algorithms.TarjanSCC;
+import com.company.algorithms.SCCFinder;
 import com.company.algorithms.TopologicalSort;
+import com.company.graphRepresentation.BinaryGraphFormat;
 import com.company.graphRepresentation.Graph;
 import com.company.metrics.resultWriter.ResultWriter;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class BenchmarkRunner {
 
+    // No arguments: the data/ files below. "--generate dag:1e6 cyclic:1e7 ... [--seed S]"
+    // runs the pipeline on synthetic graphs instead (see GraphGenerator), generating
+    // each data/generated file on first use. "--macro ..." repeats it with
+    // per-phase statistics (see MacroBenchmark); "--compare BASELINE CURRENT
+    // [--threshold X] [--sigmas Y]" compares two of its result files.
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--macro")) {
+            MacroBenchmark.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--compare")) {
+            MacroBenchmark.compareFiles(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
         String[] datasets = {
                 "data/tasks.json",
                 "data/small_dag.json",
@@ -27,6 +44,15 @@ public class BenchmarkRunner {
                 "data/tasks (1).json"
         };
 
+        if (args.length > 0 && args[0].equals("--generate")) {
+            try {
+                datasets = generatedDatasets(args);
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("Error generating datasets: " + e.getMessage());
+                return;
+            }
+        }
+
         ResultWriter writer = new ResultWriter();
 
         System.out.println("=".repeat(70));
@@ -62,12 +88,29 @@ public class BenchmarkRunner {
         System.out.println("=".repeat(70));
     }
 
+    private static String[] generatedDatasets(String[] args) throws IOException {
+        long seed = GraphGenerator.DEFAULT_SEED;
+        List<String> specs = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--seed") && i + 1 < args.length) {
+                seed = Long.parseLong(args[++i]);
+            } else {
+                specs.add(args[i]);
+            }
+        }
+        String[] datasets = new String[specs.size()];
+        for (int i = 0; i < datasets.length; i++) {
+            datasets[i] = GraphGenerator.ensureGenerated(specs.get(i), seed).toString();
+        }
+        return datasets;
+    }
+
     private static ResultWriter.Result analyzeDataset(String filename) throws IOException {
-        String datasetName = new File(filename).getName().replace(".json", "");
+        String datasetName = new File(filename).getName().replace(".json", "").replace(BinaryGraphFormat.EXTENSION, "");
         ResultWriter.Result result = new ResultWriter.Result(datasetName);
 
         // Load graph
-        Graph graph = Graph.fromJson(filename);
+        Graph graph = Graph.load(filename);
         result.vertices = graph.getNumVertices();
         result.edges = graph.getEdges().size();
 
@@ -75,7 +118,7 @@ public class BenchmarkRunner {
 
         // SCC Analysis
         System.out.println("\n--- SCC Analysis ---");
-        TarjanSCC sccFinder = new TarjanSCC(graph);
+        SCCFinder sccFinder = SCCFinder.create(graph);
         List<List<Integer>> sccs = sccFinder.findSCCs();
 
         result.numSCCs = sccs.size();
@@ -108,13 +151,8 @@ public class BenchmarkRunner {
         if (topoOrder.size() > 0) {
             System.out.println("\n--- Shortest Paths ---");
             int source = graph.getSource() != null ? graph.getSource() : 0;
-            int sourceSCC = 0;
-            for (int i = 0; i < sccs.size(); i++) {
-                if (sccs.get(i).contains(source)) {
-                    sourceSCC = i;
-                    break;
-                }
-            }
+            int[] componentOf = sccFinder.getComponentMap();
+            int sourceSCC = source >= 0 && source < componentOf.length ? componentOf[source] : 0;
 
             DAGShortestPath dagsp = new DAGShortestPath(condensation);
             dagsp.shortestPaths(sourceSCC);
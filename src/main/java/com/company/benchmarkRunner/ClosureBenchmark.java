@@ -0,0 +1,101 @@
+package com.company.benchmarkRunner;
+
+import com.company.algorithms.SCCFinder;
+import com.company.algorithms.TransitiveClosure;
+import com.company.graphRepresentation.CsrGraph;
+import com.company.graphRepresentation.Graph;
+import com.company.graphRepresentation.SyntheticGraphGenerator;
+
+import java.util.concurrent.ForkJoinPool;
+
+// Descendant and ancestor counts for every component of the condensation:
+// TransitiveClosure on pools of 1..cores threads against one DFS per
+// component (timed on a sample and extrapolated). A budget below the closure
+// size shows the fallback.
+public class ClosureBenchmark {
+
+    public static void main(String[] args) {
+        long edges = args.length > 0 ? (long) Double.parseDouble(args[0]) : 400_000;
+        String typeName = args.length > 1 ? args[1] : "DAG";
+        int sample = args.length > 2 ? Integer.parseInt(args[2]) : 1_000;
+
+        SyntheticGraphGenerator.Type type = SyntheticGraphGenerator.Type.valueOf(typeName);
+        Graph graph = new SyntheticGraphGenerator(type,
+                SyntheticGraphGenerator.defaultVertices(type, edges), edges, 42).toGraph();
+        SCCFinder finder = SCCFinder.create(graph);
+        int[] componentOf = finder.getComponentMap();
+        Graph dag = finder.buildCondensationGraph();
+        int k = dag.getNumVertices();
+
+        System.out.println("=".repeat(70));
+        System.out.printf("Transitive closure: %d vertices, %d edges, %d components, %.1f MB per direction%n",
+                graph.getNumVertices(), graph.getNumEdges(), k, TransitiveClosure.requiredBytes(k) / 1e6);
+        System.out.println("=".repeat(70));
+
+        CsrGraph csr = dag.toCsr();
+        int[] mark = new int[k];
+        int[] stack = new int[k];
+        int step = Math.max(1, k / sample);
+        long checksum = 0;
+        int searched = 0;
+        long start = System.nanoTime();
+        for (int c = 0; c < k; c += step, searched++) {
+            checksum += dfsCount(csr, c, mark, stack, searched + 1);
+        }
+        double perComponent = (System.nanoTime() - start) / (double) searched;
+        System.out.printf("%-24s %10.1f ms  (extrapolated from %d searches)%n", "DFS per component",
+                perComponent * k / 1e6, searched);
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            start = System.nanoTime();
+            TransitiveClosure closure = new TransitiveClosure(componentOf, dag, Long.MAX_VALUE, pool);
+            int[] down = closure.getDescendantCounts();
+            long descendantsNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            int[] up = closure.getAncestorCounts();
+            long ancestorsNanos = System.nanoTime() - start;
+            pool.shutdown();
+
+            long check = 0;
+            for (int c = 0; c < k; c += step) {
+                check += down[c];
+            }
+            long total = 0;
+            for (int c = 0; c < k; c++) {
+                total += up[c] - down[c];
+            }
+            System.out.printf("%-24s %10.1f ms descendants, %8.1f ms ancestors, %.1f MB  (%d words ORed, %d skipped%s)%n",
+                    "closure, " + threads + " threads", descendantsNanos / 1e6, ancestorsNanos / 1e6,
+                    closure.getMemoryBytes() / 1e6, closure.getMetrics().getCounter("words_ored"),
+                    closure.getMetrics().getCounter("children_skipped"),
+                    check == checksum && total == 0 ? "" : ", MISMATCH");
+        }
+
+        long budget = TransitiveClosure.requiredBytes(k) / 2;
+        start = System.nanoTime();
+        TransitiveClosure limited = new TransitiveClosure(componentOf, dag, budget, ForkJoinPool.commonPool());
+        System.out.printf("%-24s %10.1f ms, materialized %s%n", "budget " + budget / 1_000_000 + " MB",
+                (System.nanoTime() - start) / 1e6, limited.isMaterialized());
+    }
+
+    private static int dfsCount(CsrGraph csr, int source, int[] mark, int[] stack, int stamp) {
+        int count = 0;
+        int top = 0;
+        mark[source] = stamp;
+        stack[top++] = source;
+        while (top > 0) {
+            int x = stack[--top];
+            for (int e = csr.getEdgeStart(x), end = csr.getEdgeEnd(x); e < end; e++) {
+                int y = csr.getTarget(e);
+                if (mark[y] != stamp) {
+                    mark[y] = stamp;
+                    stack[top++] = y;
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
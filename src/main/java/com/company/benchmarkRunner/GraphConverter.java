@@ -0,0 +1,58 @@
+package com.company.benchmarkRunner;
+
+import com.company.graphRepresentation.BinaryGraphFormat;
+import com.company.graphRepresentation.Graph;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// Converts data/*.json (or the given files/directories) to the binary format,
+// writing x.bin next to each x.json so Graph.load picks it up.
+public class GraphConverter {
+
+    public static void main(String[] args) {
+        String[] inputs = args.length > 0 ? args : new String[]{"data"};
+
+        List<File> files = new ArrayList<>();
+        for (String input : inputs) {
+            File file = new File(input);
+            if (file.isDirectory()) {
+                File[] children = file.listFiles((dir, name) -> name.endsWith(".json"));
+                if (children != null) {
+                    files.addAll(List.of(children));
+                }
+            } else {
+                files.add(file);
+            }
+        }
+
+        for (File file : files) {
+            Path binary = BinaryGraphFormat.siblingOf(file.toPath());
+            if (binary == null) {
+                System.out.println("Skipping " + file + " (not a .json file)");
+                continue;
+            }
+
+            try {
+                long start = System.nanoTime();
+                Graph graph = Graph.fromJson(file.getPath());
+                long parsed = System.nanoTime();
+                BinaryGraphFormat.write(graph, binary);
+                long written = System.nanoTime();
+                BinaryGraphFormat.read(binary);
+                long loaded = System.nanoTime();
+
+                System.out.printf("%s -> %s: %d vertices, %d edges, parse %.3f ms, write %.3f ms, load %.3f ms%n",
+                        file, binary.getFileName(), graph.getNumVertices(), graph.getNumEdges(),
+                        (parsed - start) / 1_000_000.0,
+                        (written - parsed) / 1_000_000.0,
+                        (loaded - written) / 1_000_000.0);
+            } catch (IOException e) {
+                System.err.println("Error converting " + file + ": " + e.getMessage());
+            }
+        }
+    }
+}
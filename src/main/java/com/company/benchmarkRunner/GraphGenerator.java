@@ -0,0 +1,106 @@
+package com.company.benchmarkRunner;
+
+import com.company.graphRepresentation.SyntheticGraphGenerator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+// Writes a synthetic graph to JSON or binary (by extension):
+//   GraphGenerator type:edges[:vertices] [--seed S] [--scc SPEC] [--layers L] [--out FILE]
+// type is dag, cyclic, dense or layered; edges may be written as 1e6.
+// Without --out the file goes to data/generated/<type>_<edges>[_<vertices>]_s<seed>.bin.
+public class GraphGenerator {
+    static final Path GENERATED_DIR = Paths.get("data", "generated");
+    static final long DEFAULT_SEED = 42;
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: GraphGenerator type:edges[:vertices] [--seed S] [--scc SPEC] [--layers L] [--out FILE]");
+            System.exit(1);
+        }
+
+        long seed = DEFAULT_SEED;
+        String scc = null;
+        Integer layers = null;
+        Path out = null;
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--seed":
+                    seed = Long.parseLong(args[i + 1]);
+                    break;
+                case "--scc":
+                    scc = args[i + 1];
+                    break;
+                case "--layers":
+                    layers = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--out":
+                    out = Paths.get(args[i + 1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        try {
+            SyntheticGraphGenerator generator = fromSpec(args[0], seed);
+            if (scc != null) {
+                generator.sccSizes(scc);
+            }
+            if (layers != null) {
+                generator.layers(layers);
+            }
+            if (out == null) {
+                out = defaultPath(args[0], seed);
+            }
+            write(generator, out);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error generating " + args[0] + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    // type:edges[:vertices], e.g. "cyclic:1e7" or "dense:1000000:2000".
+    static SyntheticGraphGenerator fromSpec(String spec, long seed) {
+        String[] parts = spec.split(":");
+        if (parts.length < 2 || parts.length > 3) {
+            throw new IllegalArgumentException("Expected type:edges[:vertices], got " + spec);
+        }
+        SyntheticGraphGenerator.Type type = SyntheticGraphGenerator.Type.valueOf(parts[0].toUpperCase(Locale.ROOT));
+        long edges = (long) Double.parseDouble(parts[1]);
+        int vertices = parts.length == 3
+                ? (int) Double.parseDouble(parts[2])
+                : SyntheticGraphGenerator.defaultVertices(type, edges);
+        return new SyntheticGraphGenerator(type, vertices, edges, seed);
+    }
+
+    static Path defaultPath(String spec, long seed) {
+        String name = spec.toLowerCase(Locale.ROOT).replace(':', '_') + "_s" + seed + ".bin";
+        return GENERATED_DIR.resolve(name);
+    }
+
+    // Generates the default file for spec unless it already exists; the output
+    // only depends on (spec, seed), so an existing file is the same graph.
+    static Path ensureGenerated(String spec, long seed) throws IOException {
+        Path path = defaultPath(spec, seed);
+        if (!Files.isRegularFile(path)) {
+            write(fromSpec(spec, seed), path);
+        }
+        return path;
+    }
+
+    private static void write(SyntheticGraphGenerator generator, Path out) throws IOException {
+        if (out.getParent() != null) {
+            Files.createDirectories(out.getParent());
+        }
+        long start = System.nanoTime();
+        generator.write(out);
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%s: %d vertices, %d edges, %d SCCs, %.1f MB in %.3f s%n",
+                out, generator.getNumVertices(), generator.getNumEdges(), generator.getNumComponents(),
+                Files.size(out) / 1e6, elapsed / 1e9);
+    }
+}
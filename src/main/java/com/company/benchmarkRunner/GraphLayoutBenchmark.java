@@ -0,0 +1,122 @@
+package com.company.benchmarkRunner;
+
+import com.company.graphRepresentation.CsrGraph;
+import com.company.graphRepresentation.Graph;
+
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Compares the old object-per-edge layout (List<Edge> + List<List<Edge>>)
+// against the CSR arrays behind Graph: retained heap per edge and the cost
+// of a full neighbor sweep.
+public class GraphLayoutBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int m = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+        System.out.println("=".repeat(70));
+        System.out.println("Graph layout benchmark: " + n + " vertices, " + m + " edges");
+        System.out.println("=".repeat(70));
+
+        Random random = new Random(42);
+        int[] us = new int[m];
+        int[] vs = new int[m];
+        int[] ws = new int[m];
+        for (int i = 0; i < m; i++) {
+            us[i] = random.nextInt(n);
+            vs[i] = random.nextInt(n);
+            ws[i] = 1 + random.nextInt(100);
+        }
+
+        long before = usedMemory();
+        List<List<Graph.Edge>> legacy = buildLegacy(n, m, us, vs, ws);
+        long legacyBytes = usedMemory() - before;
+
+        before = usedMemory();
+        Graph graph = new Graph(n, m);
+        for (int i = 0; i < m; i++) {
+            graph.addEdge(us[i], vs[i], ws[i]);
+        }
+        CsrGraph csr = graph.toCsr();
+        long graphBytes = usedMemory() - before;
+        // The input arrays must not be collected between the two samples.
+        Reference.reachabilityFence(us);
+        Reference.reachabilityFence(vs);
+        Reference.reachabilityFence(ws);
+        Reference.reachabilityFence(graph);
+
+        System.out.printf("Legacy layout: %.1f bytes/edge%n", legacyBytes / (double) m);
+        System.out.printf("Graph (edge arrays + CSR): %.1f bytes/edge%n", graphBytes / (double) m);
+        System.out.printf("CSR arrays only: %.1f bytes/edge%n", csr.getMemoryBytes() / (double) m);
+
+        long legacyTime = Long.MAX_VALUE;
+        long csrTime = Long.MAX_VALUE;
+        long checksum = 0;
+        for (int r = 0; r < rounds; r++) {
+            long start = System.nanoTime();
+            checksum += sweepLegacy(legacy);
+            legacyTime = Math.min(legacyTime, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            checksum -= sweepCsr(csr);
+            csrTime = Math.min(csrTime, System.nanoTime() - start);
+        }
+
+        System.out.printf("Legacy sweep: %.3f ms%n", legacyTime / 1_000_000.0);
+        System.out.printf("CSR sweep: %.3f ms%n", csrTime / 1_000_000.0);
+        System.out.printf("Speedup: %.2fx%n", legacyTime / (double) csrTime);
+        if (checksum != 0) {
+            System.err.println("Checksum mismatch: " + checksum);
+        }
+    }
+
+    private static List<List<Graph.Edge>> buildLegacy(int n, int m, int[] us, int[] vs, int[] ws) {
+        List<Graph.Edge> edges = new ArrayList<>();
+        List<List<Graph.Edge>> adjList = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            adjList.add(new ArrayList<>());
+        }
+        for (int i = 0; i < m; i++) {
+            Graph.Edge edge = new Graph.Edge(us[i], vs[i], ws[i]);
+            edges.add(edge);
+            adjList.get(us[i]).add(edge);
+        }
+        // Keep the flat edge list reachable, as the old Graph did.
+        adjList.add(edges);
+        return adjList;
+    }
+
+    private static long sweepLegacy(List<List<Graph.Edge>> adjList) {
+        long sum = 0;
+        for (int u = 0; u < adjList.size() - 1; u++) {
+            for (Graph.Edge edge : adjList.get(u)) {
+                sum += edge.v + edge.w;
+            }
+        }
+        return sum;
+    }
+
+    private static long sweepCsr(CsrGraph csr) {
+        int[] targets = csr.getTargets();
+        int[] weights = csr.getWeights();
+        long sum = 0;
+        for (int u = 0; u < csr.getNumVertices(); u++) {
+            for (int e = csr.getEdgeStart(u), end = csr.getEdgeEnd(u); e < end; e++) {
+                sum += targets[e] + weights[e];
+            }
+        }
+        return sum;
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
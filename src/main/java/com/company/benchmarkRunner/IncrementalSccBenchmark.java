@@ -0,0 +1,88 @@
+package com.company.benchmarkRunner;
+
+import com.company.algorithms.IncrementalSCC;
+import com.company.algorithms.TarjanSCC;
+import com.company.graphRepresentation.Graph;
+import com.company.graphRepresentation.SyntheticGraphGenerator;
+
+import java.util.Random;
+
+// Amortized cost per inserted edge of keeping SCCs and the condensation
+// current: IncrementalSCC against rerunning Tarjan and buildCondensationGraph
+// after every batch. Most new edges follow the topological order of the starting
+// condensation; one in backEdgeEvery points the other way and may close a
+// cycle.
+public class IncrementalSccBenchmark {
+
+    public static void main(String[] args) {
+        long edges = args.length > 0 ? (long) Double.parseDouble(args[0]) : 1_000_000;
+        int inserts = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        int backEdgeEvery = args.length > 2 ? Integer.parseInt(args[2]) : 1_000;
+
+        SyntheticGraphGenerator.Type type = SyntheticGraphGenerator.Type.CYCLIC;
+        SyntheticGraphGenerator generator = new SyntheticGraphGenerator(type,
+                SyntheticGraphGenerator.defaultVertices(type, edges), edges, 42);
+        Graph graph = generator.toGraph();
+        int n = graph.getNumVertices();
+
+        TarjanSCC initial = new TarjanSCC(graph);
+        int k = initial.findSCCs().size();
+        int[] componentOf = initial.getComponentMap();
+        int[] rank = new int[n];
+        for (int v = 0; v < n; v++) {
+            rank[v] = k - 1 - componentOf[v];
+        }
+        Random random = new Random(7);
+        int[] us = new int[inserts];
+        int[] vs = new int[inserts];
+        for (int i = 0; i < inserts; i++) {
+            int a = random.nextInt(n);
+            int b = random.nextInt(n);
+            boolean forward = rank[a] <= rank[b];
+            if (forward == (i % backEdgeEvery != 0)) {
+                us[i] = a;
+                vs[i] = b;
+            } else {
+                us[i] = b;
+                vs[i] = a;
+            }
+        }
+
+        System.out.println("=".repeat(70));
+        System.out.println("Incremental SCC: " + n + " vertices, " + graph.getNumEdges() + " edges, "
+                + k + " components, " + inserts + " insertions");
+        System.out.println("=".repeat(70));
+
+        long start = System.nanoTime();
+        IncrementalSCC scc = new IncrementalSCC(graph);
+        System.out.printf("initial Tarjan + condensation: %.2f ms%n", (System.nanoTime() - start) / 1e6);
+
+        start = System.nanoTime();
+        for (int i = 0; i < inserts; i++) {
+            scc.addEdge(us[i], vs[i], 1);
+        }
+        long incremental = System.nanoTime() - start;
+        double perInsert = incremental / 1e3 / inserts;
+        System.out.printf("%-28s %10.2f us/insert  (%d merges, %d components left, %d visited)%n", "incremental",
+                perInsert, scc.getMetrics().getCounter("merges"), scc.getNumComponents(),
+                scc.getMetrics().getCounter("components_visited"));
+
+        for (int batch : new int[]{1, 100, 10_000}) {
+            Graph copy = generator.toGraph();
+            int batches = Math.min(10, inserts / batch);
+            long recompute = 0;
+            int done = 0;
+            for (int b = 0; b < batches; b++) {
+                for (int i = 0; i < batch; i++, done++) {
+                    copy.addEdge(us[done], vs[done], 1);
+                }
+                start = System.nanoTime();
+                new TarjanSCC(copy).buildCondensationGraph();
+                recompute += System.nanoTime() - start;
+            }
+            double perBatchInsert = recompute / 1e3 / ((long) batches * batch);
+            System.out.printf("%-28s %10.2f us/insert  (%.1fx incremental)%n", "Tarjan every " + batch,
+                    perBatchInsert, perBatchInsert / perInsert);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.company.benchmarkRunner;
+
+import com.company.algorithms.IncrementalTopologicalOrder;
+import com.company.algorithms.TopologicalSort;
+import com.company.graphRepresentation.Graph;
+import com.company.graphRepresentation.SyntheticGraphGenerator;
+
+import java.util.Random;
+
+// Amortized cost per inserted edge on a growing DAG: IncrementalTopologicalOrder
+// against rerunning sortKahn after every batch of insertions. New edges follow
+// the DFS order of the starting graph, so all of them are accepted, while the
+// maintained order starts from the level order and has to be repaired for
+// those that disagree with it.
+public class IncrementalTopoBenchmark {
+
+    public static void main(String[] args) {
+        long edges = args.length > 0 ? (long) Double.parseDouble(args[0]) : 1_000_000;
+        int inserts = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+
+        SyntheticGraphGenerator.Type type = SyntheticGraphGenerator.Type.DAG;
+        SyntheticGraphGenerator generator = new SyntheticGraphGenerator(type,
+                SyntheticGraphGenerator.defaultVertices(type, edges), edges, 42);
+        Graph graph = generator.toGraph();
+        int n = graph.getNumVertices();
+
+        int[] hidden = new TopologicalSort(graph).orderDFS();
+        Random random = new Random(7);
+        int[] us = new int[inserts];
+        int[] vs = new int[inserts];
+        for (int i = 0; i < inserts; i++) {
+            int a = random.nextInt(n);
+            int b = random.nextInt(n - 1);
+            b += b >= a ? 1 : 0;
+            us[i] = hidden[Math.min(a, b)];
+            vs[i] = hidden[Math.max(a, b)];
+        }
+
+        System.out.println("=".repeat(70));
+        System.out.println("Incremental topological order: " + n + " vertices, " + graph.getNumEdges()
+                + " edges, " + inserts + " insertions");
+        System.out.println("=".repeat(70));
+
+        long start = System.nanoTime();
+        IncrementalTopologicalOrder topo = new IncrementalTopologicalOrder(graph);
+        System.out.printf("initial order: %.2f ms%n", (System.nanoTime() - start) / 1e6);
+
+        start = System.nanoTime();
+        for (int i = 0; i < inserts; i++) {
+            topo.addEdge(us[i], vs[i], 1);
+        }
+        long incremental = System.nanoTime() - start;
+        System.out.printf("%-28s %10.2f us/insert  (%d reorders, %d vertices visited)%n", "incremental",
+                incremental / 1e3 / inserts, topo.getMetrics().getCounter("reorders"),
+                topo.getMetrics().getCounter("vertices_visited"));
+
+        // Recomputation measured on a copy of the starting graph, over at most
+        // 20 batches per batch size; the per-insert figure is the sort time
+        // divided by the batch size.
+        for (int batch : new int[]{1, 100, 10_000}) {
+            Graph copy = generator.toGraph();
+            int batches = Math.min(20, inserts / batch);
+            long sorting = 0;
+            int k = 0;
+            for (int b = 0; b < batches; b++) {
+                for (int i = 0; i < batch; i++, k++) {
+                    copy.addEdge(us[k], vs[k], 1);
+                }
+                start = System.nanoTime();
+                new TopologicalSort(copy).sortKahn();
+                sorting += System.nanoTime() - start;
+            }
+            double perInsert = sorting / 1e3 / ((long) batches * batch);
+            System.out.printf("%-28s %10.2f us/insert  (%.1fx incremental)%n", "sortKahn every " + batch,
+                    perInsert, perInsert / (incremental / 1e3 / inserts));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.company.benchmarkRunner;
+
+import com.company.algorithms.DAGShortestPath;
+import com.company.algorithms.KBestPaths;
+import com.company.algorithms.PreparedDAG;
+import com.company.algorithms.SCCFinder;
+import com.company.graphRepresentation.Graph;
+import com.company.graphRepresentation.SyntheticGraphGenerator;
+
+import java.io.IOException;
+import java.util.List;
+
+// Cost of the K longest source-to-sink paths and the K shortest paths between
+// two components of a condensation as K grows, next to one longestPath() run.
+// The graph is a dataset file or a synthetic graph of the given edge count.
+//
+//   KBestPathsBenchmark [file | edges] [type] [maxK]
+public class KBestPathsBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        String input = args.length > 0 ? args[0] : "1e6";
+        String typeName = args.length > 1 ? args[1] : "CYCLIC";
+        int maxK = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+
+        Graph graph;
+        if (input.endsWith(".json") || input.endsWith(".bin")) {
+            graph = Graph.load(input);
+        } else {
+            long edges = (long) Double.parseDouble(input);
+            SyntheticGraphGenerator.Type type = SyntheticGraphGenerator.Type.valueOf(typeName);
+            graph = new SyntheticGraphGenerator(type, SyntheticGraphGenerator.defaultVertices(type, edges), edges, 42)
+                    .toGraph();
+        }
+        Graph dag = SCCFinder.create(graph).buildCondensationGraph();
+        PreparedDAG prepared = new PreparedDAG(dag);
+        int[] order = prepared.getTopologicalOrder();
+        KBestPaths paths = new KBestPaths(prepared);
+
+        System.out.println("=".repeat(70));
+        System.out.println("K best paths: " + graph.getNumVertices() + " vertices, " + graph.getNumEdges()
+                + " edges, condensation " + dag.getNumVertices() + " / " + dag.getNumEdges());
+        System.out.println("=".repeat(70));
+
+        for (int warmup = 0; warmup < 3; warmup++) {
+            prepared.longestPath();
+            paths.longestPaths(10);
+        }
+        long start = System.nanoTime();
+        DAGShortestPath.PathResult critical = prepared.longestPath();
+        System.out.printf("%-22s %10.2f ms  (length %d)%n", "longestPath()", (System.nanoTime() - start) / 1e6,
+                critical.getLength());
+
+        // A pair far apart in the order, connected by the critical path.
+        int source = critical.getPath().get(0);
+        int target = critical.getPath().get(critical.getPath().size() - 1);
+        for (int k = 1; k <= maxK; k *= 10) {
+            start = System.nanoTime();
+            List<DAGShortestPath.PathResult> longest = paths.longestPaths(k);
+            long longestNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            List<DAGShortestPath.PathResult> shortest = paths.shortestPaths(source, target, k);
+            long shortestNanos = System.nanoTime() - start;
+            System.out.printf("K=%-8d longest %9.2f ms (%d paths, %d .. %d)   shortest %s->%s %9.2f ms (%d paths)%n",
+                    k, longestNanos / 1e6, longest.size(), longest.get(0).getLength(),
+                    longest.get(longest.size() - 1).getLength(), source, target, shortestNanos / 1e6,
+                    shortest.size());
+        }
+        System.out.println("(topological positions " + prepared.getPosition(source) + " -> "
+                + prepared.getPosition(target) + " of " + order.length + ")");
+    }
+}
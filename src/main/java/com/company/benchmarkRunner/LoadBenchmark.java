@@ -0,0 +1,70 @@
+package com.company.benchmarkRunner;
+
+import com.company.graphRepresentation.Graph;
+
+import java.io.File;
+import java.io.IOException;
+
+// Load throughput of Graph.fromJson in edges per second as the number of
+// parsing threads grows (1, 2, 4, ... up to the available cores).
+public class LoadBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        String filename = args.length > 0 ? args[0] : largestDataset();
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+
+        System.out.println("=".repeat(70));
+        System.out.println("Load benchmark: " + filename + " (" + new File(filename).length() / 1_000_000.0 + " MB)");
+        System.out.println("=".repeat(70));
+
+        long start = System.nanoTime();
+        Graph sequential = Graph.fromJson(filename);
+        report("streaming", sequential.getNumEdges(), System.nanoTime() - start, 0);
+
+        long baseline = 0;
+        for (int threads = 1; threads <= maxThreads; threads = nextThreadCount(threads, maxThreads)) {
+            long best = Long.MAX_VALUE;
+            int edges = 0;
+            for (int r = 0; r < rounds; r++) {
+                start = System.nanoTime();
+                Graph graph = Graph.fromJson(filename, threads);
+                best = Math.min(best, System.nanoTime() - start);
+                edges = graph.getNumEdges();
+            }
+            if (threads == 1) {
+                baseline = best;
+            }
+            report(threads + " thread(s)", edges, best, baseline);
+        }
+    }
+
+    private static void report(String label, int edges, long nanos, long baseline) {
+        double seconds = nanos / 1_000_000_000.0;
+        String speedup = baseline > 0 ? String.format(", %.2fx", baseline / (double) nanos) : "";
+        System.out.printf("%-14s %10.3f ms %14.0f edges/s%s%n", label, nanos / 1_000_000.0, edges / seconds, speedup);
+    }
+
+    private static int nextThreadCount(int threads, int maxThreads) {
+        if (threads == maxThreads) {
+            return maxThreads + 1;
+        }
+        return Math.min(threads * 2, maxThreads);
+    }
+
+    private static String largestDataset() {
+        File[] files = new File("data").listFiles((dir, name) -> name.endsWith(".json"));
+        File largest = null;
+        if (files != null) {
+            for (File file : files) {
+                if (largest == null || file.length() > largest.length()) {
+                    largest = file;
+                }
+            }
+        }
+        if (largest == null) {
+            throw new IllegalStateException("No JSON datasets found in data/");
+        }
+        return largest.getPath();
+    }
+}
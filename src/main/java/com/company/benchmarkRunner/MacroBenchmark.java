@@ -0,0 +1,403 @@
+package com.company.benchmarkRunner;
+
+import com.company.algorithms.PreparedDAG;
+import com.company.algorithms.SCCFinder;
+import com.company.graphRepresentation.BinaryGraphFormat;
+import com.company.graphRepresentation.Graph;
+import com.company.metrics.SampleStats;
+import com.company.metrics.resultWriter.ResultComparator;
+import com.company.metrics.resultWriter.ResultWriter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+// Repeated runs of the BenchmarkRunner pipeline with per-phase statistics:
+//   BenchmarkRunner --macro [--warmup N] [--iterations N] [--reuse] [--threads T]
+//                           [--out FILE ...] [--baseline FILE [--threshold X] [--sigmas Y]]
+//                           [glob ...]
+// Every dataset matched by the globs (default data/*.json; a .bin next to a
+// matched .json is left to Graph.load) gets N warmup and then N measured
+// iterations of load, SCC, condensation, topological order, shortest paths
+// and longest path, each timed on its own with System.nanoTime(). By default
+// each iteration loads a fresh graph; with --reuse the graph is loaded once
+// (a single load sample) and every iteration runs on that instance and its
+// cached CSR. The algorithm objects are always new, so no cached order or
+// decomposition carries over. With --threads T > 1 up to T datasets run at
+// once on separate threads; their timings then include the contention.
+//
+// Next to the time, each phase records the bytes allocated by the thread that
+// runs it (com.sun.management.ThreadMXBean; 0 where the JVM cannot tell).
+// Allocations of other threads, such as parallel JSON parsing or a
+// multi-threaded SCC finder, are not included. Rows are streamed to every
+// --out file as each dataset finishes (.jsonl for JSON Lines, otherwise CSV).
+// With --baseline the run is compared against a stored file by
+// ResultComparator and the process exits with 1 on a regression (a baseline
+// row the run did not produce counts as one); any error exits with 2.
+public class MacroBenchmark {
+
+    enum Phase {
+        LOAD,
+        SCC,
+        CONDENSATION,
+        TOPO,
+        SHORTEST,
+        LONGEST
+    }
+
+    private int warmup = 3;
+    private int iterations = 10;
+    private boolean reuse;
+    private int threads = 1;
+    private final List<String> outs = new ArrayList<>();
+    private String baseline;
+    private double threshold = ResultComparator.DEFAULT_THRESHOLD;
+    private double sigmas = ResultComparator.DEFAULT_SIGMAS;
+    private final List<String> globs = new ArrayList<>();
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    // Exits with 1 on a regression against --baseline and with 2 on any error,
+    // including a dataset that failed to run.
+    public static void main(String[] args) {
+        MacroBenchmark benchmark = new MacroBenchmark();
+        int status;
+        try {
+            benchmark.parse(args);
+            status = benchmark.run();
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Macro benchmark failed: " + e.getMessage());
+            status = 2;
+        }
+        if (status != 0) {
+            System.exit(status);
+        }
+    }
+
+    // BASELINE CURRENT [--threshold X] [--sigmas Y]: compares two stored runs
+    // and exits with 1 on a regression, 2 when a file cannot be read.
+    public static void compareFiles(String[] args) {
+        List<String> files = new ArrayList<>();
+        double threshold = ResultComparator.DEFAULT_THRESHOLD;
+        double sigmas = ResultComparator.DEFAULT_SIGMAS;
+        boolean regression;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--threshold" -> threshold = Double.parseDouble(value(args, ++i));
+                    case "--sigmas" -> sigmas = Double.parseDouble(value(args, ++i));
+                    default -> files.add(args[i]);
+                }
+            }
+            if (files.size() != 2) {
+                throw new IllegalArgumentException("Usage: --compare BASELINE CURRENT [--threshold X] [--sigmas Y]");
+            }
+            ResultComparator comparator = new ResultComparator(threshold, sigmas);
+            regression = comparator.compare(ResultWriter.readPhaseResults(files.get(0)),
+                    ResultWriter.readPhaseResults(files.get(1)));
+            comparator.printReport();
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Comparison failed: " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+        if (regression) {
+            System.exit(1);
+        }
+    }
+
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--warmup" -> warmup = Integer.parseInt(value(args, ++i));
+                case "--iterations" -> iterations = Integer.parseInt(value(args, ++i));
+                case "--reuse" -> reuse = true;
+                case "--fresh" -> reuse = false;
+                case "--threads" -> threads = Integer.parseInt(value(args, ++i));
+                case "--out" -> outs.add(value(args, ++i));
+                case "--baseline" -> baseline = value(args, ++i);
+                case "--threshold" -> threshold = Double.parseDouble(value(args, ++i));
+                case "--sigmas" -> sigmas = Double.parseDouble(value(args, ++i));
+                default -> {
+                    if (args[i].startsWith("--")) {
+                        throw new IllegalArgumentException("Unknown option " + args[i]);
+                    }
+                    globs.add(args[i]);
+                }
+            }
+        }
+        if (warmup < 0 || iterations < 1 || threads < 1) {
+            throw new IllegalArgumentException("Need --warmup >= 0, --iterations >= 1 and --threads >= 1");
+        }
+        if (globs.isEmpty()) {
+            globs.add("data/*.json");
+        }
+        if (outs.isEmpty()) {
+            outs.add("macro_results.csv");
+        }
+    }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException(args[i - 1] + " needs a value");
+        }
+        return args[i];
+    }
+
+    // Returns the exit status: 2 when a dataset failed, else 1 when a baseline
+    // was given and the run regressed against it, else 0.
+    private int run() throws IOException {
+        // Read up front so that a bad baseline fails before the measurements.
+        List<ResultWriter.PhaseResult> before = baseline != null ? ResultWriter.readPhaseResults(baseline) : null;
+        List<Path> datasets = expand(globs);
+        System.out.println("=".repeat(70));
+        System.out.printf("Macro benchmark: %d datasets, %d warmup + %d measured iterations, %s graphs, %d threads%n",
+                datasets.size(), warmup, iterations, reuse ? "reused" : "fresh", threads);
+        System.out.println("=".repeat(70));
+
+        List<ResultWriter.PhaseResult> results = new ArrayList<>();
+        int failed = 0;
+        List<ResultWriter.PhaseStream> streams = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (String out : outs) {
+                streams.add(new ResultWriter.PhaseStream(out));
+            }
+            List<Future<List<ResultWriter.PhaseResult>>> futures = new ArrayList<>();
+            for (Path dataset : datasets) {
+                futures.add(executor.submit(() -> {
+                    List<ResultWriter.PhaseResult> measured = measure(dataset);
+                    for (ResultWriter.PhaseStream stream : streams) {
+                        for (ResultWriter.PhaseResult result : measured) {
+                            stream.write(result);
+                        }
+                    }
+                    return measured;
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.addAll(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    System.err.println("Error processing " + datasets.get(i) + ": " + e.getCause().getMessage());
+                    failed++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failed++;
+        } finally {
+            executor.shutdown();
+            for (ResultWriter.PhaseStream stream : streams) {
+                stream.close();
+            }
+        }
+
+        if (failed > 0) {
+            System.err.println(failed + " of " + datasets.size() + " datasets failed");
+        }
+        if (before == null) {
+            return failed > 0 ? 2 : 0;
+        }
+        System.out.println();
+        System.out.println("=".repeat(70));
+        System.out.printf("Comparison with %s (threshold %.1f%%, %.1f sigmas)%n", baseline, 100 * threshold, sigmas);
+        System.out.println("=".repeat(70));
+        ResultComparator comparator = new ResultComparator(threshold, sigmas);
+        boolean regression = comparator.compare(before, results);
+        comparator.printReport();
+        return failed > 0 ? 2 : regression ? 1 : 0;
+    }
+
+    // Files matching any of the globs, sorted, each dataset once: x.bin is
+    // dropped when x.json matched too.
+    public static List<Path> expand(List<String> globs) throws IOException {
+        List<Path> matched = new ArrayList<>();
+        for (String glob : globs) {
+            Path base = baseDirectory(glob);
+            if (Files.isRegularFile(Paths.get(glob))) {
+                matched.add(Paths.get(glob));
+                continue;
+            }
+            if (!Files.isDirectory(base)) {
+                continue;
+            }
+            PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+            try (Stream<Path> files = Files.walk(base)) {
+                files.filter(Files::isRegularFile)
+                        .filter(file -> matcher.matches(file) || matcher.matches(file.normalize()))
+                        .forEach(matched::add);
+            }
+        }
+        Map<String, Path> byName = new LinkedHashMap<>();
+        matched.stream().sorted().forEach(file -> {
+            String key = file.toString().replaceFirst("(\\.json|\\" + BinaryGraphFormat.EXTENSION + ")$", "");
+            Path seen = byName.get(key);
+            if (seen == null || seen.toString().endsWith(BinaryGraphFormat.EXTENSION)) {
+                byName.put(key, file);
+            }
+        });
+        return new ArrayList<>(byName.values());
+    }
+
+    // Directory part of the glob before its first wildcard.
+    private static Path baseDirectory(String glob) {
+        int wildcard = glob.length();
+        for (char c : new char[]{'*', '?', '[', '{'}) {
+            int at = glob.indexOf(c);
+            if (at >= 0) {
+                wildcard = Math.min(wildcard, at);
+            }
+        }
+        int slash = glob.lastIndexOf('/', wildcard);
+        return slash < 0 ? Paths.get(".") : Paths.get(slash == 0 ? "/" : glob.substring(0, slash));
+    }
+
+    private List<ResultWriter.PhaseResult> measure(Path dataset) throws IOException {
+        String name = dataset.getFileName().toString().replace(".json", "").replace(BinaryGraphFormat.EXTENSION, "");
+        Phase[] phases = Phase.values();
+        long[][] samples = new long[phases.length][iterations];
+        long[][] allocated = new long[phases.length][iterations];
+        Map<Phase, Map<String, Long>> counters = new LinkedHashMap<>();
+        Graph shared = null;
+        if (reuse) {
+            PhaseTimer timer = new PhaseTimer();
+            timer.start();
+            shared = Graph.load(dataset.toString());
+            shared.toCsr();
+            timer.stop(Phase.LOAD);
+            samples[Phase.LOAD.ordinal()] = new long[]{timer.nanos[Phase.LOAD.ordinal()]};
+            allocated[Phase.LOAD.ordinal()] = new long[]{timer.bytes[Phase.LOAD.ordinal()]};
+        }
+
+        for (int i = 0; i < warmup + iterations; i++) {
+            PhaseTimer timer = new PhaseTimer();
+            Graph graph = runPipeline(dataset, shared, timer, counters);
+            if (i >= warmup) {
+                for (Phase phase : phases) {
+                    if (phase != Phase.LOAD || !reuse) {
+                        samples[phase.ordinal()][i - warmup] = timer.nanos[phase.ordinal()];
+                        allocated[phase.ordinal()][i - warmup] = timer.bytes[phase.ordinal()];
+                    }
+                }
+            }
+            if (shared == null && i == warmup + iterations - 1) {
+                shared = graph;
+            }
+        }
+
+        List<ResultWriter.PhaseResult> results = new ArrayList<>();
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%n%s: %d vertices, %d edges%n", name, shared.getNumVertices(),
+                shared.getNumEdges()));
+        report.append(String.format("  %-13s %10s %10s %10s %10s %10s  (ms) %12s%n",
+                "phase", "median", "p90", "p99", "min", "stddev", "alloc KB"));
+        for (Phase phase : phases) {
+            ResultWriter.PhaseResult result = new ResultWriter.PhaseResult(name, phase.name().toLowerCase());
+            result.vertices = shared.getNumVertices();
+            result.edges = shared.getNumEdges();
+            result.setTimes(new SampleStats(samples[phase.ordinal()]));
+            result.setAllocations(new SampleStats(allocated[phase.ordinal()]));
+            result.counters.putAll(counters.getOrDefault(phase, Map.of()));
+            results.add(result);
+            report.append(String.format("  %-13s %10.3f %10.3f %10.3f %10.3f %10.3f       %12.1f%n", result.phase,
+                    result.medianNanos / 1e6, result.p90Nanos / 1e6, result.p99Nanos / 1e6, result.minNanos / 1e6,
+                    result.stddevNanos / 1e6, result.meanAllocatedBytes / 1024));
+        }
+        System.out.print(report);
+        return results;
+    }
+
+    // Time and bytes allocated by the current thread, per phase.
+    private static final class PhaseTimer {
+        final long[] nanos = new long[Phase.values().length];
+        final long[] bytes = new long[Phase.values().length];
+        private long startNanos;
+        private long startBytes;
+
+        void start() {
+            startBytes = allocatedBytes();
+            startNanos = System.nanoTime();
+        }
+
+        void stop(Phase phase) {
+            nanos[phase.ordinal()] = System.nanoTime() - startNanos;
+            bytes[phase.ordinal()] = allocatedBytes() - startBytes;
+        }
+    }
+
+    private static long allocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean threads && threads.isThreadAllocatedMemorySupported()
+                && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return 0;
+    }
+
+    // One pass of the pipeline; timer gets each phase's time and allocations
+    // and counters the algorithms' counters. Returns the graph it ran on.
+    private static Graph runPipeline(Path dataset, Graph shared, PhaseTimer timer,
+                                     Map<Phase, Map<String, Long>> counters) throws IOException {
+        timer.start();
+        Graph graph = shared;
+        if (graph == null) {
+            graph = Graph.load(dataset.toString());
+            graph.toCsr();
+        }
+        timer.stop(Phase.LOAD);
+
+        timer.start();
+        SCCFinder finder = SCCFinder.create(graph);
+        finder.findSCCs();
+        timer.stop(Phase.SCC);
+        counters.put(Phase.SCC, finder.getMetrics().getCounters());
+
+        timer.start();
+        Graph condensation = finder.buildCondensationGraph();
+        condensation.toCsr();
+        timer.stop(Phase.CONDENSATION);
+
+        timer.start();
+        PreparedDAG prepared = new PreparedDAG(condensation);
+        prepared.getTopologicalOrder();
+        timer.stop(Phase.TOPO);
+
+        int source = graph.getSource() != null ? graph.getSource() : 0;
+        int sourceComponent = source >= 0 && source < graph.getNumVertices() ? finder.getComponentMap()[source] : 0;
+        long relaxations = prepared.getMetrics().getCounter("relaxations");
+        timer.start();
+        switch (condensation.getWeightType()) {
+            case LONG -> prepared.shortestPathsLong(sourceComponent);
+            case DOUBLE -> prepared.shortestPathsDouble(sourceComponent);
+            default -> prepared.shortestPaths(sourceComponent);
+        }
+        timer.stop(Phase.SHORTEST);
+        long afterShortest = prepared.getMetrics().getCounter("relaxations");
+        counters.put(Phase.SHORTEST, Map.of("relaxations", afterShortest - relaxations));
+
+        timer.start();
+        switch (condensation.getWeightType()) {
+            case LONG -> prepared.longestPathLong();
+            case DOUBLE -> prepared.longestPathDouble();
+            default -> prepared.longestPath();
+        }
+        timer.stop(Phase.LONGEST);
+        counters.put(Phase.LONGEST, Map.of("relaxations",
+                prepared.getMetrics().getCounter("relaxations") - afterShortest));
+        return graph;
+    }
+}
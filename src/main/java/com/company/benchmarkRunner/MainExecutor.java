@@ -1,16 +1,31 @@
 package com.company.benchmarkRunner;
 
 import com.company.algorithms.DAGShortestPath;
-import com.company.algorithms.TarjanSCC;
+import com.company.algorithms.DAGTaskExecutor;
+import com.company.algorithms.SCCFinder;
+import com.company.algorithms.ScheduleAnalysis;
 import com.company.algorithms.TopologicalSort;
 import com.company.graphRepresentation.Graph;
+import com.company.graphRepresentation.WeightType;
+import com.company.metrics.resultWriter.ResultWriter;
+import com.company.service.GraphQueryServer;
+import com.company.service.GraphSnapshot;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 public class MainExecutor {
+    // Per-task schedule lines are printed up to this many vertices; use the CSV beyond.
+    private static final int MAX_SCHEDULE_LINES = 100;
 
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--serve")) {
+            serve(args);
+            return;
+        }
+
         String filename;
 
         if (args.length < 1) {
@@ -22,12 +37,12 @@ public class MainExecutor {
         }
 
         try {
-            Graph graph = Graph.fromJson(filename);
+            Graph graph = Graph.load(filename);
             System.out.println("Graph loaded: " + graph.getNumVertices() + " vertices, " + graph.getEdges().size() + " edges\n");
 
             // Find SCCs
             System.out.println("=== Strongly Connected Components ===");
-            TarjanSCC sccFinder = new TarjanSCC(graph);
+            SCCFinder sccFinder = SCCFinder.create(graph);
             List<List<Integer>> sccs = sccFinder.findSCCs();
             System.out.println("Found " + sccs.size() + " SCCs:");
             for (int i = 0; i < sccs.size(); i++) {
@@ -47,31 +62,51 @@ public class MainExecutor {
             System.out.println("Order: " + topoOrder);
             topoSort.getMetrics().printMetrics();
 
+            // Each component runs once its predecessors are done, so the
+            // lines come out in completion order, not in topoOrder.
             System.out.println("\nTask execution order:");
-            for (int sccIndex : topoOrder) {
-                System.out.println("  " + sccs.get(sccIndex));
-            }
+            DAGTaskExecutor taskExecutor = new DAGTaskExecutor(sccFinder);
+            DAGTaskExecutor.Report execution = taskExecutor.execute(
+                    (component, members) -> System.out.println("  " + sccs.get(component)),
+                    ForkJoinPool.commonPool());
+            System.out.println("Execution: " + execution);
 
             // Shortest Paths
             System.out.println("\n=== Shortest Paths ===");
             int source = graph.getSource() != null ? graph.getSource() : 0;
-            int sourceSCC = -1;
-            for (int i = 0; i < sccs.size(); i++) {
-                if (sccs.get(i).contains(source)) {
-                    sourceSCC = i;
-                    break;
-                }
-            }
+            int[] componentOf = sccFinder.getComponentMap();
+            int sourceSCC = source >= 0 && source < componentOf.length ? componentOf[source] : -1;
 
+            // The kernels are picked once from the weights the loader found.
+            WeightType weightType = condensation.getWeightType();
             if (sourceSCC != -1) {
                 DAGShortestPath dagsp = new DAGShortestPath(condensation);
-                int[] distances = dagsp.shortestPaths(sourceSCC);
-                System.out.println("Shortest paths from source " + source + " (SCC " + sourceSCC + "):");
-                for (int i = 0; i < distances.length; i++) {
-                    if (distances[i] == Integer.MAX_VALUE) {
-                        System.out.println("  To SCC " + i + ": unreachable");
-                    } else {
-                        System.out.println("  To SCC " + i + ": " + distances[i]);
+                System.out.println("Shortest paths from source " + source + " (SCC " + sourceSCC + ", "
+                        + weightType + " weights):");
+                switch (weightType) {
+                    case LONG -> {
+                        long[] distances = dagsp.shortestPathsLong(sourceSCC);
+                        for (int i = 0; i < distances.length; i++) {
+                            System.out.println("  To SCC " + i + ": "
+                                    + (distances[i] == Long.MAX_VALUE ? "unreachable" : distances[i]));
+                        }
+                    }
+                    case DOUBLE -> {
+                        double[] distances = dagsp.shortestPathsDouble(sourceSCC);
+                        for (int i = 0; i < distances.length; i++) {
+                            System.out.println("  To SCC " + i + ": "
+                                    + (Double.isInfinite(distances[i]) ? "unreachable" : distances[i]));
+                        }
+                    }
+                    default -> {
+                        int[] distances = dagsp.shortestPaths(sourceSCC);
+                        for (int i = 0; i < distances.length; i++) {
+                            if (distances[i] == Integer.MAX_VALUE) {
+                                System.out.println("  To SCC " + i + ": unreachable");
+                            } else {
+                                System.out.println("  To SCC " + i + ": " + distances[i]);
+                            }
+                        }
                     }
                 }
                 dagsp.getMetrics().printMetrics();
@@ -80,11 +115,46 @@ public class MainExecutor {
             // Critical Path
             System.out.println("\n=== Critical Path (Longest Path) ===");
             DAGShortestPath dagspLongest = new DAGShortestPath(condensation);
-            DAGShortestPath.PathResult longestPath = dagspLongest.longestPath();
-            System.out.println("Path: " + longestPath.getPath());
-            System.out.println("Length: " + longestPath.getLength());
+            switch (weightType) {
+                case LONG -> {
+                    DAGShortestPath.LongPathResult longestPath = dagspLongest.longestPathLong();
+                    System.out.println("Path: " + longestPath.getPath());
+                    System.out.println("Length: " + longestPath.getLength());
+                }
+                case DOUBLE -> {
+                    DAGShortestPath.DoublePathResult longestPath = dagspLongest.longestPathDouble();
+                    System.out.println("Path: " + longestPath.getPath());
+                    System.out.println("Length: " + longestPath.getLength());
+                }
+                default -> {
+                    DAGShortestPath.PathResult longestPath = dagspLongest.longestPath();
+                    System.out.println("Path: " + longestPath.getPath());
+                    System.out.println("Length: " + longestPath.getLength());
+                }
+            }
             dagspLongest.getMetrics().printMetrics();
 
+            // Schedule: earliest / latest start and slack per task
+            if (graph.getNodeWeights() == null && weightType == WeightType.DOUBLE) {
+                System.out.println("\n=== Schedule skipped: needs integer edge weights ===");
+            } else {
+                System.out.println("\n=== Schedule (" + (graph.getNodeWeights() != null ? "node" : "edge") + " weights) ===");
+                ScheduleAnalysis schedule = new ScheduleAnalysis(graph, sccFinder);
+                System.out.println("Project length: " + schedule.getProjectLength());
+                System.out.println("Critical tasks: " + schedule.getNumCritical() + " of " + graph.getNumVertices());
+                if (graph.getNumVertices() <= MAX_SCHEDULE_LINES) {
+                    for (int v = 0; v < graph.getNumVertices(); v++) {
+                        System.out.printf("  Task %d: ES %d, LS %d, slack %d%s%n", v, schedule.getEarliestStart()[v],
+                                schedule.getLatestStart()[v], schedule.getSlack()[v],
+                                schedule.getCritical()[v] ? " (critical)" : "");
+                    }
+                }
+                schedule.getMetrics().printMetrics();
+                if (args.length > 1) {
+                    ResultWriter.writeScheduleCSV(args[1], schedule);
+                }
+            }
+
             System.out.println("\n=== Analysis Complete ===");
 
         } catch (IOException e) {
@@ -95,4 +165,37 @@ public class MainExecutor {
             e.printStackTrace();
         }
     }
-}
\ No newline at end of file
+
+    // --serve [--port P] files...: analyze the graphs once and answer queries
+    // over HTTP until the process is stopped (see GraphQueryServer).
+    private static void serve(String[] args) {
+        int port = 8080;
+        List<String> files = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--port")) {
+                port = Integer.parseInt(args[++i]);
+            } else {
+                files.add(args[i]);
+            }
+        }
+        if (files.isEmpty()) {
+            files.add("data/large_dag.json");
+        }
+
+        try {
+            GraphQueryServer server = new GraphQueryServer(port);
+            for (String file : files) {
+                GraphSnapshot snapshot = GraphSnapshot.load(file);
+                server.addGraph(snapshot);
+                System.out.printf("Loaded %s: %d vertices, %d SCCs (%.1f ms)%n", snapshot.getName(),
+                        snapshot.getNumVertices(), snapshot.getNumComponents(), snapshot.getAnalysisNanos() / 1e6);
+            }
+            server.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+            System.out.println("Serving on http://127.0.0.1:" + server.getPort()
+                    + " (/graphs, /scc, /shortest, /longest, /reachable)");
+        } catch (IOException e) {
+            System.err.println("Error loading file: " + e.getMessage());
+        }
+    }
+}
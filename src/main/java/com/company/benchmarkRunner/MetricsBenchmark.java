@@ -0,0 +1,85 @@
+package com.company.benchmarkRunner;
+
+import com.company.graphRepresentation.CsrGraph;
+import com.company.metrics.ConcurrentMetrics;
+import com.company.metrics.Metrics;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// Cost of counting inside a relaxation sweep: no counter, the String lookup,
+// a long[] handle and a LongAdder handle. Run once more with
+// -Dmetrics.counters=false to see the handle variants collapse to the baseline.
+public class MetricsBenchmark {
+    private static final int NONE = 0;
+    private static final int BY_NAME = 1;
+    private static final int BY_HANDLE = 2;
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        CsrGraph csr = SccBenchmark.randomGraph(n, 4 * n, new Random(42)).toCsr();
+        int m = csr.getNumEdges();
+
+        System.out.println("=".repeat(70));
+        System.out.println("Metrics overhead: " + n + " vertices, " + m + " edges, counting "
+                + (Metrics.COUNTING_ENABLED ? "enabled" : "disabled"));
+        System.out.println("=".repeat(70));
+
+        report("no counter", csr, new Metrics(), NONE, rounds);
+        report("incrementCounter(String)", csr, new Metrics(), BY_NAME, rounds);
+        report("increment(handle), long[]", csr, new Metrics(), BY_HANDLE, rounds);
+        report("increment(handle), LongAdder", csr, new ConcurrentMetrics(), BY_HANDLE, rounds);
+    }
+
+    private static void report(String label, CsrGraph csr, Metrics metrics, int mode, int rounds) {
+        long best = Long.MAX_VALUE;
+        long checksum = 0;
+        for (int r = 0; r < rounds; r++) {
+            metrics.reset();
+            long start = System.nanoTime();
+            checksum += sweep(csr, metrics, mode);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%-32s %8.2f ms  %6.2f ns/edge  relaxations=%d (checksum %d)%n",
+                label, best / 1e6, best / (double) csr.getNumEdges(),
+                metrics.getCounter("relaxations"), checksum);
+    }
+
+    // One relaxation per edge in vertex order, the shape of the DAG path loops.
+    private static long sweep(CsrGraph csr, Metrics metrics, int mode) {
+        int n = csr.getNumVertices();
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        int[] weights = csr.getWeights();
+        int[] dist = new int[n];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        dist[0] = 0;
+        int handle = metrics.register("relaxations");
+
+        for (int u = 0; u < n; u++) {
+            if (dist[u] == Integer.MAX_VALUE) {
+                dist[u] = 0;
+            }
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                int candidate = dist[u] + weights[e];
+                if (candidate < dist[v]) {
+                    dist[v] = candidate;
+                }
+                if (mode == BY_NAME) {
+                    metrics.incrementCounter("relaxations");
+                } else if (mode == BY_HANDLE) {
+                    metrics.increment(handle);
+                }
+            }
+        }
+
+        long sum = 0;
+        for (int d : dist) {
+            sum += d;
+        }
+        return sum;
+    }
+}
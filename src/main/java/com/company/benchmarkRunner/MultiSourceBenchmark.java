@@ -0,0 +1,79 @@
+package com.company.benchmarkRunner;
+
+import com.company.algorithms.DAGShortestPath;
+import com.company.algorithms.MultiSourceShortestPaths;
+import com.company.graphRepresentation.Graph;
+import com.company.graphRepresentation.SyntheticGraphGenerator;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+// Sources per second for distances from many sources on one DAG: the
+// per-call DAGShortestPath loop against MultiSourceShortestPaths with one
+// thread and block size 1, one thread with blocks, and all cores.
+public class MultiSourceBenchmark {
+
+    public static void main(String[] args) {
+        long edges = args.length > 0 ? (long) Double.parseDouble(args[0]) : 1_000_000;
+        int numSources = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+
+        SyntheticGraphGenerator.Type type = SyntheticGraphGenerator.Type.LAYERED;
+        Graph graph = new SyntheticGraphGenerator(type, SyntheticGraphGenerator.defaultVertices(type, edges), edges, 42)
+                .toGraph();
+        int n = graph.getNumVertices();
+        Random random = new Random(7);
+        int[] sources = new int[numSources];
+        for (int i = 0; i < numSources; i++) {
+            sources[i] = random.nextInt(n);
+        }
+
+        System.out.println("=".repeat(70));
+        System.out.println("Multi-source shortest paths: " + n + " vertices, " + graph.getNumEdges()
+                + " edges, " + numSources + " sources");
+        System.out.println("=".repeat(70));
+
+        long checksum = 0;
+        long perCall = Long.MAX_VALUE;
+        for (int r = 0; r < rounds; r++) {
+            long start = System.nanoTime();
+            for (int source : sources) {
+                checksum += new DAGShortestPath(graph).shortestPaths(source)[sources[0]];
+            }
+            perCall = Math.min(perCall, System.nanoTime() - start);
+        }
+        report("DAGShortestPath per call", numSources, perCall, perCall);
+
+        ForkJoinPool single = new ForkJoinPool(1);
+        int cores = Runtime.getRuntime().availableProcessors();
+        try {
+            report("batch, 1 thread, block 1", numSources,
+                    bestBatch(new MultiSourceShortestPaths(graph, single, 1), sources, rounds), perCall);
+            report("batch, 1 thread, block " + MultiSourceShortestPaths.DEFAULT_BLOCK_SIZE, numSources,
+                    bestBatch(new MultiSourceShortestPaths(graph, single, MultiSourceShortestPaths.DEFAULT_BLOCK_SIZE),
+                            sources, rounds), perCall);
+            report("batch, " + cores + " cores, block " + MultiSourceShortestPaths.DEFAULT_BLOCK_SIZE, numSources,
+                    bestBatch(new MultiSourceShortestPaths(graph), sources, rounds), perCall);
+        } finally {
+            single.shutdown();
+        }
+        System.out.println("(checksum " + checksum + ")");
+    }
+
+    private static long bestBatch(MultiSourceShortestPaths batch, int[] sources, int rounds) {
+        long best = Long.MAX_VALUE;
+        LongAdder sink = new LongAdder();
+        for (int r = 0; r < rounds; r++) {
+            long start = System.nanoTime();
+            batch.forEachSource(sources, (source, dist) -> sink.add(dist[source]));
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private static void report(String label, int numSources, long nanos, long baseline) {
+        System.out.printf("%-32s %10.1f sources/s  %8.2f ms  %5.2fx%n",
+                label, numSources / (nanos / 1e9), nanos / 1e6, baseline / (double) nanos);
+    }
+}
@@ -0,0 +1,88 @@
+package com.company.benchmarkRunner;
+
+import com.company.algorithms.DAGShortestPath;
+import com.company.algorithms.PreparedDAG;
+import com.company.graphRepresentation.Graph;
+import com.company.graphRepresentation.SyntheticGraphGenerator;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntUnaryOperator;
+
+// Per-query latency of shortest, point-to-point (random pairs and pairs a few
+// hops apart) and longest path queries: a fresh DAGShortestPath per query
+// (topological sort every time) against one warm PreparedDAG.
+public class PreparedDagBenchmark {
+
+    public static void main(String[] args) {
+        long edges = args.length > 0 ? (long) Double.parseDouble(args[0]) : 1_000_000;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        SyntheticGraphGenerator.Type type = SyntheticGraphGenerator.Type.DAG;
+        int vertices = args.length > 2 ? (int) Double.parseDouble(args[2])
+                : SyntheticGraphGenerator.defaultVertices(type, edges);
+
+        Graph graph = new SyntheticGraphGenerator(type, vertices, edges, 42).toGraph();
+        int n = graph.getNumVertices();
+        Random random = new Random(7);
+        int[] sources = new int[queries];
+        int[] targets = new int[queries];
+        for (int i = 0; i < queries; i++) {
+            sources[i] = random.nextInt(n);
+            targets[i] = random.nextInt(n);
+        }
+        // Pairs a few hops apart, found by a random walk along out-edges.
+        int[] nearTargets = new int[queries];
+        for (int i = 0; i < queries; i++) {
+            int v = sources[i];
+            for (int hop = 0; hop < 3 && !graph.getNeighbors(v).isEmpty(); hop++) {
+                List<Graph.Edge> out = graph.getNeighbors(v);
+                v = out.get(random.nextInt(out.size())).v;
+            }
+            nearTargets[i] = v;
+        }
+
+        System.out.println("=".repeat(70));
+        System.out.println("Prepared DAG latency: " + n + " vertices, " + graph.getNumEdges() + " edges, "
+                + queries + " queries per kind");
+        System.out.println("=".repeat(70));
+
+        PreparedDAG prepared = new PreparedDAG(graph);
+        long start = System.nanoTime();
+        prepared.getTopologicalOrder();
+        System.out.printf("prepare: %.2f ms%n", (System.nanoTime() - start) / 1e6);
+
+        report("shortestPaths, per call", queries,
+                i -> new DAGShortestPath(graph).shortestPaths(sources[i])[targets[i]]);
+        report("shortestPaths, prepared", queries,
+                i -> prepared.shortestPaths(sources[i])[targets[i]]);
+        report("shortestPath(s,t), per call", queries,
+                i -> new DAGShortestPath(graph).shortestPath(sources[i], targets[i]).getLength());
+        report("shortestPath(s,t), prepared", queries,
+                i -> prepared.shortestPath(sources[i], targets[i]).getLength());
+        report("shortestPath(s,t) near, per call", queries,
+                i -> new DAGShortestPath(graph).shortestPath(sources[i], nearTargets[i]).getLength());
+        report("shortestPath(s,t) near, prepared", queries,
+                i -> prepared.shortestPath(sources[i], nearTargets[i]).getLength());
+        report("longestPath, per call", queries / 10,
+                i -> new DAGShortestPath(graph).longestPath().getLength());
+        report("longestPath, prepared", queries / 10,
+                i -> prepared.longestPath().getLength());
+    }
+
+    private static void report(String label, int queries, IntUnaryOperator query) {
+        long[] latency = new long[queries];
+        long checksum = 0;
+        for (int warmup = 0; warmup < Math.min(queries, 20); warmup++) {
+            checksum += query.applyAsInt(warmup);
+        }
+        for (int i = 0; i < queries; i++) {
+            long start = System.nanoTime();
+            checksum += query.applyAsInt(i);
+            latency[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latency);
+        System.out.printf("%-36s p50 %9.1f us  p99 %9.1f us  (checksum %d)%n", label,
+                latency[queries / 2] / 1e3, latency[Math.min(queries - 1, queries * 99 / 100)] / 1e3, checksum);
+    }
+}
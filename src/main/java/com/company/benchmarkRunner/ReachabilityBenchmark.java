@@ -0,0 +1,117 @@
+package com.company.benchmarkRunner;
+
+import com.company.algorithms.ReachabilityIndex;
+import com.company.algorithms.SCCFinder;
+import com.company.graphRepresentation.CsrGraph;
+import com.company.graphRepresentation.Graph;
+import com.company.graphRepresentation.SyntheticGraphGenerator;
+
+import java.util.Random;
+
+// Build time, size and query latency of ReachabilityIndex for several
+// traversal counts, against a plain DFS over the condensation per query.
+// Half the pairs are random (mostly unreachable on these graphs), half are a
+// few hops apart; every index answer is checked against the DFS.
+public class ReachabilityBenchmark {
+
+    public static void main(String[] args) {
+        long edges = args.length > 0 ? (long) Double.parseDouble(args[0]) : 1_000_000;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        String typeName = args.length > 2 ? args[2] : "CYCLIC";
+
+        SyntheticGraphGenerator.Type type = SyntheticGraphGenerator.Type.valueOf(typeName);
+        Graph graph = new SyntheticGraphGenerator(type,
+                SyntheticGraphGenerator.defaultVertices(type, edges), edges, 42).toGraph();
+        int n = graph.getNumVertices();
+        SCCFinder finder = SCCFinder.create(graph);
+        int[] componentOf = finder.getComponentMap();
+        Graph dag = finder.buildCondensationGraph();
+        CsrGraph csr = dag.toCsr();
+        int k = csr.getNumVertices();
+
+        Random random = new Random(7);
+        int[] us = new int[queries];
+        int[] vs = new int[queries];
+        for (int i = 0; i < queries; i++) {
+            us[i] = random.nextInt(n);
+            vs[i] = random.nextInt(n);
+            if (i % 2 == 1) {
+                int c = componentOf[us[i]];
+                for (int hop = 0; hop < 3 && csr.getOutDegree(c) > 0; hop++) {
+                    c = csr.getTarget(csr.getEdgeStart(c) + random.nextInt(csr.getOutDegree(c)));
+                }
+                vs[i] = c;
+            }
+        }
+        // Near targets were picked as components; map them back to a vertex.
+        int[] anyMember = new int[k];
+        for (int v = 0; v < n; v++) {
+            anyMember[componentOf[v]] = v;
+        }
+        for (int i = 1; i < queries; i += 2) {
+            vs[i] = anyMember[vs[i]];
+        }
+
+        System.out.println("=".repeat(70));
+        System.out.println("Reachability: " + n + " vertices, " + graph.getNumEdges() + " edges, " + k
+                + " components, " + queries + " queries");
+        System.out.println("=".repeat(70));
+
+        boolean[] expected = new boolean[queries];
+        int[] mark = new int[k];
+        int[] stack = new int[k];
+        long start = System.nanoTime();
+        int positives = 0;
+        for (int i = 0; i < queries; i++) {
+            expected[i] = dfs(csr, componentOf[us[i]], componentOf[vs[i]], mark, stack, i + 1);
+            positives += expected[i] ? 1 : 0;
+        }
+        long dfsNanos = System.nanoTime() - start;
+        System.out.printf("%-22s %12s %12s %10.3f us/query  (%d reachable)%n", "DFS per query", "-", "-",
+                dfsNanos / 1e3 / queries, positives);
+
+        for (int traversals : new int[]{1, 2, 5, 10}) {
+            ReachabilityIndex index = new ReachabilityIndex(componentOf, dag, traversals, 42);
+            for (int i = 0; i < Math.min(queries, 10_000); i++) {
+                index.reachable(us[i], vs[i]);
+            }
+            index.getMetrics().reset();
+            start = System.nanoTime();
+            int mismatches = 0;
+            for (int i = 0; i < queries; i++) {
+                if (index.reachable(us[i], vs[i]) != expected[i]) {
+                    mismatches++;
+                }
+            }
+            long nanos = System.nanoTime() - start;
+            System.out.printf("%-22s %9.2f ms %9.1f MB %10.3f us/query  (%.1f%% fallbacks, %d visited, %d wrong)%n",
+                    "index d=" + traversals, index.getBuildNanos() / 1e6, index.getIndexBytes() / 1e6,
+                    nanos / 1e3 / queries, 100.0 * index.getMetrics().getCounter("dfs_fallbacks") / queries,
+                    index.getMetrics().getCounter("components_visited"), mismatches);
+        }
+        System.out.printf("(dense closure would take %.1f MB)%n", (double) k * k / 8 / 1e6);
+    }
+
+    private static boolean dfs(CsrGraph csr, int source, int target, int[] mark, int[] stack, int stamp) {
+        if (source == target) {
+            return true;
+        }
+        int top = 0;
+        mark[source] = stamp;
+        stack[top++] = source;
+        while (top > 0) {
+            int x = stack[--top];
+            for (int e = csr.getEdgeStart(x), end = csr.getEdgeEnd(x); e < end; e++) {
+                int y = csr.getTarget(e);
+                if (y == target) {
+                    return true;
+                }
+                if (mark[y] != stamp) {
+                    mark[y] = stamp;
+                    stack[top++] = y;
+                }
+            }
+        }
+        return false;
+    }
+}
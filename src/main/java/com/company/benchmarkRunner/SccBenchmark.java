@@ -0,0 +1,186 @@
+package com.company.benchmarkRunner;
+
+import com.company.algorithms.ParallelSCC;
+import com.company.algorithms.SCCFinder;
+import com.company.algorithms.TarjanSCC;
+import com.company.graphRepresentation.CsrGraph;
+import com.company.graphRepresentation.Graph;
+import com.company.metrics.Metrics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+// SCC engines on a long chain with random back edges (deep DFS, mixed SCC sizes).
+// The recursive Tarjan that TarjanSCC replaced is kept here as the reference
+// and run on a thread with a large stack, since the default one overflows.
+// ParallelSCC is then timed against TarjanSCC for 1, 2, 4, ... worker threads
+// on the large data sets and on synthetic graphs.
+public class SccBenchmark {
+    private static final long RECURSIVE_STACK_BYTES = 2L << 30;
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        System.out.println("=".repeat(70));
+        System.out.println("SCC benchmark: chain of " + n + " vertices with back edges");
+        System.out.println("=".repeat(70));
+
+        Graph graph = chainWithBackEdges(n, new Random(7));
+        graph.toCsr();
+
+        long iterative = Long.MAX_VALUE;
+        int iterativeCount = 0;
+        for (int r = 0; r < rounds; r++) {
+            TarjanSCC scc = new TarjanSCC(graph);
+            iterativeCount = scc.findSCCs().size();
+            iterative = Math.min(iterative, scc.getMetrics().getElapsedTime());
+        }
+        System.out.printf("Iterative Tarjan: %.3f ms, %d SCCs%n", iterative / 1_000_000.0, iterativeCount);
+
+        long[] recursive = {Long.MAX_VALUE, 0};
+        Thread worker = new Thread(null, () -> {
+            for (int r = 0; r < rounds; r++) {
+                RecursiveTarjan reference = new RecursiveTarjan(graph.toCsr());
+                recursive[1] = reference.run();
+                recursive[0] = Math.min(recursive[0], reference.metrics.getElapsedTime());
+            }
+        }, "recursive-tarjan", RECURSIVE_STACK_BYTES);
+        worker.start();
+        worker.join();
+        System.out.printf("Recursive Tarjan (%d MB stack): %.3f ms, %d SCCs%n",
+                RECURSIVE_STACK_BYTES >> 20, recursive[0] / 1_000_000.0, recursive[1]);
+        System.out.printf("Iterative speedup: %.2fx%n", recursive[0] / (double) iterative);
+
+        try {
+            new RecursiveTarjan(graph.toCsr()).run();
+            System.out.println("Recursive Tarjan on the default stack: completed");
+        } catch (StackOverflowError e) {
+            System.out.println("Recursive Tarjan on the default stack: StackOverflowError");
+        }
+
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        speedupCurve("large_cyclic", Graph.load("data/large_cyclic.json"), rounds, maxThreads);
+        speedupCurve("large_dense", Graph.load("data/large_dense.json"), rounds, maxThreads);
+        speedupCurve("chain " + n, graph, rounds, maxThreads);
+        speedupCurve("random " + n + " x4", randomGraph(n, 4 * n, new Random(13)), rounds, maxThreads);
+    }
+
+    private static void speedupCurve(String name, Graph graph, int rounds, int maxThreads) {
+        System.out.println("\n--- " + name + ": " + graph.getNumVertices() + " vertices, "
+                + graph.getNumEdges() + " edges ---");
+        long tarjan = bestTime(rounds, TarjanSCC::new, graph);
+        System.out.printf("TarjanSCC: %.3f ms%n", tarjan / 1_000_000.0);
+
+        for (int threads = 1; threads <= maxThreads; threads = threads == maxThreads ? threads + 1 : Math.min(threads * 2, maxThreads)) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            long parallel = bestTime(rounds, g -> new ParallelSCC(g, pool), graph);
+            pool.shutdown();
+            System.out.printf("ParallelSCC, %d thread(s): %.3f ms (%.2fx vs Tarjan)%n",
+                    threads, parallel / 1_000_000.0, tarjan / (double) parallel);
+        }
+    }
+
+    private static long bestTime(int rounds, Function<Graph, SCCFinder> engine, Graph graph) {
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < rounds; r++) {
+            SCCFinder finder = engine.apply(graph);
+            finder.findSCCs();
+            best = Math.min(best, finder.getMetrics().getElapsedTime());
+        }
+        return best;
+    }
+
+    static Graph randomGraph(int n, int m, Random random) {
+        Graph graph = new Graph(n, m);
+        for (int i = 0; i < m; i++) {
+            graph.addEdge(random.nextInt(n), random.nextInt(n), 1 + random.nextInt(10));
+        }
+        return graph;
+    }
+
+    // Chain 0 -> 1 -> ... -> n-1, plus a back edge every few hundred vertices
+    // that folds a random-length stretch of the chain into one SCC.
+    static Graph chainWithBackEdges(int n, Random random) {
+        Graph graph = new Graph(n, n + n / 100);
+        for (int i = 0; i + 1 < n; i++) {
+            graph.addEdge(i, i + 1, 1 + random.nextInt(10));
+        }
+        for (int i = 0; i < n / 200; i++) {
+            int u = random.nextInt(n);
+            int v = Math.max(0, u - 1 - random.nextInt(500));
+            graph.addEdge(u, v, 1 + random.nextInt(10));
+        }
+        return graph;
+    }
+
+    private static class RecursiveTarjan {
+        private final CsrGraph csr;
+        private final Metrics metrics = new Metrics();
+        private final int dfsVisits = metrics.register("DFS_visits");
+        private final int edgesExplored = metrics.register("edges_explored");
+        private final int[] disc;
+        private final int[] low;
+        private final boolean[] onStack;
+        private final int[] stack;
+        private int top;
+        private int time;
+        private final List<List<Integer>> sccs = new ArrayList<>();
+
+        RecursiveTarjan(CsrGraph csr) {
+            this.csr = csr;
+            int n = csr.getNumVertices();
+            disc = new int[n];
+            low = new int[n];
+            onStack = new boolean[n];
+            stack = new int[n];
+            Arrays.fill(disc, -1);
+        }
+
+        int run() {
+            metrics.startTimer();
+            for (int i = 0; i < csr.getNumVertices(); i++) {
+                if (disc[i] == -1) {
+                    dfs(i);
+                }
+            }
+            metrics.stopTimer();
+            return sccs.size();
+        }
+
+        private void dfs(int u) {
+            metrics.increment(dfsVisits);
+            disc[u] = low[u] = time++;
+            stack[top++] = u;
+            onStack[u] = true;
+
+            int[] targets = csr.getTargets();
+            for (int e = csr.getEdgeStart(u), end = csr.getEdgeEnd(u); e < end; e++) {
+                int v = targets[e];
+                metrics.increment(edgesExplored);
+                if (disc[v] == -1) {
+                    dfs(v);
+                    low[u] = Math.min(low[u], low[v]);
+                } else if (onStack[v]) {
+                    low[u] = Math.min(low[u], disc[v]);
+                }
+            }
+
+            if (low[u] == disc[u]) {
+                List<Integer> scc = new ArrayList<>();
+                int v;
+                do {
+                    v = stack[--top];
+                    onStack[v] = false;
+                    scc.add(v);
+                } while (v != u);
+                sccs.add(scc);
+            }
+        }
+    }
+}
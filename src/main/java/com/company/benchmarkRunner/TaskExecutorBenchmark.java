@@ -0,0 +1,70 @@
+package com.company.benchmarkRunner;
+
+import com.company.algorithms.DAGTaskExecutor;
+import com.company.algorithms.SCCFinder;
+import com.company.graphRepresentation.Graph;
+import com.company.graphRepresentation.SyntheticGraphGenerator;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.LockSupport;
+
+// DAGTaskExecutor on a synthetic condensation where every component is a task
+// of 0.5x .. 1.5x workMicros, against serial execution in topological order.
+// "spin" tasks burn CPU, so the speedup is bounded by the cores; "sleep" tasks
+// block, which a fixed pool pays for with a worker each while virtual threads
+// only park. Sleeping tasks count as busy, so utilization on virtual threads
+// can exceed 100%.
+//
+//   TaskExecutorBenchmark [edges] [type] [workMicros] [spin | sleep]
+public class TaskExecutorBenchmark {
+
+    public static void main(String[] args) {
+        long edges = args.length > 0 ? (long) Double.parseDouble(args[0]) : 20_000;
+        String typeName = args.length > 1 ? args[1] : "DAG";
+        long workMicros = args.length > 2 ? Long.parseLong(args[2]) : 200;
+        boolean sleep = args.length > 3 && args[3].equals("sleep");
+
+        SyntheticGraphGenerator.Type type = SyntheticGraphGenerator.Type.valueOf(typeName);
+        Graph graph = new SyntheticGraphGenerator(type,
+                SyntheticGraphGenerator.defaultVertices(type, edges), edges, 42).toGraph();
+        DAGTaskExecutor executor = new DAGTaskExecutor(SCCFinder.create(graph));
+        DAGTaskExecutor.ComponentTask task = (component, members) -> {
+            // Deterministic per component so that every run does the same work.
+            long nanos = workMicros * 1000 * (512 + (component * 2654435761L & 1023)) / 1024;
+            if (sleep) {
+                LockSupport.parkNanos(nanos);
+            } else {
+                long deadline = System.nanoTime() + nanos;
+                while (System.nanoTime() < deadline) {
+                    Thread.onSpinWait();
+                }
+            }
+        };
+
+        System.out.println("=".repeat(70));
+        System.out.printf("Task execution: %d vertices, %d edges, %d tasks of ~%d us (%s)%n",
+                graph.getNumVertices(), graph.getNumEdges(), executor.getNumComponents(), workMicros,
+                sleep ? "sleep" : "spin");
+        System.out.println("=".repeat(70));
+
+        DAGTaskExecutor.Report serial = executor.executeSerial(task);
+        print("serial (topological)", serial, serial);
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= Math.max(cores, sleep ? 8 : 1); threads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            executor.execute(task, pool); // warmup
+            print("fork-join, " + threads + " threads", executor.execute(task, pool), serial);
+            pool.shutdown();
+        }
+        executor.executeOnVirtualThreads(task);
+        print("virtual threads", executor.executeOnVirtualThreads(task), serial);
+    }
+
+    private static void print(String label, DAGTaskExecutor.Report report, DAGTaskExecutor.Report serial) {
+        System.out.printf("%-24s %9.1f ms  speedup %5.2fx  utilization %5.1f%%  critical path %8.1f ms (%5.1f%%)%n",
+                label, report.getMakespanNanos() / 1e6,
+                serial.getMakespanNanos() / (double) report.getMakespanNanos(), 100 * report.getUtilization(),
+                report.getCriticalPathNanos() / 1e6, 100 * report.getCriticalPathEfficiency());
+    }
+}
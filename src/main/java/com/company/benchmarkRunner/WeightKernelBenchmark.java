@@ -0,0 +1,75 @@
+package com.company.benchmarkRunner;
+
+import com.company.algorithms.PreparedDAG;
+import com.company.graphRepresentation.CsrGraph;
+import com.company.graphRepresentation.Graph;
+import com.company.graphRepresentation.SyntheticGraphGenerator;
+
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+// The int, long and double shortest / longest path sweeps on one synthetic
+// DAG: the long copy scales every weight past the int range and the double
+// copy adds a fraction, so the three kernels do the same relaxations. Each
+// query is timed rounds times after a warmup; the median is reported.
+//
+//   WeightKernelBenchmark [edges] [rounds]
+public class WeightKernelBenchmark {
+    private static final long LONG_SCALE = 1L << 32;
+
+    public static void main(String[] args) {
+        long edges = args.length > 0 ? (long) Double.parseDouble(args[0]) : 4_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 21;
+
+        SyntheticGraphGenerator.Type type = SyntheticGraphGenerator.Type.DAG;
+        Graph graph = new SyntheticGraphGenerator(type, SyntheticGraphGenerator.defaultVertices(type, edges), edges, 42)
+                .toGraph();
+        CsrGraph csr = graph.toCsr();
+        int[] weights = csr.getWeights();
+        long[] longWeights = new long[weights.length];
+        double[] doubleWeights = new double[weights.length];
+        for (int e = 0; e < weights.length; e++) {
+            longWeights[e] = weights[e] * LONG_SCALE;
+            doubleWeights[e] = weights[e] + 0.25;
+        }
+        PreparedDAG asInt = new PreparedDAG(graph);
+        PreparedDAG asLong = new PreparedDAG(Graph.fromCsr(
+                new CsrGraph(csr.getNumVertices(), csr.getOffsets(), csr.getTargets(), longWeights)));
+        PreparedDAG asDouble = new PreparedDAG(Graph.fromCsr(
+                new CsrGraph(csr.getNumVertices(), csr.getOffsets(), csr.getTargets(), doubleWeights)));
+        int source = asInt.getTopologicalOrder()[0];
+        asLong.getTopologicalOrder();
+        asDouble.getTopologicalOrder();
+
+        System.out.println("=".repeat(70));
+        System.out.println("Weight kernels: " + graph.getNumVertices() + " vertices, " + graph.getNumEdges()
+                + " edges, median of " + rounds);
+        System.out.println("=".repeat(70));
+
+        double intShortest = report("shortestPaths, int", rounds, () -> asInt.shortestPaths(source).length, 0);
+        report("shortestPaths, long", rounds, () -> asLong.shortestPathsLong(source).length, intShortest);
+        report("shortestPaths, double", rounds, () -> asDouble.shortestPathsDouble(source).length, intShortest);
+        double intLongest = report("longestPath, int", rounds, () -> asInt.longestPath().getLength(), 0);
+        report("longestPath, long", rounds, () -> asLong.longestPathLong().getLength() / LONG_SCALE, intLongest);
+        report("longestPath, double", rounds, () -> (long) asDouble.longestPathDouble().getLength(), intLongest);
+    }
+
+    // Returns the median in ms; prints it relative to baseline when that is set.
+    private static double report(String label, int rounds, LongSupplier query, double baseline) {
+        long checksum = 0;
+        for (int i = 0; i < Math.max(3, rounds / 4); i++) {
+            checksum += query.getAsLong();
+        }
+        long[] nanos = new long[rounds];
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            checksum += query.getAsLong();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        double median = nanos[rounds / 2] / 1e6;
+        System.out.printf("%-24s %9.2f ms%s  (checksum %d)%n", label, median,
+                baseline > 0 ? String.format("  %5.2fx int", median / baseline) : "", checksum);
+        return median;
+    }
+}
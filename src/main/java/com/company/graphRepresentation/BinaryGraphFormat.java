@@ -0,0 +1,297 @@
+package com.company.graphRepresentation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Compact little-endian graph file:
+//   "GRPH", version, n, m, source, weight type, weight model length, weight model (padded to 4)
+//   int offsets[n + 1], int targets[m], int weights[m]   (long / double weights[m] for those types)
+//   int nodeWeights[n]                            (only under the "node" weight model)
+// The arrays are the CSR of the graph, so loading is a bulk copy out of the
+// memory-mapped file with no parsing or sorting. Version 2 added nodeWeights;
+// a version 1 file has the same layout unless it uses the "node" model, so
+// only those are refused.
+public class BinaryGraphFormat {
+    public static final String EXTENSION = ".bin";
+
+    private static final byte[] MAGIC = {'G', 'R', 'P', 'H'};
+    private static final int VERSION = 2;
+    private static final int WEIGHT_TYPE_INT = 0;
+    private static final int WEIGHT_TYPE_LONG = 1;
+    private static final int WEIGHT_TYPE_DOUBLE = 2;
+    private static final int FIXED_HEADER_BYTES = 28;
+    private static final int CHUNK_INTS = 1 << 14;
+    private static final long MAX_WINDOW_BYTES = 1L << 30;
+
+    public static void write(Graph graph, Path path) throws IOException {
+        CsrGraph csr = graph.toCsr();
+        String model = graph.getWeightModel() != null ? graph.getWeightModel() : "edge";
+        int source = graph.getSource() != null ? graph.getSource() : 0;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeHeader(channel, csr.getNumVertices(), csr.getNumEdges(), source, model, csr.getWeightType());
+
+            ByteBuffer chunk = ByteBuffer.allocate(CHUNK_INTS * 8).order(ByteOrder.LITTLE_ENDIAN);
+            writeInts(channel, chunk, csr.getOffsets(), csr.getNumVertices() + 1);
+            writeInts(channel, chunk, csr.getTargets(), csr.getNumEdges());
+            switch (csr.getWeightType()) {
+                case LONG -> writeLongs(channel, chunk, csr.getLongWeights(), csr.getNumEdges());
+                case DOUBLE -> writeDoubles(channel, chunk, csr.getDoubleWeights(), csr.getNumEdges());
+                default -> writeInts(channel, chunk, csr.getWeights(), csr.getNumEdges());
+            }
+            if (graph.getNodeWeights() != null) {
+                writeInts(channel, chunk, graph.getNodeWeights(), csr.getNumVertices());
+            }
+        }
+    }
+
+    // Writes the header at the start of the channel and returns the byte offset
+    // where offsets[0] goes, for writers that stream the arrays themselves.
+    public static long writeHeader(FileChannel channel, int numVertices, int numEdges, int source,
+                                   String weightModel) throws IOException {
+        return writeHeader(channel, numVertices, numEdges, source, weightModel, WeightType.INT);
+    }
+
+    public static long writeHeader(FileChannel channel, int numVertices, int numEdges, int source,
+                                   String weightModel, WeightType weightType) throws IOException {
+        byte[] model = weightModel.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer header = ByteBuffer.allocate(FIXED_HEADER_BYTES + padded(model.length))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        header.put(MAGIC);
+        header.putInt(VERSION);
+        header.putInt(numVertices);
+        header.putInt(numEdges);
+        header.putInt(source);
+        header.putInt(switch (weightType) {
+            case LONG -> WEIGHT_TYPE_LONG;
+            case DOUBLE -> WEIGHT_TYPE_DOUBLE;
+            default -> WEIGHT_TYPE_INT;
+        });
+        header.putInt(model.length);
+        header.put(model);
+        header.position(header.limit());
+        header.flip();
+        channel.position(0);
+        writeFully(channel, header);
+        return header.limit();
+    }
+
+    public static Graph read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < FIXED_HEADER_BYTES) {
+                throw new IOException("Not a binary graph file: " + path);
+            }
+            MappedByteBuffer fixed = channel.map(FileChannel.MapMode.READ_ONLY, 0, FIXED_HEADER_BYTES);
+            fixed.order(ByteOrder.LITTLE_ENDIAN);
+            byte[] magic = new byte[MAGIC.length];
+            fixed.get(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Not a binary graph file: " + path);
+            }
+            int version = fixed.getInt();
+            if (version != VERSION && version != 1) {
+                throw new IOException("Unsupported binary graph version " + version + ": " + path);
+            }
+            int n = fixed.getInt();
+            int m = fixed.getInt();
+            int source = fixed.getInt();
+            int weightType = fixed.getInt();
+            if (weightType != WEIGHT_TYPE_INT && weightType != WEIGHT_TYPE_LONG && weightType != WEIGHT_TYPE_DOUBLE) {
+                throw new IOException("Unsupported weight type " + weightType + ": " + path);
+            }
+            int modelLength = fixed.getInt();
+
+            long position = FIXED_HEADER_BYTES;
+            if (n < 0 || m < 0 || modelLength < 0 || size < position + padded(modelLength)) {
+                throw new IOException("Truncated or corrupt binary graph file: " + path);
+            }
+            byte[] model = new byte[modelLength];
+            channel.map(FileChannel.MapMode.READ_ONLY, position, modelLength).get(model);
+            position += padded(modelLength);
+            String weightModel = new String(model, StandardCharsets.UTF_8);
+            boolean nodeWeights = Graph.NODE_WEIGHT_MODEL.equals(weightModel);
+            if (!isSupported(version, weightModel)) {
+                throw new IOException("Unsupported binary graph version " + version + " for the \""
+                        + weightModel + "\" weight model: " + path);
+            }
+            int weightBytes = weightType == WEIGHT_TYPE_INT ? 4 : 8;
+            long expected = position + 4L * (n + 1) + (4L + weightBytes) * m + (nodeWeights ? 4L * n : 0);
+            if (size != expected) {
+                throw new IOException("Truncated or corrupt binary graph file: " + path);
+            }
+
+            int[] offsets = new int[n + 1];
+            int[] targets = new int[m];
+            position = readInts(channel, position, offsets);
+            position = readInts(channel, position, targets);
+            CsrGraph csr;
+            if (weightType == WEIGHT_TYPE_LONG) {
+                long[] weights = new long[m];
+                position = readLongs(channel, position, weights);
+                csr = new CsrGraph(n, offsets, targets, weights);
+            } else if (weightType == WEIGHT_TYPE_DOUBLE) {
+                double[] weights = new double[m];
+                position = readDoubles(channel, position, weights);
+                csr = new CsrGraph(n, offsets, targets, weights);
+            } else {
+                int[] weights = new int[m];
+                position = readInts(channel, position, weights);
+                csr = new CsrGraph(n, offsets, targets, weights);
+            }
+            Graph graph = new Graph(csr, source, weightModel);
+            if (nodeWeights) {
+                int[] durations = new int[n];
+                readInts(channel, position, durations);
+                graph.setNodeWeights(durations);
+            }
+            return graph;
+        }
+    }
+
+    // data/x.json -> data/x.bin; null for names without a .json suffix.
+    public static Path siblingOf(Path jsonPath) {
+        String name = jsonPath.getFileName().toString();
+        if (!name.endsWith(".json")) {
+            return null;
+        }
+        return jsonPath.resolveSibling(name.substring(0, name.length() - ".json".length()) + EXTENSION);
+    }
+
+    // Version 1 files share the version 2 layout except under the node model.
+    private static boolean isSupported(int version, String weightModel) {
+        return version == VERSION || (version == 1 && !Graph.NODE_WEIGHT_MODEL.equals(weightModel));
+    }
+
+    // Whether read() accepts the file's version, looking at the header only;
+    // false for anything that is not a binary graph file at all.
+    public static boolean isReadable(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < FIXED_HEADER_BYTES) {
+                return false;
+            }
+            MappedByteBuffer fixed = channel.map(FileChannel.MapMode.READ_ONLY, 0, FIXED_HEADER_BYTES);
+            fixed.order(ByteOrder.LITTLE_ENDIAN);
+            byte[] magic = new byte[MAGIC.length];
+            fixed.get(magic);
+            int version = fixed.getInt();
+            int modelLength = fixed.getInt(FIXED_HEADER_BYTES - 4);
+            if (!Arrays.equals(magic, MAGIC) || modelLength < 0 || size < FIXED_HEADER_BYTES + (long) modelLength) {
+                return false;
+            }
+            byte[] model = new byte[modelLength];
+            channel.map(FileChannel.MapMode.READ_ONLY, FIXED_HEADER_BYTES, modelLength).get(model);
+            return isSupported(version, new String(model, StandardCharsets.UTF_8));
+        }
+    }
+
+    // The binary file is only trusted when it is at least as new as the JSON.
+    public static boolean isFresh(Path binaryPath, Path jsonPath) throws IOException {
+        if (!Files.isRegularFile(binaryPath)) {
+            return false;
+        }
+        if (!Files.exists(jsonPath)) {
+            return true;
+        }
+        return Files.getLastModifiedTime(binaryPath).compareTo(Files.getLastModifiedTime(jsonPath)) >= 0;
+    }
+
+    private static long readInts(FileChannel channel, long position, int[] dest) throws IOException {
+        int done = 0;
+        while (done < dest.length) {
+            int count = (int) Math.min(dest.length - done, MAX_WINDOW_BYTES / 4);
+            IntBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, 4L * count)
+                    .order(ByteOrder.LITTLE_ENDIAN)
+                    .asIntBuffer();
+            window.get(dest, done, count);
+            done += count;
+            position += 4L * count;
+        }
+        return position;
+    }
+
+    private static long readLongs(FileChannel channel, long position, long[] dest) throws IOException {
+        int done = 0;
+        while (done < dest.length) {
+            int count = (int) Math.min(dest.length - done, MAX_WINDOW_BYTES / 8);
+            channel.map(FileChannel.MapMode.READ_ONLY, position, 8L * count)
+                    .order(ByteOrder.LITTLE_ENDIAN)
+                    .asLongBuffer()
+                    .get(dest, done, count);
+            done += count;
+            position += 8L * count;
+        }
+        return position;
+    }
+
+    private static long readDoubles(FileChannel channel, long position, double[] dest) throws IOException {
+        int done = 0;
+        while (done < dest.length) {
+            int count = (int) Math.min(dest.length - done, MAX_WINDOW_BYTES / 8);
+            channel.map(FileChannel.MapMode.READ_ONLY, position, 8L * count)
+                    .order(ByteOrder.LITTLE_ENDIAN)
+                    .asDoubleBuffer()
+                    .get(dest, done, count);
+            done += count;
+            position += 8L * count;
+        }
+        return position;
+    }
+
+    private static void writeLongs(FileChannel channel, ByteBuffer chunk, long[] values, int count)
+            throws IOException {
+        for (int i = 0; i < count; ) {
+            chunk.clear();
+            int end = Math.min(count, i + CHUNK_INTS);
+            chunk.asLongBuffer().put(values, i, end - i);
+            chunk.limit(8 * (end - i));
+            writeFully(channel, chunk);
+            i = end;
+        }
+    }
+
+    private static void writeDoubles(FileChannel channel, ByteBuffer chunk, double[] values, int count)
+            throws IOException {
+        for (int i = 0; i < count; ) {
+            chunk.clear();
+            int end = Math.min(count, i + CHUNK_INTS);
+            chunk.asDoubleBuffer().put(values, i, end - i);
+            chunk.limit(8 * (end - i));
+            writeFully(channel, chunk);
+            i = end;
+        }
+    }
+
+    private static void writeInts(FileChannel channel, ByteBuffer chunk, int[] values, int count)
+            throws IOException {
+        for (int i = 0; i < count; ) {
+            chunk.clear();
+            int end = Math.min(count, i + CHUNK_INTS);
+            chunk.asIntBuffer().put(values, i, end - i);
+            chunk.limit(4 * (end - i));
+            writeFully(channel, chunk);
+            i = end;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static int padded(int length) {
+        return (length + 3) & ~3;
+    }
+}
@@ -0,0 +1,276 @@
+package com.company.graphRepresentation;
+
+// Frozen compressed sparse row layout: the out-edges of u are the slots
+// offsets[u] .. offsets[u + 1] - 1 of targets/weights.
+//
+// Graphs with LONG or DOUBLE weights (see WeightType) keep the exact weights in
+// longWeights or doubleWeights, and weights holds them saturated to int (double
+// weights rounded) for the int algorithms, which only look at the topology or
+// can tell from getWeightType() that they should not run. getLongWeights() and
+// getDoubleWeights() widen narrower weights once on first use.
+public class CsrGraph {
+    private final int numVertices;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+    private final WeightType weightType;
+    private volatile long[] longWeights;
+    private volatile double[] doubleWeights;
+
+    public CsrGraph(int numVertices, int[] offsets, int[] targets, int[] weights) {
+        this(numVertices, offsets, targets, weights, WeightType.INT, null, null);
+    }
+
+    public CsrGraph(int numVertices, int[] offsets, int[] targets, long[] weights) {
+        this(numVertices, offsets, targets, saturate(weights), WeightType.LONG, weights, null);
+    }
+
+    public CsrGraph(int numVertices, int[] offsets, int[] targets, double[] weights) {
+        this(numVertices, offsets, targets, saturate(weights), WeightType.DOUBLE, null, weights);
+    }
+
+    private CsrGraph(int numVertices, int[] offsets, int[] targets, int[] weights, WeightType weightType,
+                     long[] longWeights, double[] doubleWeights) {
+        if (offsets.length != numVertices + 1) {
+            throw new IllegalArgumentException("offsets must have numVertices + 1 entries");
+        }
+        if (targets.length < offsets[numVertices] || weights.length < offsets[numVertices]) {
+            throw new IllegalArgumentException("targets/weights shorter than offsets[numVertices]");
+        }
+        this.numVertices = numVertices;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.weightType = weightType;
+        this.longWeights = longWeights;
+        this.doubleWeights = doubleWeights;
+    }
+
+    private static int[] saturate(long[] weights) {
+        int[] result = new int[weights.length];
+        for (int e = 0; e < weights.length; e++) {
+            result[e] = WeightType.saturate(weights[e]);
+        }
+        return result;
+    }
+
+    private static int[] saturate(double[] weights) {
+        int[] result = new int[weights.length];
+        for (int e = 0; e < weights.length; e++) {
+            result[e] = WeightType.saturate(weights[e]);
+        }
+        return result;
+    }
+
+    // Stable counting sort of an edge list by source vertex, so the neighbors of
+    // every vertex keep their insertion order. Edges whose source is out of range
+    // are dropped, as the adjacency list of the original Graph did.
+    public static CsrGraph fromEdges(int numVertices, int numEdges, int[] us, int[] vs, int[] ws) {
+        int[] offsets = new int[numVertices + 1];
+        int kept = 0;
+        for (int i = 0; i < numEdges; i++) {
+            int u = us[i];
+            if (u >= 0 && u < numVertices) {
+                offsets[u + 1]++;
+                kept++;
+            }
+        }
+        for (int u = 0; u < numVertices; u++) {
+            offsets[u + 1] += offsets[u];
+        }
+
+        int[] targets = new int[kept];
+        int[] weights = new int[kept];
+        int[] next = new int[numVertices];
+        System.arraycopy(offsets, 0, next, 0, numVertices);
+        for (int i = 0; i < numEdges; i++) {
+            int u = us[i];
+            if (u >= 0 && u < numVertices) {
+                int slot = next[u]++;
+                targets[slot] = vs[i];
+                weights[slot] = ws[i];
+            }
+        }
+
+        return new CsrGraph(numVertices, offsets, targets, weights);
+    }
+
+    // fromEdges for LONG weights; ws is permuted the same way.
+    public static CsrGraph fromEdges(int numVertices, int numEdges, int[] us, int[] vs, long[] ws) {
+        int[] slots = new int[numEdges];
+        int[] offsets = slots(numVertices, numEdges, us, slots);
+        int[] targets = new int[offsets[numVertices]];
+        long[] weights = new long[targets.length];
+        for (int i = 0; i < numEdges; i++) {
+            if (slots[i] >= 0) {
+                targets[slots[i]] = vs[i];
+                weights[slots[i]] = ws[i];
+            }
+        }
+        return new CsrGraph(numVertices, offsets, targets, weights);
+    }
+
+    public static CsrGraph fromEdges(int numVertices, int numEdges, int[] us, int[] vs, double[] ws) {
+        int[] slots = new int[numEdges];
+        int[] offsets = slots(numVertices, numEdges, us, slots);
+        int[] targets = new int[offsets[numVertices]];
+        double[] weights = new double[targets.length];
+        for (int i = 0; i < numEdges; i++) {
+            if (slots[i] >= 0) {
+                targets[slots[i]] = vs[i];
+                weights[slots[i]] = ws[i];
+            }
+        }
+        return new CsrGraph(numVertices, offsets, targets, weights);
+    }
+
+    // The counting sort of fromEdges as a permutation: slots[i] is where edge
+    // i goes, -1 if it is dropped. Returns the offsets.
+    private static int[] slots(int numVertices, int numEdges, int[] us, int[] slots) {
+        int[] offsets = new int[numVertices + 1];
+        for (int i = 0; i < numEdges; i++) {
+            int u = us[i];
+            if (u >= 0 && u < numVertices) {
+                offsets[u + 1]++;
+            }
+        }
+        for (int u = 0; u < numVertices; u++) {
+            offsets[u + 1] += offsets[u];
+        }
+        int[] next = new int[numVertices];
+        System.arraycopy(offsets, 0, next, 0, numVertices);
+        for (int i = 0; i < numEdges; i++) {
+            int u = us[i];
+            slots[i] = u >= 0 && u < numVertices ? next[u]++ : -1;
+        }
+        return offsets;
+    }
+
+    // Same vertices with every edge reversed; in-edges of v keep source order.
+    public CsrGraph transpose() {
+        int m = getNumEdges();
+        int[] reverseOffsets = new int[numVertices + 1];
+        for (int e = 0; e < m; e++) {
+            reverseOffsets[targets[e] + 1]++;
+        }
+        for (int v = 0; v < numVertices; v++) {
+            reverseOffsets[v + 1] += reverseOffsets[v];
+        }
+
+        int[] sources = new int[m];
+        int[] reverseWeights = new int[m];
+        long[] reverseLong = weightType == WeightType.LONG ? new long[m] : null;
+        double[] reverseDouble = weightType == WeightType.DOUBLE ? new double[m] : null;
+        int[] next = new int[numVertices];
+        System.arraycopy(reverseOffsets, 0, next, 0, numVertices);
+        for (int u = 0; u < numVertices; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int slot = next[targets[e]]++;
+                sources[slot] = u;
+                reverseWeights[slot] = weights[e];
+                if (reverseLong != null) {
+                    reverseLong[slot] = longWeights[e];
+                } else if (reverseDouble != null) {
+                    reverseDouble[slot] = doubleWeights[e];
+                }
+            }
+        }
+
+        return new CsrGraph(numVertices, reverseOffsets, sources, reverseWeights, weightType,
+                reverseLong, reverseDouble);
+    }
+
+    public int getNumVertices() {
+        return numVertices;
+    }
+
+    public int getNumEdges() {
+        return offsets[numVertices];
+    }
+
+    public int getEdgeStart(int u) {
+        return offsets[u];
+    }
+
+    public int getEdgeEnd(int u) {
+        return offsets[u + 1];
+    }
+
+    public int getOutDegree(int u) {
+        return offsets[u + 1] - offsets[u];
+    }
+
+    public int getTarget(int edge) {
+        return targets[edge];
+    }
+
+    public int getWeight(int edge) {
+        return weights[edge];
+    }
+
+    // Raw arrays for hot loops; callers must not modify them.
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    public int[] getTargets() {
+        return targets;
+    }
+
+    public int[] getWeights() {
+        return weights;
+    }
+
+    public WeightType getWeightType() {
+        return weightType;
+    }
+
+    // Exact weights of an INT or LONG graph; a race only widens twice.
+    public long[] getLongWeights() {
+        long[] result = longWeights;
+        if (result == null) {
+            if (weightType == WeightType.DOUBLE) {
+                throw new IllegalStateException("Graph has DOUBLE weights; they do not fit long");
+            }
+            int m = getNumEdges();
+            result = new long[m];
+            for (int e = 0; e < m; e++) {
+                result[e] = weights[e];
+            }
+            longWeights = result;
+        }
+        return result;
+    }
+
+    // Weights of any type as double; longs beyond 2^53 lose precision.
+    public double[] getDoubleWeights() {
+        double[] result = doubleWeights;
+        if (result == null) {
+            int m = getNumEdges();
+            long[] wide = weightType == WeightType.LONG ? longWeights : null;
+            result = new double[m];
+            for (int e = 0; e < m; e++) {
+                result[e] = wide != null ? wide[e] : weights[e];
+            }
+            doubleWeights = result;
+        }
+        return result;
+    }
+
+    public int[] inDegrees() {
+        int[] inDegree = new int[numVertices];
+        int m = getNumEdges();
+        for (int e = 0; e < m; e++) {
+            inDegree[targets[e]]++;
+        }
+        return inDegree;
+    }
+
+    public long getMemoryBytes() {
+        long[] wideLong = longWeights;
+        double[] wideDouble = doubleWeights;
+        return 16L * 3 + 4L * (offsets.length + targets.length + weights.length)
+                + (wideLong != null ? 16 + 8L * wideLong.length : 0)
+                + (wideDouble != null ? 16 + 8L * wideDouble.length : 0);
+    }
+}
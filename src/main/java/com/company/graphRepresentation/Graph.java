@@ -1,16 +1,32 @@
 package com.company.graphRepresentation;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
 
 public class Graph {
+    // Weight model under which vertices carry the weights (task durations).
+    public static final String NODE_WEIGHT_MODEL = "node";
+
     private int numVertices;
-    private List<Edge> edges;
-    private List<List<Edge>> adjList;
+    private int numEdges;
+    private int[] edgeU;
+    private int[] edgeV;
+    private int[] edgeW;
+    // Exact weights once a weight does not fit an int; edgeW then holds them saturated.
+    private WeightType weightType = WeightType.INT;
+    private long[] edgeLongW;
+    private double[] edgeDoubleW;
+    private CsrGraph csr;
+    private long modCount;
     private Integer source;
     private String weightModel;
+    private int[] nodeWeights;
 
     public static class Edge {
         public int u;
@@ -25,110 +41,289 @@ public class Graph {
     }
 
     public Graph(int numVertices) {
+        this(numVertices, 16);
+    }
+
+    public Graph(int numVertices, int expectedEdges) {
         this.numVertices = numVertices;
-        this.edges = new ArrayList<>();
-        this.adjList = new ArrayList<>();
-        for (int i = 0; i < numVertices; i++) {
-            adjList.add(new ArrayList<>());
-        }
+        int capacity = Math.max(expectedEdges, 1);
+        this.edgeU = new int[capacity];
+        this.edgeV = new int[capacity];
+        this.edgeW = new int[capacity];
     }
 
-    public static Graph fromJson(String filename) throws IOException {
-        BufferedReader reader = new BufferedReader(new FileReader(filename));
-        StringBuilder content = new StringBuilder();
-        String line;
-        while ((line = reader.readLine()) != null) {
-            content.append(line);
+    // Adopts the arrays of a loader; only the first numEdges slots are used.
+    Graph(int numVertices, int numEdges, int[] edgeU, int[] edgeV, int[] edgeW,
+          Integer source, String weightModel) {
+        this(numVertices, numEdges, edgeU, edgeV, edgeW, null, null, source, weightModel);
+    }
+
+    // At most one of longW / doubleW is set and decides the weight type;
+    // edgeW is then ignored and filled from it.
+    Graph(int numVertices, int numEdges, int[] edgeU, int[] edgeV, int[] edgeW, long[] longW, double[] doubleW,
+          Integer source, String weightModel) {
+        this.numVertices = numVertices;
+        this.numEdges = numEdges;
+        this.edgeU = edgeU;
+        this.edgeV = edgeV;
+        this.source = source;
+        this.weightModel = weightModel;
+        if (longW != null) {
+            this.weightType = WeightType.LONG;
+            this.edgeLongW = longW;
+            this.edgeW = new int[edgeU.length];
+            for (int i = 0; i < numEdges; i++) {
+                this.edgeW[i] = WeightType.saturate(longW[i]);
+            }
+        } else if (doubleW != null) {
+            this.weightType = WeightType.DOUBLE;
+            this.edgeDoubleW = doubleW;
+            this.edgeW = new int[edgeU.length];
+            for (int i = 0; i < numEdges; i++) {
+                this.edgeW[i] = WeightType.saturate(doubleW[i]);
+            }
+        } else {
+            this.edgeW = edgeW;
         }
-        reader.close();
+    }
 
-        String json = content.toString();
-        int n = extractInt(json, "\"n\"");
-        Graph graph = new Graph(n);
+    // Backed by a frozen CSR only; the edge list is rebuilt from it on demand.
+    Graph(CsrGraph csr, Integer source, String weightModel) {
+        this.numVertices = csr.getNumVertices();
+        this.numEdges = csr.getNumEdges();
+        this.csr = csr;
+        this.weightType = csr.getWeightType();
+        this.source = source;
+        this.weightModel = weightModel;
+    }
 
-        int edgesStart = json.indexOf("\"edges\"");
-        int arrayStart = json.indexOf('[', edgesStart);
-        int arrayEnd = findMatchingBracket(json, arrayStart);
-        String edgesJson = json.substring(arrayStart + 1, arrayEnd);
+    public static Graph fromCsr(CsrGraph csr) {
+        return new Graph(csr, null, null);
+    }
 
-        int start = 0;
-        while (start < edgesJson.length()) {
-            int objStart = edgesJson.indexOf('{', start);
-            if (objStart == -1) break;
-            int objEnd = edgesJson.indexOf('}', objStart);
-            String edgeJson = edgesJson.substring(objStart, objEnd + 1);
+    public static Graph fromJson(String filename) throws IOException {
+        try (InputStream in = new FileInputStream(filename)) {
+            return new JsonGraphReader(in).read();
+        }
+    }
 
-            int u = extractInt(edgeJson, "\"u\"");
-            int v = extractInt(edgeJson, "\"v\"");
-            int w = extractInt(edgeJson, "\"w\"");
-            graph.addEdge(u, v, w);
+    // Splits the edges array across parallelism fork-join workers and merges
+    // their buffers with one counting pass into the CSR. Small files are read
+    // sequentially.
+    public static Graph fromJson(String filename, int parallelism) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            Graph graph = new JsonGraphReader(channel, parallelism).read();
+            graph.toCsr();
+            return graph;
+        }
+    }
 
-            start = objEnd + 1;
+    // Prefers an up-to-date binary sibling (x.bin next to x.json) over parsing
+    // the JSON; a sibling written in a version this build no longer reads is
+    // ignored like a stale one.
+    public static Graph load(String filename) throws IOException {
+        if (filename.endsWith(BinaryGraphFormat.EXTENSION)) {
+            return BinaryGraphFormat.read(Paths.get(filename));
         }
+        Path binary = BinaryGraphFormat.siblingOf(Paths.get(filename));
+        if (binary != null && BinaryGraphFormat.isFresh(binary, Paths.get(filename))
+                && BinaryGraphFormat.isReadable(binary)) {
+            return BinaryGraphFormat.read(binary);
+        }
+        return fromJson(filename, Runtime.getRuntime().availableProcessors());
+    }
 
-        try {
-            graph.source = extractInt(json, "\"source\"");
-        } catch (Exception e) {
-            graph.source = 0;
+    private void ensureEdgeList() {
+        if (edgeU != null) {
+            return;
         }
+        int capacity = Math.max(numEdges, 16);
+        int[] offsets = csr.getOffsets();
+        edgeU = new int[capacity];
+        edgeV = Arrays.copyOf(csr.getTargets(), capacity);
+        edgeW = Arrays.copyOf(csr.getWeights(), capacity);
+        if (weightType == WeightType.LONG) {
+            edgeLongW = Arrays.copyOf(csr.getLongWeights(), capacity);
+        } else if (weightType == WeightType.DOUBLE) {
+            edgeDoubleW = Arrays.copyOf(csr.getDoubleWeights(), capacity);
+        }
+        for (int u = 0; u < numVertices; u++) {
+            Arrays.fill(edgeU, offsets[u], offsets[u + 1], u);
+        }
+    }
 
-        try {
-            graph.weightModel = extractString(json, "\"weight_model\"");
-        } catch (Exception e) {
-            graph.weightModel = "edge";
+    public void addEdge(int u, int v, int w) {
+        int i = appendEdge(u, v, w);
+        if (weightType == WeightType.LONG) {
+            edgeLongW[i] = w;
+        } else if (weightType == WeightType.DOUBLE) {
+            edgeDoubleW[i] = w;
         }
+    }
 
-        return graph;
+    // Widens the graph to LONG weights unless w fits an int.
+    public void addEdge(int u, int v, long w) {
+        if (w == (int) w) {
+            addEdge(u, v, (int) w);
+            return;
+        }
+        widenWeights(WeightType.LONG);
+        int i = appendEdge(u, v, WeightType.saturate(w));
+        if (weightType == WeightType.LONG) {
+            edgeLongW[i] = w;
+        } else {
+            edgeDoubleW[i] = w;
+        }
     }
 
-    private static int extractInt(String json, String key) {
-        int keyIndex = json.indexOf(key);
-        int colonIndex = json.indexOf(':', keyIndex);
-        int commaIndex = json.indexOf(',', colonIndex);
-        int braceIndex = json.indexOf('}', colonIndex);
-        int endIndex = (commaIndex != -1 && commaIndex < braceIndex) ? commaIndex : braceIndex;
-        String value = json.substring(colonIndex + 1, endIndex).trim();
-        return Integer.parseInt(value);
+    // Widens the graph to DOUBLE weights.
+    public void addEdge(int u, int v, double w) {
+        widenWeights(WeightType.DOUBLE);
+        edgeDoubleW[appendEdge(u, v, WeightType.saturate(w))] = w;
     }
 
-    private static String extractString(String json, String key) {
-        int keyIndex = json.indexOf(key);
-        int colonIndex = json.indexOf(':', keyIndex);
-        int quoteStart = json.indexOf('"', colonIndex);
-        int quoteEnd = json.indexOf('"', quoteStart + 1);
-        return json.substring(quoteStart + 1, quoteEnd);
+    private int appendEdge(int u, int v, int w) {
+        ensureEdgeList();
+        if (numEdges == edgeU.length) {
+            int capacity = Math.max(16, edgeU.length + (edgeU.length >> 1));
+            edgeU = Arrays.copyOf(edgeU, capacity);
+            edgeV = Arrays.copyOf(edgeV, capacity);
+            edgeW = Arrays.copyOf(edgeW, capacity);
+            if (edgeLongW != null) {
+                edgeLongW = Arrays.copyOf(edgeLongW, capacity);
+            }
+            if (edgeDoubleW != null) {
+                edgeDoubleW = Arrays.copyOf(edgeDoubleW, capacity);
+            }
+        }
+        edgeU[numEdges] = u;
+        edgeV[numEdges] = v;
+        edgeW[numEdges] = w;
+        csr = null;
+        modCount++;
+        return numEdges++;
     }
 
-    private static int findMatchingBracket(String json, int start) {
-        int count = 1;
-        for (int i = start + 1; i < json.length(); i++) {
-            if (json.charAt(i) == '[') count++;
-            if (json.charAt(i) == ']') {
-                count--;
-                if (count == 0) return i;
+    private void widenWeights(WeightType type) {
+        ensureEdgeList();
+        if (weightType.widen(type) == weightType) {
+            return;
+        }
+        if (type == WeightType.LONG) {
+            edgeLongW = new long[edgeU.length];
+            for (int i = 0; i < numEdges; i++) {
+                edgeLongW[i] = edgeW[i];
             }
+        } else {
+            edgeDoubleW = new double[edgeU.length];
+            for (int i = 0; i < numEdges; i++) {
+                edgeDoubleW[i] = edgeLongW != null ? edgeLongW[i] : edgeW[i];
+            }
+            edgeLongW = null;
         }
-        return -1;
+        weightType = type;
+        csr = null;
+        modCount++;
     }
 
-    public void addEdge(int u, int v, int w) {
-        Edge edge = new Edge(u, v, w);
-        edges.add(edge);
-        if (u < adjList.size()) {
-            adjList.get(u).add(edge);
+    // Changes on every mutation; lets derived results tell whether they are stale.
+    public long getModCount() {
+        return modCount;
+    }
+
+    // Frozen adjacency used by the algorithms; rebuilt lazily after addEdge.
+    public CsrGraph toCsr() {
+        if (csr == null) {
+            switch (weightType) {
+                case LONG -> csr = CsrGraph.fromEdges(numVertices, numEdges, edgeU, edgeV, edgeLongW);
+                case DOUBLE -> csr = CsrGraph.fromEdges(numVertices, numEdges, edgeU, edgeV, edgeDoubleW);
+                default -> csr = CsrGraph.fromEdges(numVertices, numEdges, edgeU, edgeV, edgeW);
+            }
         }
+        return csr;
     }
 
     public int getNumVertices() {
         return numVertices;
     }
 
+    public int getNumEdges() {
+        return numEdges;
+    }
+
+    public int getEdgeSource(int i) {
+        ensureEdgeList();
+        return edgeU[i];
+    }
+
+    public int getEdgeTarget(int i) {
+        ensureEdgeList();
+        return edgeV[i];
+    }
+
+    // Saturated to int when the graph has wider weights.
+    public int getEdgeWeight(int i) {
+        ensureEdgeList();
+        return edgeW[i];
+    }
+
+    // Exact unless the graph has DOUBLE weights, which this rounds.
+    public long getEdgeWeightLong(int i) {
+        ensureEdgeList();
+        return switch (weightType) {
+            case LONG -> edgeLongW[i];
+            case DOUBLE -> Math.round(edgeDoubleW[i]);
+            default -> edgeW[i];
+        };
+    }
+
+    public double getEdgeWeightDouble(int i) {
+        ensureEdgeList();
+        return switch (weightType) {
+            case LONG -> edgeLongW[i];
+            case DOUBLE -> edgeDoubleW[i];
+            default -> edgeW[i];
+        };
+    }
+
+    // Narrowest primitive type that holds every edge weight.
+    public WeightType getWeightType() {
+        return weightType;
+    }
+
+    // Edge objects are materialized on access; writes to them are not stored.
     public List<Edge> getEdges() {
-        return edges;
+        ensureEdgeList();
+        return new AbstractList<Edge>() {
+            @Override
+            public Edge get(int i) {
+                Objects.checkIndex(i, numEdges);
+                return new Edge(edgeU[i], edgeV[i], edgeW[i]);
+            }
+
+            @Override
+            public int size() {
+                return numEdges;
+            }
+        };
     }
 
     public List<Edge> getNeighbors(int u) {
-        return adjList.get(u);
+        CsrGraph frozen = toCsr();
+        int start = frozen.getEdgeStart(u);
+        int end = frozen.getEdgeEnd(u);
+        return new AbstractList<Edge>() {
+            @Override
+            public Edge get(int i) {
+                Objects.checkIndex(i, end - start);
+                return new Edge(u, frozen.getTarget(start + i), frozen.getWeight(start + i));
+            }
+
+            @Override
+            public int size() {
+                return end - start;
+            }
+        };
     }
 
     public Integer getSource() {
@@ -138,4 +333,19 @@ public class Graph {
     public String getWeightModel() {
         return weightModel;
     }
+
+    // One weight per vertex under the "node" weight model, null otherwise.
+    public int[] getNodeWeights() {
+        return nodeWeights;
+    }
+
+    // Switches the graph to the "node" weight model; edge weights are kept.
+    public void setNodeWeights(int[] weights) {
+        if (weights.length != numVertices) {
+            throw new IllegalArgumentException("Expected " + numVertices + " node weights, got " + weights.length);
+        }
+        nodeWeights = weights;
+        weightModel = NODE_WEIGHT_MODEL;
+        modCount++;
+    }
 }
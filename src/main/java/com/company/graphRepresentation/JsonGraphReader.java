@@ -0,0 +1,736 @@
+package com.company.graphRepresentation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// Single-pass streaming reader for the graph JSON format. The document goes
+// through one reusable byte buffer and edge triples are appended straight to
+// primitive arrays, so peak memory is the edge arrays, not the file text.
+// "n", "source" and "weight_model" are taken from their first occurrence
+// outside the edges array, wherever that is in the document. Under the "node"
+// weight model a "durations" array of n ints gives each vertex its weight;
+// without one every vertex weighs 1. Edge weights stay in an int[] while
+// they fit; the first one that does not moves them to a long[], the first
+// fraction or exponent to a double[] (see WeightType).
+//
+// When reading a FileChannel with parallelism > 1, the edges array is split
+// into byte ranges that are parsed by fork-join workers, each with its own
+// reader and edge arrays. A range owns the edge objects whose '{' lies in it;
+// workers align themselves on the next '{', and the ranges are only accepted
+// if every range starts exactly where the previous one stopped. Otherwise
+// (e.g. nested objects inside edges) the array is re-read sequentially.
+class JsonGraphReader {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final long MIN_CHUNK_BYTES = 1 << 20;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private static final int KEY_OTHER = 0;
+    private static final int KEY_N = 1;
+    private static final int KEY_SOURCE = 2;
+    private static final int KEY_WEIGHT_MODEL = 3;
+    private static final int KEY_EDGES = 4;
+    private static final int KEY_U = 5;
+    private static final int KEY_V = 6;
+    private static final int KEY_W = 7;
+    private static final int KEY_DURATIONS = 8;
+
+    private static final byte[][] KEYS = {
+            null,
+            bytes("n"),
+            bytes("source"),
+            bytes("weight_model"),
+            bytes("edges"),
+            bytes("u"),
+            bytes("v"),
+            bytes("w"),
+            bytes("durations")
+    };
+
+    private final InputStream in;
+    private final FileChannel channel;
+    private final int parallelism;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final ByteBuffer channelBuffer = ByteBuffer.wrap(buffer);
+    private final byte[] keyBuffer = new byte[32];
+    private int pos;
+    private int limit;
+    private long consumed;
+
+    private int n = -1;
+    private Integer source;
+    private String weightModel;
+    private int[] durations;
+    private int numDurations;
+    private boolean edgesSeen;
+    private int numEdges;
+    private int[] edgeU = new int[1024];
+    private int[] edgeV = new int[1024];
+    private int[] edgeW = new int[1024];
+    // Replace edgeW once a weight needs them; see widenTo.
+    private WeightType weightType = WeightType.INT;
+    private long[] edgeLongW;
+    private double[] edgeDoubleW;
+    private final byte[] numberBuffer = new byte[64];
+    private long longValue;
+    private double doubleValue;
+
+    // Outcome of parseEdgeRange: where the range's first object starts, where
+    // parsing stopped, and the offset of the closing ']' if it was reached.
+    private long firstStart = -1;
+    private long stopAt = -1;
+    private long arrayEnd = -1;
+
+    JsonGraphReader(InputStream in) {
+        this.in = in;
+        this.channel = null;
+        this.parallelism = 1;
+    }
+
+    JsonGraphReader(FileChannel channel, int parallelism) {
+        this.in = null;
+        this.channel = channel;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    Graph read() throws IOException {
+        parseValue(KEY_OTHER);
+        if (peekNonWhitespace() != -1) {
+            throw error("trailing content after the document");
+        }
+        if (n < 0) {
+            throw new IOException("Graph JSON has no \"n\" field");
+        }
+        Graph graph = new Graph(n, numEdges, edgeU, edgeV, edgeW, edgeLongW, edgeDoubleW,
+                source != null ? source : 0,
+                weightModel != null ? weightModel : "edge");
+        if (Graph.NODE_WEIGHT_MODEL.equals(weightModel)) {
+            if (durations == null) {
+                int[] unit = new int[n];
+                Arrays.fill(unit, 1);
+                graph.setNodeWeights(unit);
+            } else if (numDurations != n) {
+                throw new IOException("\"durations\" has " + numDurations + " entries, expected " + n);
+            } else {
+                graph.setNodeWeights(Arrays.copyOf(durations, n));
+            }
+        }
+        return graph;
+    }
+
+    private void parseValue(int key) throws IOException {
+        int c = peekNonWhitespace();
+        switch (c) {
+            case '{':
+                parseObject();
+                break;
+            case '[':
+                if (key == KEY_EDGES && !edgesSeen) {
+                    edgesSeen = true;
+                    if (channel != null && parallelism > 1) {
+                        parseEdgesParallel();
+                    } else {
+                        parseEdges();
+                    }
+                } else if (key == KEY_DURATIONS && durations == null) {
+                    parseDurations();
+                } else {
+                    parseArray();
+                }
+                break;
+            case '"':
+                if (key == KEY_WEIGHT_MODEL && weightModel == null) {
+                    weightModel = readString();
+                } else {
+                    skipString();
+                }
+                break;
+            case 't':
+            case 'f':
+            case 'n':
+                skipLiteral();
+                break;
+            default:
+                if (key == KEY_N && n < 0) {
+                    n = readInt();
+                } else if (key == KEY_SOURCE && source == null) {
+                    source = readInt();
+                } else {
+                    skipNumber();
+                }
+        }
+    }
+
+    private void parseObject() throws IOException {
+        expect('{');
+        if (peekNonWhitespace() == '}') {
+            pos++;
+            return;
+        }
+        while (true) {
+            int key = readKey();
+            expect(':');
+            parseValue(key);
+            int c = nextNonWhitespace();
+            if (c == '}') {
+                return;
+            }
+            if (c != ',') {
+                throw error("expected ',' or '}'");
+            }
+        }
+    }
+
+    private void parseArray() throws IOException {
+        expect('[');
+        if (peekNonWhitespace() == ']') {
+            pos++;
+            return;
+        }
+        while (true) {
+            parseValue(KEY_OTHER);
+            int c = nextNonWhitespace();
+            if (c == ']') {
+                return;
+            }
+            if (c != ',') {
+                throw error("expected ',' or ']'");
+            }
+        }
+    }
+
+    private void parseEdges() throws IOException {
+        expect('[');
+        if (peekNonWhitespace() == ']') {
+            pos++;
+            return;
+        }
+        while (true) {
+            parseEdge();
+            int c = nextNonWhitespace();
+            if (c == ']') {
+                return;
+            }
+            if (c != ',') {
+                throw error("expected ',' or ']' in edges");
+            }
+        }
+    }
+
+    private void parseDurations() throws IOException {
+        expect('[');
+        durations = new int[16];
+        if (peekNonWhitespace() == ']') {
+            pos++;
+            return;
+        }
+        while (true) {
+            if (numDurations == durations.length) {
+                durations = Arrays.copyOf(durations, numDurations * 2);
+            }
+            durations[numDurations++] = readInt();
+            int c = nextNonWhitespace();
+            if (c == ']') {
+                return;
+            }
+            if (c != ',') {
+                throw error("expected ',' or ']' in durations");
+            }
+        }
+    }
+
+    private void parseEdgesParallel() throws IOException {
+        expect('[');
+        long arrayStart = offset();
+        long remaining = channel.size() - arrayStart;
+        int chunks = (int) Math.min((long) parallelism * CHUNKS_PER_THREAD, remaining / MIN_CHUNK_BYTES);
+        if (chunks < 2) {
+            parseEdgeRange(arrayStart, Long.MAX_VALUE);
+            seek(arrayEnd + 1);
+            return;
+        }
+
+        long chunkBytes = remaining / chunks;
+        List<Callable<JsonGraphReader>> tasks = new ArrayList<>();
+        for (int i = 0; i < chunks; i++) {
+            long start = arrayStart + i * chunkBytes;
+            long end = i == chunks - 1 ? Long.MAX_VALUE : start + chunkBytes;
+            tasks.add(() -> {
+                JsonGraphReader worker = new JsonGraphReader(channel, 1);
+                try {
+                    worker.parseEdgeRange(start, end);
+                } catch (IOException e) {
+                    // Ranges past the end of the array may land on other content.
+                    worker.stopAt = -1;
+                }
+                return worker;
+            });
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<JsonGraphReader> parts = new ArrayList<>();
+            long expectedStart = arrayStart;
+            for (Future<JsonGraphReader> future : pool.invokeAll(tasks)) {
+                JsonGraphReader part = future.get();
+                boolean aligned = part.stopAt >= 0
+                        && (parts.isEmpty() || part.firstStart == expectedStart);
+                if (!aligned) {
+                    parts = null;
+                    break;
+                }
+                parts.add(part);
+                if (part.arrayEnd >= 0) {
+                    break;
+                }
+                expectedStart = part.stopAt;
+            }
+
+            if (parts == null || parts.get(parts.size() - 1).arrayEnd < 0) {
+                seek(arrayStart);
+                parseEdgeRange(arrayStart, Long.MAX_VALUE);
+            } else {
+                mergeParts(parts, pool);
+                arrayEnd = parts.get(parts.size() - 1).arrayEnd;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading edges", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Parallel edge parsing failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        seek(arrayEnd + 1);
+    }
+
+    // Parses the edge objects whose '{' lies in [start, end). The range before
+    // the first '{' (or ']') belongs to the previous range and is skipped.
+    private void parseEdgeRange(long start, long end) throws IOException {
+        seek(start);
+        int c = peek();
+        while (c != '{' && c != ']') {
+            if (c == -1) {
+                throw error("unterminated edges array");
+            }
+            pos++;
+            c = peek();
+        }
+        firstStart = offset();
+        while (true) {
+            c = peekNonWhitespace();
+            long at = offset();
+            if (c == ']') {
+                arrayEnd = at;
+                stopAt = at;
+                return;
+            }
+            if (c != '{') {
+                throw error("expected '{' or ']' in edges");
+            }
+            if (at >= end) {
+                stopAt = at;
+                return;
+            }
+            parseEdge();
+            c = nextNonWhitespace();
+            if (c == ']') {
+                arrayEnd = offset() - 1;
+                stopAt = arrayEnd;
+                return;
+            }
+            if (c != ',') {
+                throw error("expected ',' or ']' in edges");
+            }
+        }
+    }
+
+    private void mergeParts(List<JsonGraphReader> parts, ForkJoinPool pool)
+            throws InterruptedException, ExecutionException {
+        int total = numEdges;
+        WeightType widest = weightType;
+        for (JsonGraphReader part : parts) {
+            total = Math.addExact(total, part.numEdges);
+            widest = widest.widen(part.weightType);
+        }
+        WeightType type = widest;
+        widenTo(type);
+        int capacity = Math.max(total, 1);
+        int[] mergedU = Arrays.copyOf(edgeU, capacity);
+        int[] mergedV = Arrays.copyOf(edgeV, capacity);
+        int[] mergedW = type == WeightType.INT ? Arrays.copyOf(edgeW, capacity) : null;
+        long[] mergedLongW = type == WeightType.LONG ? Arrays.copyOf(edgeLongW, capacity) : null;
+        double[] mergedDoubleW = type == WeightType.DOUBLE ? Arrays.copyOf(edgeDoubleW, capacity) : null;
+
+        List<Callable<Void>> copies = new ArrayList<>();
+        int at = numEdges;
+        for (JsonGraphReader part : parts) {
+            int destination = at;
+            copies.add(() -> {
+                part.widenTo(type);
+                System.arraycopy(part.edgeU, 0, mergedU, destination, part.numEdges);
+                System.arraycopy(part.edgeV, 0, mergedV, destination, part.numEdges);
+                switch (type) {
+                    case LONG -> System.arraycopy(part.edgeLongW, 0, mergedLongW, destination, part.numEdges);
+                    case DOUBLE -> System.arraycopy(part.edgeDoubleW, 0, mergedDoubleW, destination, part.numEdges);
+                    default -> System.arraycopy(part.edgeW, 0, mergedW, destination, part.numEdges);
+                }
+                return null;
+            });
+            at += part.numEdges;
+        }
+        for (Future<Void> future : pool.invokeAll(copies)) {
+            future.get();
+        }
+
+        edgeU = mergedU;
+        edgeV = mergedV;
+        edgeW = mergedW;
+        edgeLongW = mergedLongW;
+        edgeDoubleW = mergedDoubleW;
+        numEdges = total;
+    }
+
+    private void parseEdge() throws IOException {
+        expect('{');
+        int u = -1;
+        int v = -1;
+        WeightType w = WeightType.INT;
+        longValue = 1;
+        while (true) {
+            int key = readKey();
+            expect(':');
+            if (key == KEY_U) {
+                u = readInt();
+            } else if (key == KEY_V) {
+                v = readInt();
+            } else if (key == KEY_W) {
+                w = readWeight();
+            } else {
+                parseValue(KEY_OTHER);
+            }
+            int c = nextNonWhitespace();
+            if (c == '}') {
+                break;
+            }
+            if (c != ',') {
+                throw error("expected ',' or '}' in edge");
+            }
+        }
+        if (u < 0 || v < 0) {
+            throw error("edge without \"u\"/\"v\"");
+        }
+        addEdge(u, v, w);
+    }
+
+    // w is the type readWeight returned; the value is in longValue / doubleValue.
+    private void addEdge(int u, int v, WeightType w) {
+        if (w != WeightType.INT) {
+            widenTo(w);
+        }
+        if (numEdges == edgeU.length) {
+            int capacity = edgeU.length + (edgeU.length >> 1);
+            edgeU = Arrays.copyOf(edgeU, capacity);
+            edgeV = Arrays.copyOf(edgeV, capacity);
+            switch (weightType) {
+                case LONG -> edgeLongW = Arrays.copyOf(edgeLongW, capacity);
+                case DOUBLE -> edgeDoubleW = Arrays.copyOf(edgeDoubleW, capacity);
+                default -> edgeW = Arrays.copyOf(edgeW, capacity);
+            }
+        }
+        edgeU[numEdges] = u;
+        edgeV[numEdges] = v;
+        switch (weightType) {
+            case LONG -> edgeLongW[numEdges] = longValue;
+            case DOUBLE -> edgeDoubleW[numEdges] = w == WeightType.DOUBLE ? doubleValue : longValue;
+            default -> edgeW[numEdges] = (int) longValue;
+        }
+        numEdges++;
+    }
+
+    // Moves the weights read so far into the array of a wider type; only the
+    // array of the current type is kept.
+    private void widenTo(WeightType type) {
+        if (weightType.widen(type) == weightType) {
+            return;
+        }
+        int capacity = edgeU.length;
+        if (type == WeightType.LONG) {
+            edgeLongW = new long[capacity];
+            for (int i = 0; i < numEdges; i++) {
+                edgeLongW[i] = edgeW[i];
+            }
+        } else {
+            edgeDoubleW = new double[capacity];
+            for (int i = 0; i < numEdges; i++) {
+                edgeDoubleW[i] = weightType == WeightType.LONG ? edgeLongW[i] : edgeW[i];
+            }
+            edgeLongW = null;
+        }
+        edgeW = null;
+        weightType = type;
+    }
+
+    // Matches the key against the known names without building a String.
+    private int readKey() throws IOException {
+        if (nextNonWhitespace() != '"') {
+            throw error("expected a key");
+        }
+        int length = 0;
+        boolean overflow = false;
+        while (true) {
+            int c = next();
+            if (c == -1) {
+                throw error("unterminated key");
+            }
+            if (c == '"') {
+                break;
+            }
+            if (c == '\\') {
+                next();
+                overflow = true;
+            } else if (length < keyBuffer.length) {
+                keyBuffer[length++] = (byte) c;
+            } else {
+                overflow = true;
+            }
+        }
+        if (overflow) {
+            return KEY_OTHER;
+        }
+        for (int key = 1; key < KEYS.length; key++) {
+            if (Arrays.equals(keyBuffer, 0, length, KEYS[key], 0, KEYS[key].length)) {
+                return key;
+            }
+        }
+        return KEY_OTHER;
+    }
+
+    private String readString() throws IOException {
+        expect('"');
+        StringBuilder sb = new StringBuilder();
+        while (true) {
+            int c = next();
+            if (c == -1) {
+                throw error("unterminated string");
+            }
+            if (c == '"') {
+                break;
+            }
+            if (c == '\\') {
+                c = next();
+            }
+            sb.append((char) c);
+        }
+        return sb.toString();
+    }
+
+    private void skipString() throws IOException {
+        expect('"');
+        while (true) {
+            int c = next();
+            if (c == -1) {
+                throw error("unterminated string");
+            }
+            if (c == '"') {
+                return;
+            }
+            if (c == '\\') {
+                next();
+            }
+        }
+    }
+
+    private void skipLiteral() throws IOException {
+        while (Character.isLetter(peek())) {
+            pos++;
+        }
+    }
+
+    private void skipNumber() throws IOException {
+        int c = peek();
+        if (c != '-' && (c < '0' || c > '9')) {
+            throw error("unexpected character '" + (char) c + "'");
+        }
+        while (true) {
+            c = peek();
+            if ((c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E') {
+                pos++;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private int readInt() throws IOException {
+        int c = peekNonWhitespace();
+        boolean negative = c == '-';
+        if (negative) {
+            pos++;
+            c = peek();
+        }
+        if (c < '0' || c > '9') {
+            throw error("expected an integer");
+        }
+        long value = 0;
+        while (c >= '0' && c <= '9') {
+            value = value * 10 + (c - '0');
+            if (value > Integer.MAX_VALUE + 1L) {
+                throw error("integer out of range");
+            }
+            pos++;
+            c = peek();
+        }
+        if (c == '.' || c == 'e' || c == 'E') {
+            throw error("expected an integer");
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw error("integer out of range");
+        }
+        return (int) value;
+    }
+
+    // Reads a number into longValue (INT or LONG, by range) or doubleValue
+    // (DOUBLE, for any fraction or exponent) and returns its type. Integers
+    // accumulate negatively so that Long.MIN_VALUE parses; the characters
+    // are kept in numberBuffer in case the number turns out to be a double.
+    private WeightType readWeight() throws IOException {
+        int c = peekNonWhitespace();
+        int length = 0;
+        boolean negative = c == '-';
+        if (negative) {
+            numberBuffer[length++] = '-';
+            pos++;
+            c = peek();
+        }
+        if (c < '0' || c > '9') {
+            throw error("expected a number");
+        }
+        long value = 0;
+        while (c >= '0' && c <= '9') {
+            if (length == numberBuffer.length) {
+                throw error("number too long");
+            }
+            numberBuffer[length++] = (byte) c;
+            int digit = c - '0';
+            if (value < (Long.MIN_VALUE + digit) / 10) {
+                throw error("integer out of range");
+            }
+            value = value * 10 - digit;
+            pos++;
+            c = peek();
+        }
+        if (c == '.' || c == 'e' || c == 'E') {
+            while ((c >= '0' && c <= '9') || c == '.' || c == 'e' || c == 'E' || c == '-' || c == '+') {
+                if (length == numberBuffer.length) {
+                    throw error("number too long");
+                }
+                numberBuffer[length++] = (byte) c;
+                pos++;
+                c = peek();
+            }
+            try {
+                doubleValue = Double.parseDouble(new String(numberBuffer, 0, length, StandardCharsets.US_ASCII));
+            } catch (NumberFormatException e) {
+                throw error("malformed number");
+            }
+            return WeightType.DOUBLE;
+        }
+        if (!negative) {
+            if (value == Long.MIN_VALUE) {
+                throw error("integer out of range");
+            }
+            value = -value;
+        }
+        longValue = value;
+        return value == (int) value ? WeightType.INT : WeightType.LONG;
+    }
+
+    private void expect(char expected) throws IOException {
+        if (nextNonWhitespace() != expected) {
+            throw error("expected '" + expected + "'");
+        }
+    }
+
+    private int nextNonWhitespace() throws IOException {
+        int c = peekNonWhitespace();
+        if (c != -1) {
+            pos++;
+        }
+        return c;
+    }
+
+    private int peekNonWhitespace() throws IOException {
+        while (true) {
+            int c = peek();
+            if (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                pos++;
+            } else {
+                return c;
+            }
+        }
+    }
+
+    private int next() throws IOException {
+        int c = peek();
+        if (c != -1) {
+            pos++;
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        return buffer[pos] & 0xFF;
+    }
+
+    private boolean fill() throws IOException {
+        consumed += limit;
+        pos = 0;
+        limit = 0;
+        int read;
+        if (channel != null) {
+            channelBuffer.clear();
+            read = channel.read(channelBuffer, consumed);
+        } else {
+            do {
+                read = in.read(buffer, 0, buffer.length);
+            } while (read == 0);
+        }
+        if (read < 0) {
+            return false;
+        }
+        limit = read;
+        return true;
+    }
+
+    private long offset() {
+        return consumed + pos;
+    }
+
+    private void seek(long offset) {
+        consumed = offset;
+        pos = 0;
+        limit = 0;
+    }
+
+    private IOException error(String message) {
+        return new IOException("Malformed graph JSON at byte " + offset() + ": " + message);
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,565 @@
+package com.company.graphRepresentation;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Seeded synthetic graphs produced one vertex at a time. The out-edges of a
+// vertex are a pure function of (seed, vertex), so the JSON and binary writers
+// stream them straight to disk without holding the graph, and the same
+// arguments always give the same file.
+//
+// Vertices are laid out in a hidden order ("positions") and relabelled with the
+// bijection label = (a * position + b) mod n, so label order says nothing about
+// the topological order.
+//   DAG      - every edge goes to a later position.
+//   CYCLIC   - positions are cut into blocks whose sizes follow sccSizes; each
+//              block of two or more vertices is closed by a ring, so the SCCs
+//              are exactly the blocks. Other edges stay in the block or go forward.
+//   DENSE    - out-edges to distinct random vertices; about m / n^2 of all pairs.
+//   LAYERED  - layers of equal width; edges go to the next layer, sometimes
+//              skipping up to MAX_SKIP layers, like a staged task graph.
+public class SyntheticGraphGenerator {
+    public enum Type {DAG, CYCLIC, DENSE, LAYERED}
+
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+    private static final double INTRA_FRACTION = 0.25;
+    private static final double SKIP_FRACTION = 0.25;
+    private static final int MAX_SKIP = 3;
+    private static final int SELECTION_RATIO = 8;
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private final Type type;
+    private final int numVertices;
+    private final long numEdges;
+    private final long seed;
+    private String sccSizes = "power:2.5:1:1000";
+    private int layers;
+    private int maxWeight = 10;
+
+    private boolean prepared;
+    private long multiplier;
+    private long increment;
+    private long inverse;
+    private int[] blockStart;
+    private long spreadEdges;
+    private int spreadSlots;
+    private long state;
+
+    public SyntheticGraphGenerator(Type type, int numVertices, long numEdges, long seed) {
+        if (numVertices < 2) {
+            throw new IllegalArgumentException("numVertices must be at least 2");
+        }
+        if (numEdges < 0 || numEdges > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("numEdges must be between 0 and " + Integer.MAX_VALUE);
+        }
+        this.type = type;
+        this.numVertices = numVertices;
+        this.numEdges = numEdges;
+        this.seed = seed;
+        this.layers = (int) Math.max(2, Math.min(numVertices, Math.round(Math.sqrt(numVertices))));
+    }
+
+    // Average out-degree 8 for sparse types, half of all pairs for DENSE.
+    public static int defaultVertices(Type type, long numEdges) {
+        long n = type == Type.DENSE ? (long) Math.ceil(Math.sqrt(2.0 * numEdges)) + 1 : numEdges / 8;
+        return (int) Math.max(2, Math.min(Integer.MAX_VALUE - 1, n));
+    }
+
+    // "fixed:K", "uniform:MIN:MAX" or "power:ALPHA:MIN:MAX" (truncated power law).
+    public SyntheticGraphGenerator sccSizes(String spec) {
+        this.sccSizes = spec;
+        this.prepared = false;
+        return this;
+    }
+
+    public SyntheticGraphGenerator layers(int layers) {
+        if (layers < 2 || layers > numVertices) {
+            throw new IllegalArgumentException("layers must be between 2 and numVertices");
+        }
+        this.layers = layers;
+        this.prepared = false;
+        return this;
+    }
+
+    public SyntheticGraphGenerator maxWeight(int maxWeight) {
+        if (maxWeight < 1) {
+            throw new IllegalArgumentException("maxWeight must be positive");
+        }
+        this.maxWeight = maxWeight;
+        return this;
+    }
+
+    public int getNumVertices() {
+        return numVertices;
+    }
+
+    public long getNumEdges() {
+        return numEdges;
+    }
+
+    public int getSource() {
+        prepare();
+        return label(0);
+    }
+
+    // Number of SCCs a CYCLIC graph will have; n for the acyclic types.
+    public int getNumComponents() {
+        prepare();
+        return type == Type.CYCLIC ? blockStart.length - 1 : numVertices;
+    }
+
+    public void write(Path path) throws IOException {
+        if (path.getFileName().toString().endsWith(BinaryGraphFormat.EXTENSION)) {
+            writeBinary(path);
+        } else {
+            writeJson(path);
+        }
+    }
+
+    public void writeJson(Path path) throws IOException {
+        prepare();
+        int[] targets = new int[maxDegree()];
+        int[] weights = new int[targets.length];
+        try (AsciiWriter out = new AsciiWriter(Files.newOutputStream(path))) {
+            out.append("{\n  \"directed\": true,\n  \"n\": ").append(numVertices).append(",\n  \"edges\": [");
+            boolean first = true;
+            for (int u = 0; u < numVertices; u++) {
+                int count = edgesOf(u, targets, weights);
+                for (int k = 0; k < count; k++) {
+                    out.append(first ? "\n    {\"u\": " : ",\n    {\"u\": ").append(u)
+                            .append(", \"v\": ").append(targets[k])
+                            .append(", \"w\": ").append(weights[k]).append('}');
+                    first = false;
+                }
+            }
+            out.append("\n  ],\n  \"source\": ").append(getSource())
+                    .append(",\n  \"weight_model\": \"edge\"\n}\n");
+        }
+    }
+
+    // Offsets are streamed from the closed-form degrees; targets and weights come
+    // from one generation pass written at their two regions of the file.
+    public void writeBinary(Path path) throws IOException {
+        prepare();
+        int m = (int) numEdges;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long offsetsAt = BinaryGraphFormat.writeHeader(channel, numVertices, m, getSource(), "edge");
+            long targetsAt = offsetsAt + 4L * (numVertices + 1);
+            long weightsAt = targetsAt + 4L * m;
+
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            long offsetsEnd = offsetsAt;
+            int offset = 0;
+            for (int u = 0; u <= numVertices; u++) {
+                if (!buffer.hasRemaining()) {
+                    offsetsEnd = flush(channel, buffer, offsetsEnd);
+                }
+                buffer.putInt(offset);
+                if (u < numVertices) {
+                    offset += degree(position(u));
+                }
+            }
+            flush(channel, buffer, offsetsEnd);
+
+            ByteBuffer weightBuffer = ByteBuffer.allocate(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            int[] targets = new int[maxDegree()];
+            int[] weights = new int[targets.length];
+            for (int u = 0; u < numVertices; u++) {
+                int count = edgesOf(u, targets, weights);
+                for (int k = 0; k < count; k++) {
+                    if (!buffer.hasRemaining()) {
+                        targetsAt = flush(channel, buffer, targetsAt);
+                        weightsAt = flush(channel, weightBuffer, weightsAt);
+                    }
+                    buffer.putInt(targets[k]);
+                    weightBuffer.putInt(weights[k]);
+                }
+            }
+            flush(channel, buffer, targetsAt);
+            flush(channel, weightBuffer, weightsAt);
+        }
+    }
+
+    // In-memory build for tests and small benchmark fixtures.
+    public Graph toGraph() {
+        prepare();
+        int m = (int) numEdges;
+        int[] offsets = new int[numVertices + 1];
+        for (int u = 0; u < numVertices; u++) {
+            offsets[u + 1] = offsets[u] + degree(position(u));
+        }
+        int[] targets = new int[m];
+        int[] weights = new int[m];
+        int[] vs = new int[maxDegree()];
+        int[] ws = new int[vs.length];
+        for (int u = 0; u < numVertices; u++) {
+            int count = edgesOf(u, vs, ws);
+            System.arraycopy(vs, 0, targets, offsets[u], count);
+            System.arraycopy(ws, 0, weights, offsets[u], count);
+        }
+        return new Graph(new CsrGraph(numVertices, offsets, targets, weights), getSource(), "edge");
+    }
+
+    private void prepare() {
+        if (prepared) {
+            return;
+        }
+        long n = numVertices;
+        state = seed;
+        do {
+            multiplier = 1 + nextInt(numVertices - 1);
+        } while (gcd(multiplier, n) != 1);
+        increment = nextInt(numVertices);
+        inverse = modInverse(multiplier, n);
+
+        long capacity;
+        long ringEdges = 0;
+        switch (type) {
+            case DAG:
+                spreadSlots = numVertices - 1;
+                capacity = n * (n - 1) / 2;
+                break;
+            case CYCLIC:
+                blockStart = buildBlocks();
+                for (int b = 0; b + 1 < blockStart.length; b++) {
+                    int size = blockStart[b + 1] - blockStart[b];
+                    if (size > 1) {
+                        ringEdges += size;
+                    }
+                }
+                spreadSlots = numVertices - 1;
+                capacity = n * (n - 1);
+                break;
+            case DENSE:
+                spreadSlots = numVertices;
+                capacity = n * (n - 1);
+                break;
+            default:
+                spreadSlots = layerStart(layers - 1);
+                capacity = Long.MAX_VALUE;
+                break;
+        }
+        if (numEdges < ringEdges) {
+            throw new IllegalArgumentException("numEdges is below the " + ringEdges + " ring edges the SCC layout needs");
+        }
+        if (numEdges > capacity) {
+            throw new IllegalArgumentException("numEdges exceeds the " + capacity + " edges a " + type + " graph on "
+                    + numVertices + " vertices can hold");
+        }
+        spreadEdges = numEdges - ringEdges;
+        prepared = true;
+    }
+
+    private int[] buildBlocks() {
+        String[] parts = sccSizes.split(":");
+        int[] starts = new int[16];
+        int count = 0;
+        state = seed ^ 0x5CC5CC5CC5CC5CCL;
+        for (int start = 0; start < numVertices; ) {
+            if (count + 1 >= starts.length) {
+                starts = Arrays.copyOf(starts, starts.length * 2);
+            }
+            starts[count++] = start;
+            start += Math.min(numVertices - start, blockSize(parts));
+        }
+        starts = Arrays.copyOf(starts, count + 1);
+        starts[count] = numVertices;
+        return starts;
+    }
+
+    private int blockSize(String[] spec) {
+        try {
+            switch (spec[0]) {
+                case "fixed":
+                    return Math.max(1, Integer.parseInt(spec[1]));
+                case "uniform": {
+                    int min = Math.max(1, Integer.parseInt(spec[1]));
+                    int max = Math.max(min, Integer.parseInt(spec[2]));
+                    return min + nextInt(max - min + 1);
+                }
+                case "power": {
+                    double alpha = Double.parseDouble(spec[1]);
+                    double min = Math.max(1, Integer.parseInt(spec[2]));
+                    double max = Math.max(min, Integer.parseInt(spec[3]) + 1);
+                    double u = nextDouble();
+                    double size;
+                    if (Math.abs(alpha - 1) < 1e-9) {
+                        size = min * Math.pow(max / min, u);
+                    } else {
+                        double low = Math.pow(min, 1 - alpha);
+                        double high = Math.pow(max, 1 - alpha);
+                        size = Math.pow(low + u * (high - low), 1 / (1 - alpha));
+                    }
+                    return (int) Math.min(max - 1, Math.floor(size));
+                }
+                default:
+                    break;
+            }
+        } catch (RuntimeException e) {
+            // fall through to the error below
+        }
+        throw new IllegalArgumentException("Bad SCC size spec '" + sccSizes
+                + "', expected fixed:K, uniform:MIN:MAX or power:ALPHA:MIN:MAX");
+    }
+
+    private int maxDegree() {
+        int spread = spreadSlots == 0 ? 0 : (int) ((spreadEdges + spreadSlots - 1) / spreadSlots);
+        return spread + 1;
+    }
+
+    // Edges spread evenly over positions [0, spreadSlots), plus the ring edge.
+    private int degree(int position) {
+        int degree = 0;
+        if (position < spreadSlots) {
+            degree = (int) ((position + 1) * spreadEdges / spreadSlots - position * spreadEdges / spreadSlots);
+        }
+        if (type == Type.CYCLIC) {
+            int block = blockOf(position);
+            if (blockStart[block + 1] - blockStart[block] > 1) {
+                degree++;
+            }
+        }
+        return degree;
+    }
+
+    private int edgesOf(int u, int[] targets, int[] weights) {
+        int position = position(u);
+        int degree = degree(position);
+        // Hash the start state so neighboring vertices do not share a stream.
+        state = seed + GOLDEN * (position + 1L);
+        state = nextLong();
+        int count = 0;
+        switch (type) {
+            case DAG:
+                count = pick(position + 1, numVertices, -1, degree, targets, 0);
+                break;
+            case DENSE:
+                count = pick(0, numVertices, position, degree, targets, 0);
+                break;
+            case CYCLIC: {
+                int block = blockOf(position);
+                int start = blockStart[block];
+                int end = blockStart[block + 1];
+                if (end - start > 1) {
+                    targets[count++] = position + 1 < end ? position + 1 : start;
+                    degree--;
+                }
+                int intra = 0;
+                if (end - start > 1) {
+                    if (end == numVertices) {
+                        intra = degree;
+                    } else {
+                        for (int k = 0; k < degree; k++) {
+                            if (nextDouble() < INTRA_FRACTION) {
+                                intra++;
+                            }
+                        }
+                    }
+                }
+                count += pick(start, end, position, intra, targets, count);
+                count += pick(end, numVertices, -1, degree - intra, targets, count);
+                break;
+            }
+            default: {
+                int layer = layerOf(position);
+                int skips = 0;
+                int room = Math.min(MAX_SKIP, layers - 2 - layer);
+                if (room > 0) {
+                    for (int k = 0; k < degree; k++) {
+                        if (nextDouble() < SKIP_FRACTION) {
+                            skips++;
+                        }
+                    }
+                }
+                count = pick(layerStart(layer + 1), layerStart(layer + 2), -1, degree - skips, targets, 0);
+                for (int k = 0; k < skips; k++) {
+                    int target = layer + 2 + nextInt(room);
+                    int from = layerStart(target);
+                    targets[count++] = from + nextInt(layerStart(target + 1) - from);
+                }
+                break;
+            }
+        }
+        for (int k = 0; k < count; k++) {
+            targets[k] = label(targets[k]);
+            weights[k] = 1 + nextInt(maxWeight);
+        }
+        return count;
+    }
+
+    // count positions from [lo, hi) minus exclude: distinct while the range is
+    // at most SELECTION_RATIO times count (selection sampling), uniform with
+    // replacement above that, cycling through the range when it is smaller than count.
+    private int pick(int lo, int hi, int exclude, int count, int[] out, int at) {
+        int range = hi - lo - (exclude >= lo && exclude < hi ? 1 : 0);
+        if (count == 0 || range <= 0) {
+            return 0;
+        }
+        if (count >= range) {
+            for (int k = 0; k < count; k++) {
+                out[at + k] = skip(lo + k % range, exclude);
+            }
+        } else if ((long) SELECTION_RATIO * count > range) {
+            int needed = count;
+            int k = at;
+            for (int i = 0; needed > 0; i++) {
+                if (nextInt(range - i) < needed) {
+                    out[k++] = skip(lo + i, exclude);
+                    needed--;
+                }
+            }
+        } else {
+            for (int k = 0; k < count; k++) {
+                out[at + k] = skip(lo + nextInt(range), exclude);
+            }
+        }
+        return count;
+    }
+
+    private static int skip(int position, int exclude) {
+        return exclude >= 0 && position >= exclude ? position + 1 : position;
+    }
+
+    private int blockOf(int position) {
+        int index = Arrays.binarySearch(blockStart, position);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    private int layerStart(int layer) {
+        return (int) ((long) Math.min(layer, layers) * numVertices / layers);
+    }
+
+    private int layerOf(int position) {
+        int layer = (int) ((long) position * layers / numVertices);
+        while (layerStart(layer + 1) <= position) {
+            layer++;
+        }
+        while (layerStart(layer) > position) {
+            layer--;
+        }
+        return layer;
+    }
+
+    private int label(int position) {
+        return (int) ((multiplier * position + increment) % numVertices);
+    }
+
+    private int position(int label) {
+        return (int) (inverse * ((label - increment + numVertices) % numVertices) % numVertices);
+    }
+
+    // splitmix64
+    private long nextLong() {
+        long z = (state += GOLDEN);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private int nextInt(int bound) {
+        return (int) (((nextLong() >>> 32) * bound) >>> 32);
+    }
+
+    private double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    private static long modInverse(long a, long n) {
+        long r0 = n;
+        long r1 = a;
+        long t0 = 0;
+        long t1 = 1;
+        while (r1 != 0) {
+            long q = r0 / r1;
+            long r = r0 - q * r1;
+            r0 = r1;
+            r1 = r;
+            long t = t0 - q * t1;
+            t0 = t1;
+            t1 = t;
+        }
+        return t0 < 0 ? t0 + n : t0;
+    }
+
+    private static long flush(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        buffer.clear();
+        return position;
+    }
+
+    private static final class AsciiWriter implements AutoCloseable {
+        private final OutputStream out;
+        private final byte[] buffer = new byte[BUFFER_BYTES];
+        private int length;
+
+        AsciiWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        AsciiWriter append(String text) throws IOException {
+            for (int i = 0; i < text.length(); i++) {
+                append(text.charAt(i));
+            }
+            return this;
+        }
+
+        AsciiWriter append(char c) throws IOException {
+            if (length == buffer.length) {
+                flush();
+            }
+            buffer[length++] = (byte) c;
+            return this;
+        }
+
+        AsciiWriter append(int value) throws IOException {
+            if (value < 0) {
+                return append(Integer.toString(value));
+            }
+            if (length + 10 > buffer.length) {
+                flush();
+            }
+            int end = length + (value == 0 ? 1 : (int) Math.log10(value) + 1);
+            int i = end;
+            do {
+                buffer[--i] = (byte) ('0' + value % 10);
+                value /= 10;
+            } while (value != 0);
+            length = end;
+            return this;
+        }
+
+        private void flush() throws IOException {
+            out.write(buffer, 0, length);
+            length = 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                out.close();
+            }
+        }
+    }
+}
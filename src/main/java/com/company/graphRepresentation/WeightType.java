@@ -0,0 +1,25 @@
+package com.company.graphRepresentation;
+
+// Primitive type of the edge weights, chosen by the loader from the data:
+// INT while every weight fits an int, LONG for integers beyond that, DOUBLE
+// as soon as one weight has a fraction or an exponent. Declared narrowest
+// first, so widen() is a max over the ordinal.
+public enum WeightType {
+    INT,
+    LONG,
+    DOUBLE;
+
+    // Narrowest type that holds weights of both.
+    public WeightType widen(WeightType other) {
+        return compareTo(other) >= 0 ? this : other;
+    }
+
+    // The weight as the nearest int, for int algorithms run on wider weights.
+    static int saturate(long weight) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, weight));
+    }
+
+    static int saturate(double weight) {
+        return saturate(Math.round(weight));
+    }
+}
@@ -0,0 +1,78 @@
+package com.company.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+// Metrics for engines that count from several threads: each handle maps to a
+// LongAdder. Register handles before the parallel phase starts. The timer is
+// started and stopped per thread, so overlapping timed calls on different
+// threads do not cut into each other; getElapsedTime is the one stopped last.
+public class ConcurrentMetrics extends Metrics {
+    private volatile LongAdder[] adders = new LongAdder[8];
+    private final ThreadLocal<long[]> timerStart = ThreadLocal.withInitial(() -> new long[1]);
+    private volatile long elapsedTime;
+
+    @Override
+    public synchronized int register(String counterName) {
+        int handle = super.register(counterName);
+        LongAdder[] current = adders;
+        if (current[handle] == null) {
+            current[handle] = new LongAdder();
+            adders = current; // republish so other threads see the new slot
+        }
+        return handle;
+    }
+
+    @Override
+    protected void grow(int capacity) {
+        super.grow(capacity);
+        adders = Arrays.copyOf(adders, capacity);
+    }
+
+    @Override
+    public void increment(int handle) {
+        if (COUNTING_ENABLED) {
+            adders[handle].increment();
+        }
+    }
+
+    @Override
+    public void add(int handle, long delta) {
+        if (COUNTING_ENABLED) {
+            adders[handle].add(delta);
+        }
+    }
+
+    @Override
+    public long get(int handle) {
+        return adders[handle].sum();
+    }
+
+    @Override
+    protected void resetCounter(int handle) {
+        adders[handle].reset();
+    }
+
+    @Override
+    public void startTimer() {
+        timerStart.get()[0] = System.nanoTime();
+    }
+
+    @Override
+    public long stopTimer() {
+        long elapsed = System.nanoTime() - timerStart.get()[0];
+        elapsedTime = elapsed;
+        return elapsed;
+    }
+
+    @Override
+    public long getElapsedTime() {
+        return elapsedTime;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        elapsedTime = 0;
+    }
+}
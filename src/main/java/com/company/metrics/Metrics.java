@@ -1,23 +1,90 @@
 package com.company.metrics;
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+// Counters live in a long[] indexed by handles from register(); hot loops
+// should register once and call increment(handle). The String methods look
+// the handle up and remain for callers outside the hot path.
 public class Metrics {
-    private Map<String, Long> counters;
+    // -Dmetrics.counters=false turns every increment into a constant-false
+    // branch that the JIT removes.
+    public static final boolean COUNTING_ENABLED = !"false".equals(System.getProperty("metrics.counters"));
+
+    private final Map<String, Integer> handles;
+    private String[] names;
+    private long[] values;
+    private int size;
     private long startTime;
     private long elapsedTime;
 
     public Metrics() {
-        this.counters = new HashMap<>();
+        this.handles = new HashMap<>();
+        this.names = new String[8];
+        this.values = new long[8];
+    }
+
+    // Returns the handle for counterName, registering it on first use.
+    public synchronized int register(String counterName) {
+        Integer handle = handles.get(counterName);
+        if (handle != null) {
+            return handle;
+        }
+        if (size == names.length) {
+            grow(size * 2);
+        }
+        names[size] = counterName;
+        handles.put(counterName, size);
+        return size++;
+    }
+
+    protected void grow(int capacity) {
+        names = Arrays.copyOf(names, capacity);
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    public void increment(int handle) {
+        if (COUNTING_ENABLED) {
+            values[handle]++;
+        }
+    }
+
+    public void add(int handle, long delta) {
+        if (COUNTING_ENABLED) {
+            values[handle] += delta;
+        }
+    }
+
+    public long get(int handle) {
+        return values[handle];
     }
 
     public void incrementCounter(String counterName) {
-        counters.put(counterName, counters.getOrDefault(counterName, 0L) + 1);
+        if (COUNTING_ENABLED) {
+            increment(register(counterName));
+        }
+    }
+
+    public void addToCounter(String counterName, long delta) {
+        if (COUNTING_ENABLED) {
+            add(register(counterName), delta);
+        }
     }
 
     public long getCounter(String counterName) {
-        return counters.getOrDefault(counterName, 0L);
+        Integer handle = handles.get(counterName);
+        return handle == null ? 0L : get(handle);
+    }
+
+    // Every registered counter by name, in registration order.
+    public Map<String, Long> getCounters() {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            counters.put(names[i], get(i));
+        }
+        return counters;
     }
 
     public void startTimer() {
@@ -34,17 +101,26 @@ public class Metrics {
     }
 
     public void reset() {
-        counters.clear();
+        for (int i = 0; i < size; i++) {
+            resetCounter(i);
+        }
         startTime = 0;
         elapsedTime = 0;
     }
 
+    protected void resetCounter(int handle) {
+        values[handle] = 0;
+    }
+
     public void printMetrics() {
         System.out.println("=== Metrics ===");
-        System.out.println("Time: " + (elapsedTime / 1000000.0) + " ms");
-        for (Map.Entry<String, Long> entry : counters.entrySet()) {
-            System.out.println(entry.getKey() + ": " + entry.getValue());
+        System.out.println("Time: " + (getElapsedTime() / 1000000.0) + " ms");
+        for (int i = 0; i < size; i++) {
+            long value = get(i);
+            if (value != 0) {
+                System.out.println(names[i] + ": " + value);
+            }
         }
         System.out.println("===============");
     }
-}
\ No newline at end of file
+}
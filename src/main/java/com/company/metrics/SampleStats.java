@@ -0,0 +1,61 @@
+package com.company.metrics;
+
+import java.util.Arrays;
+
+// Summary of repeated measurements of one quantity (nanoseconds, bytes or a
+// counter). Percentiles use the nearest rank on the sorted samples, so with
+// fewer than 100 samples p99 is the maximum; stddev is the sample standard
+// deviation (n - 1), 0 for a single sample.
+public class SampleStats {
+    private final long[] sorted;
+    private final double mean;
+    private final double stddev;
+
+    public SampleStats(long[] samples) {
+        if (samples.length == 0) {
+            throw new IllegalArgumentException("No samples");
+        }
+        this.sorted = samples.clone();
+        Arrays.sort(sorted);
+        double sum = 0;
+        for (long sample : sorted) {
+            sum += sample;
+        }
+        this.mean = sum / sorted.length;
+        double squares = 0;
+        for (long sample : sorted) {
+            squares += (sample - mean) * (sample - mean);
+        }
+        this.stddev = sorted.length > 1 ? Math.sqrt(squares / (sorted.length - 1)) : 0;
+    }
+
+    public int getCount() {
+        return sorted.length;
+    }
+
+    public long getMin() {
+        return sorted[0];
+    }
+
+    public long getMax() {
+        return sorted[sorted.length - 1];
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getStddev() {
+        return stddev;
+    }
+
+    public long getMedian() {
+        return percentile(50);
+    }
+
+    // Smallest sample with at least p percent of the samples at or below it.
+    public long percentile(double p) {
+        int rank = (int) Math.ceil(p / 100 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+}
@@ -0,0 +1,166 @@
+package com.company.metrics.resultWriter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Compares a run of MacroBenchmark against a stored baseline, row by row on
+// dataset and phase. The mean time and mean allocated bytes regress when they
+// grow by more than both
+//   threshold * baseline mean                         (relative floor)
+//   sigmas * sqrt(sb^2 / nb + sc^2 / nc)              (noise of the two means)
+// where s and n are the sample standard deviation and count of either side,
+// so a noisy phase needs a larger difference than a stable one, and a stable
+// phase still ignores differences below the threshold. Counters are exact,
+// so any counter that grows by more than threshold regresses. A baseline row
+// missing from the current run fails the comparison too, since a dataset or
+// phase that crashed produces no row; rows new in the current run are only
+// reported.
+public class ResultComparator {
+
+    public static final double DEFAULT_THRESHOLD = 0.05;
+    public static final double DEFAULT_SIGMAS = 3.0;
+
+    // One compared quantity of one row.
+    public static class Difference {
+        public final String dataset;
+        public final String phase;
+        public final String metric;
+        public final double baseline;
+        public final double current;
+        public final double allowed;
+        public final boolean regression;
+
+        Difference(String dataset, String phase, String metric, double baseline, double current, double allowed) {
+            this.dataset = dataset;
+            this.phase = phase;
+            this.metric = metric;
+            this.baseline = baseline;
+            this.current = current;
+            this.allowed = allowed;
+            this.regression = current - baseline > allowed;
+        }
+
+        // Relative change, 0 when the baseline is 0.
+        public double getChange() {
+            return baseline == 0 ? 0 : (current - baseline) / baseline;
+        }
+    }
+
+    private final double threshold;
+    private final double sigmas;
+    private final List<Difference> differences = new ArrayList<>();
+    private final List<String> unmatched = new ArrayList<>();
+    private int missing;
+
+    public ResultComparator() {
+        this(DEFAULT_THRESHOLD, DEFAULT_SIGMAS);
+    }
+
+    public ResultComparator(double threshold, double sigmas) {
+        if (threshold < 0 || sigmas < 0) {
+            throw new IllegalArgumentException("Threshold and sigmas must not be negative");
+        }
+        this.threshold = threshold;
+        this.sigmas = sigmas;
+    }
+
+    // Returns true when some row regressed or a baseline row is missing.
+    public boolean compare(List<ResultWriter.PhaseResult> baseline, List<ResultWriter.PhaseResult> current) {
+        differences.clear();
+        unmatched.clear();
+        missing = 0;
+        Map<String, ResultWriter.PhaseResult> byKey = new LinkedHashMap<>();
+        for (ResultWriter.PhaseResult r : baseline) {
+            byKey.put(key(r), r);
+        }
+        for (ResultWriter.PhaseResult cur : current) {
+            ResultWriter.PhaseResult base = byKey.remove(key(cur));
+            if (base == null) {
+                unmatched.add("new: " + key(cur));
+                continue;
+            }
+            differences.add(new Difference(cur.dataset, cur.phase, "time_ns", base.meanNanos, cur.meanNanos,
+                    allowed(base.meanNanos, base.stddevNanos, base.samples, cur.stddevNanos, cur.samples)));
+            differences.add(new Difference(cur.dataset, cur.phase, "alloc_bytes", base.meanAllocatedBytes,
+                    cur.meanAllocatedBytes, allowed(base.meanAllocatedBytes, base.stddevAllocatedBytes,
+                            base.samples, cur.stddevAllocatedBytes, cur.samples)));
+            for (Map.Entry<String, Long> counter : cur.counters.entrySet()) {
+                Long before = base.counters.get(counter.getKey());
+                if (before != null) {
+                    differences.add(new Difference(cur.dataset, cur.phase, counter.getKey(), before,
+                            counter.getValue(), threshold * before));
+                }
+            }
+        }
+        for (String key : byKey.keySet()) {
+            unmatched.add("missing: " + key);
+            missing++;
+        }
+        return hasRegression();
+    }
+
+    private double allowed(double baseMean, double baseStddev, int baseSamples, double curStddev, int curSamples) {
+        double noise = Math.sqrt(baseStddev * baseStddev / Math.max(1, baseSamples)
+                + curStddev * curStddev / Math.max(1, curSamples));
+        return Math.max(threshold * baseMean, sigmas * noise);
+    }
+
+    private static String key(ResultWriter.PhaseResult r) {
+        return r.dataset + "/" + r.phase;
+    }
+
+    // True when a row regressed or a baseline row is missing.
+    public boolean hasRegression() {
+        if (missing > 0) {
+            return true;
+        }
+        for (Difference d : differences) {
+            if (d.regression) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public List<Difference> getDifferences() {
+        return differences;
+    }
+
+    public List<Difference> getRegressions() {
+        List<Difference> regressions = new ArrayList<>();
+        for (Difference d : differences) {
+            if (d.regression) {
+                regressions.add(d);
+            }
+        }
+        return regressions;
+    }
+
+    // Rows found on one side only, as "new: dataset/phase" or "missing: ...".
+    public List<String> getUnmatched() {
+        return unmatched;
+    }
+
+    public void printReport() {
+        System.out.printf("%-28s %-16s %14s %14s %8s %14s%n",
+                "dataset/phase", "metric", "baseline", "current", "change", "allowed");
+        for (Difference d : differences) {
+            System.out.printf(Locale.ROOT, "%-28s %-16s %14.0f %14.0f %7.1f%% %14.0f%s%n",
+                    d.dataset + "/" + d.phase, d.metric, d.baseline, d.current, 100 * d.getChange(), d.allowed,
+                    d.regression ? "  REGRESSION" : "");
+        }
+        for (String row : unmatched) {
+            System.out.println(row);
+        }
+        int regressions = getRegressions().size();
+        if (regressions == 0 && missing == 0) {
+            System.out.println("No regressions");
+            return;
+        }
+        System.out.println(regressions + " regression" + (regressions == 1 ? "" : "s") + ", "
+                + missing + " missing row" + (missing == 1 ? "" : "s"));
+    }
+}
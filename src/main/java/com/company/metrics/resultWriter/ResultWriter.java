@@ -1,10 +1,20 @@
 package com.company.metrics.resultWriter;
 
+import com.company.algorithms.ScheduleAnalysis;
+import com.company.metrics.SampleStats;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 public class ResultWriter {
 
@@ -31,6 +41,268 @@ public class ResultWriter {
         }
     }
 
+    // Repeated measurements of one phase of the pipeline on one dataset; see
+    // MacroBenchmark. Times are in nanoseconds and allocations in bytes, both
+    // summarized over the measured iterations, which is also all that is
+    // stored, so a PhaseResult read back from a file compares like a fresh
+    // one. counters are those of the last measured iteration.
+    public static class PhaseResult {
+        public String dataset;
+        public String phase;
+        public int vertices;
+        public int edges;
+        public int samples;
+        public double medianNanos;
+        public double p90Nanos;
+        public double p99Nanos;
+        public double minNanos;
+        public double meanNanos;
+        public double stddevNanos;
+        public double meanAllocatedBytes;
+        public double stddevAllocatedBytes;
+        public Map<String, Long> counters;
+
+        public PhaseResult(String dataset, String phase) {
+            this.dataset = dataset;
+            this.phase = phase;
+            this.counters = new LinkedHashMap<>();
+        }
+
+        public void setTimes(SampleStats nanos) {
+            samples = nanos.getCount();
+            medianNanos = nanos.getMedian();
+            p90Nanos = nanos.percentile(90);
+            p99Nanos = nanos.percentile(99);
+            minNanos = nanos.getMin();
+            meanNanos = nanos.getMean();
+            stddevNanos = nanos.getStddev();
+        }
+
+        public void setAllocations(SampleStats bytes) {
+            meanAllocatedBytes = bytes.getMean();
+            stddevAllocatedBytes = bytes.getStddev();
+        }
+    }
+
+    private static final String PHASE_CSV_HEADER = "Dataset,Phase,Vertices,Edges,Samples,Median_ms,P90_ms,P99_ms,"
+            + "Min_ms,Mean_ms,Stddev_ms,Alloc_Mean_bytes,Alloc_Stddev_bytes,Counters";
+
+    // Appends PhaseResults to a file as they are produced, one line each and
+    // flushed, so an interrupted run keeps what it measured. A name ending in
+    // .jsonl gets JSON Lines, anything else CSV (counters as name=value pairs
+    // separated by ';'). Safe to share between threads.
+    public static class PhaseStream implements Closeable {
+        private final PrintWriter writer;
+        private final boolean jsonLines;
+        private final String filename;
+
+        public PhaseStream(String filename) throws IOException {
+            this.filename = filename;
+            this.jsonLines = isJsonLines(filename);
+            this.writer = new PrintWriter(new BufferedWriter(new FileWriter(filename)));
+            if (!jsonLines) {
+                writer.println(PHASE_CSV_HEADER);
+                writer.flush();
+            }
+        }
+
+        public synchronized void write(PhaseResult r) {
+            writer.println(jsonLines ? toJsonLine(r) : toCsvRow(r));
+            writer.flush();
+        }
+
+        @Override
+        public synchronized void close() {
+            writer.close();
+            System.out.println("Results written to: " + filename);
+        }
+    }
+
+    private static boolean isJsonLines(String filename) {
+        return filename.endsWith(".jsonl");
+    }
+
+    private static String toCsvRow(PhaseResult r) {
+        StringBuilder counters = new StringBuilder();
+        for (Map.Entry<String, Long> counter : r.counters.entrySet()) {
+            if (counters.length() > 0) {
+                counters.append(';');
+            }
+            counters.append(counter.getKey()).append('=').append(counter.getValue());
+        }
+        return String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%.6f,%.6f,%.6f,%.6f,%.6f,%.6f,%.0f,%.0f,%s",
+                r.dataset, r.phase, r.vertices, r.edges, r.samples,
+                r.medianNanos / 1_000_000.0, r.p90Nanos / 1_000_000.0, r.p99Nanos / 1_000_000.0,
+                r.minNanos / 1_000_000.0, r.meanNanos / 1_000_000.0, r.stddevNanos / 1_000_000.0,
+                r.meanAllocatedBytes, r.stddevAllocatedBytes, counters);
+    }
+
+    private static String toJsonLine(PhaseResult r) {
+        StringBuilder line = new StringBuilder("{");
+        line.append("\"dataset\":").append(quote(r.dataset))
+                .append(",\"phase\":").append(quote(r.phase))
+                .append(",\"vertices\":").append(r.vertices)
+                .append(",\"edges\":").append(r.edges)
+                .append(",\"samples\":").append(r.samples);
+        line.append(String.format(Locale.ROOT, ",\"median_ns\":%.1f,\"p90_ns\":%.1f,\"p99_ns\":%.1f,\"min_ns\":%.1f"
+                        + ",\"mean_ns\":%.1f,\"stddev_ns\":%.1f,\"alloc_mean_bytes\":%.1f,\"alloc_stddev_bytes\":%.1f",
+                r.medianNanos, r.p90Nanos, r.p99Nanos, r.minNanos, r.meanNanos, r.stddevNanos,
+                r.meanAllocatedBytes, r.stddevAllocatedBytes));
+        line.append(",\"counters\":{");
+        boolean first = true;
+        for (Map.Entry<String, Long> counter : r.counters.entrySet()) {
+            line.append(first ? "" : ",").append(quote(counter.getKey())).append(':').append(counter.getValue());
+            first = false;
+        }
+        return line.append("}}").toString();
+    }
+
+    private static String quote(String text) {
+        return '"' + text.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+
+    // Reads a file written by PhaseStream, in either format.
+    public static List<PhaseResult> readPhaseResults(String filename) throws IOException {
+        List<String> lines = Files.readAllLines(Paths.get(filename));
+        List<PhaseResult> results = new ArrayList<>();
+        if (isJsonLines(filename)) {
+            for (String line : lines) {
+                if (!line.isBlank()) {
+                    results.add(fromJsonLine(line));
+                }
+            }
+            return results;
+        }
+        if (lines.isEmpty() || !lines.get(0).equals(PHASE_CSV_HEADER)) {
+            throw new IOException("Not a phase result CSV: " + filename);
+        }
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.isBlank()) {
+                continue;
+            }
+            String[] cells = line.split(",", -1);
+            if (cells.length != 14) {
+                throw new IOException("Malformed row in " + filename + ": " + line);
+            }
+            PhaseResult r = new PhaseResult(cells[0], cells[1]);
+            try {
+                r.vertices = Integer.parseInt(cells[2]);
+                r.edges = Integer.parseInt(cells[3]);
+                r.samples = Integer.parseInt(cells[4]);
+                r.medianNanos = Double.parseDouble(cells[5]) * 1_000_000.0;
+                r.p90Nanos = Double.parseDouble(cells[6]) * 1_000_000.0;
+                r.p99Nanos = Double.parseDouble(cells[7]) * 1_000_000.0;
+                r.minNanos = Double.parseDouble(cells[8]) * 1_000_000.0;
+                r.meanNanos = Double.parseDouble(cells[9]) * 1_000_000.0;
+                r.stddevNanos = Double.parseDouble(cells[10]) * 1_000_000.0;
+                r.meanAllocatedBytes = Double.parseDouble(cells[11]);
+                r.stddevAllocatedBytes = Double.parseDouble(cells[12]);
+                for (String pair : cells[13].split(";")) {
+                    int eq = pair.indexOf('=');
+                    if (eq > 0) {
+                        r.counters.put(pair.substring(0, eq), Long.parseLong(pair.substring(eq + 1)));
+                    }
+                }
+            } catch (NumberFormatException e) {
+                throw new IOException("Malformed row in " + filename + ": " + line, e);
+            }
+            results.add(r);
+        }
+        return results;
+    }
+
+    // Just enough JSON for the lines toJsonLine writes: one object of string
+    // and number fields plus the flat "counters" object.
+    private static PhaseResult fromJsonLine(String line) throws IOException {
+        Map<String, String> fields = new LinkedHashMap<>();
+        Map<String, Long> counters = new LinkedHashMap<>();
+        int[] at = {0};
+        try {
+            expect(line, at, '{');
+            while (true) {
+                String key = readString(line, at);
+                expect(line, at, ':');
+                skipSpaces(line, at);
+                if (key.equals("counters")) {
+                    expect(line, at, '{');
+                    skipSpaces(line, at);
+                    if (line.charAt(at[0]) == '}') {
+                        at[0]++;
+                    } else {
+                        while (true) {
+                            String name = readString(line, at);
+                            expect(line, at, ':');
+                            counters.put(name, Long.parseLong(readNumber(line, at)));
+                            if (next(line, at) == '}') {
+                                break;
+                            }
+                        }
+                    }
+                } else {
+                    fields.put(key, line.charAt(at[0]) == '"' ? readString(line, at) : readNumber(line, at));
+                }
+                if (next(line, at) == '}') {
+                    break;
+                }
+            }
+            PhaseResult r = new PhaseResult(fields.get("dataset"), fields.get("phase"));
+            r.vertices = Integer.parseInt(fields.get("vertices"));
+            r.edges = Integer.parseInt(fields.get("edges"));
+            r.samples = Integer.parseInt(fields.get("samples"));
+            r.medianNanos = Double.parseDouble(fields.get("median_ns"));
+            r.p90Nanos = Double.parseDouble(fields.get("p90_ns"));
+            r.p99Nanos = Double.parseDouble(fields.get("p99_ns"));
+            r.minNanos = Double.parseDouble(fields.get("min_ns"));
+            r.meanNanos = Double.parseDouble(fields.get("mean_ns"));
+            r.stddevNanos = Double.parseDouble(fields.get("stddev_ns"));
+            r.meanAllocatedBytes = Double.parseDouble(fields.get("alloc_mean_bytes"));
+            r.stddevAllocatedBytes = Double.parseDouble(fields.get("alloc_stddev_bytes"));
+            r.counters.putAll(counters);
+            return r;
+        } catch (RuntimeException e) {
+            throw new IOException("Malformed JSON line: " + line, e);
+        }
+    }
+
+    private static void skipSpaces(String line, int[] at) {
+        while (Character.isWhitespace(line.charAt(at[0]))) {
+            at[0]++;
+        }
+    }
+
+    // The next non-space character, consumed: ',' or a closing brace.
+    private static char next(String line, int[] at) {
+        skipSpaces(line, at);
+        return line.charAt(at[0]++);
+    }
+
+    private static void expect(String line, int[] at, char expected) {
+        if (next(line, at) != expected) {
+            throw new IllegalArgumentException("expected '" + expected + "' at " + (at[0] - 1));
+        }
+    }
+
+    private static String readString(String line, int[] at) {
+        expect(line, at, '"');
+        StringBuilder text = new StringBuilder();
+        while (true) {
+            char c = line.charAt(at[0]++);
+            if (c == '"') {
+                return text.toString();
+            }
+            text.append(c == '\\' ? line.charAt(at[0]++) : c);
+        }
+    }
+
+    private static String readNumber(String line, int[] at) {
+        skipSpaces(line, at);
+        int start = at[0];
+        while (at[0] < line.length() && "+-.0123456789eE".indexOf(line.charAt(at[0])) >= 0) {
+            at[0]++;
+        }
+        return line.substring(start, at[0]);
+    }
+
     private List<Result> results;
 
     public ResultWriter() {
@@ -79,6 +351,40 @@ public class ResultWriter {
         }
     }
 
+    // One row per vertex: its component, duration, earliest / latest start and
+    // finish, slack and whether it is critical.
+    public static void writeScheduleCSV(String filename, ScheduleAnalysis schedule) {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(filename))) {
+            writer.println("Vertex,Component,Duration,Earliest_Start,Earliest_Finish," +
+                    "Latest_Start,Latest_Finish,Slack,Critical");
+
+            int[] componentOf = schedule.getComponentMap();
+            long[] earliestStart = schedule.getEarliestStart();
+            long[] latestStart = schedule.getLatestStart();
+            long[] slack = schedule.getSlack();
+            boolean[] critical = schedule.getCritical();
+            StringBuilder row = new StringBuilder();
+            for (int v = 0; v < componentOf.length; v++) {
+                row.setLength(0);
+                row.append(v).append(',')
+                        .append(componentOf[v]).append(',')
+                        .append(schedule.getDuration(v)).append(',')
+                        .append(earliestStart[v]).append(',')
+                        .append(schedule.getEarliestFinish(v)).append(',')
+                        .append(latestStart[v]).append(',')
+                        .append(schedule.getLatestFinish(v)).append(',')
+                        .append(slack[v]).append(',')
+                        .append(critical[v]);
+                writer.println(row);
+            }
+
+            System.out.println("\nSchedule written to: " + filename);
+
+        } catch (IOException e) {
+            System.err.println("Error writing CSV: " + e.getMessage());
+        }
+    }
+
     public void printSummary() {
         System.out.println("\n=== RESULTS SUMMARY ===");
         System.out.println(String.format("%-20s %8s %8s %8s %10s",
@@ -0,0 +1,247 @@
+package com.company.service;
+
+import com.company.algorithms.DAGShortestPath;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Local HTTP endpoint over a set of analyzed graphs. Each request runs on its
+// own virtual thread and only reads a GraphSnapshot, so nothing is locked.
+//
+//   GET /graphs                                  loaded graphs and their sizes
+//   GET /scc?graph=G&v=V                         component of V, its size and members
+//   GET /shortest?graph=G&from=U&to=V            shortest path between the components of U and V
+//   GET /longest?graph=G                         critical path of the condensation
+//   GET /reachable?graph=G&from=U&to=V           whether U can reach V
+//
+// graph may be omitted when only one graph is loaded. Responses are JSON;
+// bad parameters get 400 and unknown graphs 404.
+public class GraphQueryServer {
+    // Member lists in /scc responses are cut off after this many vertices.
+    static final int MAX_MEMBERS = 1000;
+
+    private final Map<String, GraphSnapshot> graphs = new ConcurrentHashMap<>();
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    // port 0 picks a free port; see getPort().
+    public GraphQueryServer(int port) throws IOException {
+        // The JDK server writes headers and body separately; without
+        // TCP_NODELAY every small response waits out a delayed ACK (~40 ms).
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/graphs", exchange -> handle(exchange, this::listGraphs));
+        server.createContext("/scc", exchange -> handle(exchange, this::scc));
+        server.createContext("/shortest", exchange -> handle(exchange, this::shortest));
+        server.createContext("/longest", exchange -> handle(exchange, this::longest));
+        server.createContext("/reachable", exchange -> handle(exchange, this::reachable));
+    }
+
+    public void addGraph(GraphSnapshot snapshot) {
+        graphs.put(snapshot.getName(), snapshot);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private interface Handler {
+        String answer(Map<String, String> params);
+    }
+
+    private static final class BadRequest extends RuntimeException {
+        final int status;
+
+        BadRequest(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private void handle(HttpExchange exchange, Handler handler) throws IOException {
+        int status = 200;
+        String body;
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                throw new BadRequest(405, "Only GET is supported");
+            }
+            body = handler.answer(parseQuery(exchange.getRequestURI().getRawQuery()));
+        } catch (BadRequest e) {
+            status = e.status;
+            body = "{\"error\":" + quote(e.getMessage()) + "}";
+        } catch (RuntimeException e) {
+            status = 500;
+            body = "{\"error\":" + quote(String.valueOf(e)) + "}";
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private String listGraphs(Map<String, String> params) {
+        StringBuilder json = new StringBuilder("[");
+        for (GraphSnapshot g : graphs.values()) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append("{\"name\":").append(quote(g.getName()))
+                    .append(",\"vertices\":").append(g.getNumVertices())
+                    .append(",\"edges\":").append(g.getGraph().getNumEdges())
+                    .append(",\"components\":").append(g.getNumComponents())
+                    .append(",\"analysis_ms\":").append(String.format(Locale.ROOT, "%.3f", g.getAnalysisNanos() / 1e6))
+                    .append('}');
+        }
+        return json.append(']').toString();
+    }
+
+    private String scc(Map<String, String> params) {
+        GraphSnapshot g = graph(params);
+        int v = vertex(g, params, "v");
+        int component = g.getComponent(v);
+        int[] members = g.getMembers(component);
+        StringBuilder json = new StringBuilder();
+        json.append("{\"vertex\":").append(v)
+                .append(",\"component\":").append(component)
+                .append(",\"size\":").append(members.length)
+                .append(",\"members\":[");
+        for (int i = 0; i < Math.min(members.length, MAX_MEMBERS); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(members[i]);
+        }
+        return json.append("]}").toString();
+    }
+
+    private String shortest(Map<String, String> params) {
+        GraphSnapshot g = graph(params);
+        int from = vertex(g, params, "from");
+        int to = vertex(g, params, "to");
+        DAGShortestPath.PathResult result = g.shortestPath(from, to);
+        boolean reached = result.getLength() != Integer.MAX_VALUE;
+        return "{\"from\":" + from + ",\"to\":" + to + ",\"reachable\":" + reached
+                + ",\"length\":" + (reached ? result.getLength() : "null")
+                + ",\"components\":" + (reached ? list(result.getPath()) : "[]") + "}";
+    }
+
+    private String longest(Map<String, String> params) {
+        DAGShortestPath.PathResult result = graph(params).longestPath();
+        return "{\"length\":" + result.getLength() + ",\"components\":" + list(result.getPath()) + "}";
+    }
+
+    private String reachable(Map<String, String> params) {
+        GraphSnapshot g = graph(params);
+        int from = vertex(g, params, "from");
+        int to = vertex(g, params, "to");
+        return "{\"from\":" + from + ",\"to\":" + to + ",\"reachable\":" + g.reachable(from, to) + "}";
+    }
+
+    private GraphSnapshot graph(Map<String, String> params) {
+        String name = params.get("graph");
+        if (name == null) {
+            if (graphs.size() != 1) {
+                throw new BadRequest(400, "Parameter 'graph' is required when " + graphs.size() + " graphs are loaded");
+            }
+            return graphs.values().iterator().next();
+        }
+        GraphSnapshot g = graphs.get(name);
+        if (g == null) {
+            throw new BadRequest(404, "Unknown graph " + name);
+        }
+        return g;
+    }
+
+    private static int vertex(GraphSnapshot g, Map<String, String> params, String key) {
+        String value = params.get(key);
+        if (value == null) {
+            throw new BadRequest(400, "Parameter '" + key + "' is required");
+        }
+        int v;
+        try {
+            v = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequest(400, "Parameter '" + key + "' is not a vertex id: " + value);
+        }
+        if (v < 0 || v >= g.getNumVertices()) {
+            throw new BadRequest(400, "Vertex " + v + " is out of range [0, " + g.getNumVertices() + ")");
+        }
+        return v;
+    }
+
+    static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(decode(key), decode(value));
+        }
+        return params;
+    }
+
+    private static String decode(String s) {
+        try {
+            return URLDecoder.decode(s, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequest(400, "Malformed query parameter '" + s + "'");
+        }
+    }
+
+    private static String list(List<Integer> values) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(values.get(i));
+        }
+        return json.append(']').toString();
+    }
+
+    static String quote(String s) {
+        StringBuilder json = new StringBuilder("\"");
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        return json.append('"').toString();
+    }
+}
@@ -0,0 +1,141 @@
+package com.company.service;
+
+import com.company.algorithms.DAGShortestPath;
+import com.company.algorithms.PreparedDAG;
+import com.company.algorithms.ReachabilityIndex;
+import com.company.algorithms.SCCFinder;
+import com.company.graphRepresentation.BinaryGraphFormat;
+import com.company.graphRepresentation.Graph;
+import com.company.graphRepresentation.WeightType;
+import com.company.metrics.ConcurrentMetrics;
+import com.company.metrics.Metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+// Everything the query service needs for one graph, computed once at load:
+// the SCC decomposition, the condensation, its topological order and a
+// reachability index. Queries on vertices are answered on the condensation;
+// all state is read-only after construction, so one snapshot serves any
+// number of request threads. Path queries run on int weights, so graphs with
+// LONG or DOUBLE weights are refused.
+public class GraphSnapshot {
+    private final String name;
+    private final Graph graph;
+    private final int[] componentOf;
+    private final int[] memberStart;
+    private final int[] members;
+    private final Graph condensation;
+    private final ReachabilityIndex reachability;
+    private final PreparedDAG prepared;
+    private final DAGShortestPath.PathResult longestPath;
+    private final long analysisNanos;
+
+    public GraphSnapshot(String name, Graph graph) {
+        if (graph.getWeightType() != WeightType.INT) {
+            throw new IllegalArgumentException(unsupported(name, graph));
+        }
+        long start = System.nanoTime();
+        this.name = name;
+        this.graph = graph;
+
+        SCCFinder finder = SCCFinder.create(graph);
+        List<List<Integer>> sccs = finder.findSCCs();
+        this.componentOf = finder.getComponentMap();
+        this.memberStart = new int[sccs.size() + 1];
+        this.members = new int[graph.getNumVertices()];
+        int size = 0;
+        for (int c = 0; c < sccs.size(); c++) {
+            memberStart[c] = size;
+            for (int v : sccs.get(c)) {
+                members[size++] = v;
+            }
+        }
+        memberStart[sccs.size()] = size;
+
+        this.condensation = finder.buildCondensationGraph();
+        this.reachability = new ReachabilityIndex(componentOf, condensation, ReachabilityIndex.DEFAULT_TRAVERSALS, 42);
+        // Shared by every request thread.
+        this.prepared = new PreparedDAG(condensation, new ConcurrentMetrics());
+        prepared.getTopologicalOrder();
+        this.longestPath = prepared.longestPath();
+        this.analysisNanos = System.nanoTime() - start;
+    }
+
+    // Named after the file, without its .json / .bin extension.
+    public static GraphSnapshot load(String file) throws IOException {
+        String name = new File(file).getName().replace(".json", "").replace(BinaryGraphFormat.EXTENSION, "");
+        Graph graph = Graph.load(file);
+        if (graph.getWeightType() != WeightType.INT) {
+            throw new IOException(unsupported(file, graph));
+        }
+        return new GraphSnapshot(name, graph);
+    }
+
+    private static String unsupported(String name, Graph graph) {
+        return name + " has " + graph.getWeightType() + " edge weights; the query service serves INT weights only";
+    }
+
+    public int getComponent(int v) {
+        return componentOf[v];
+    }
+
+    public int getComponentSize(int component) {
+        return memberStart[component + 1] - memberStart[component];
+    }
+
+    public int[] getMembers(int component) {
+        int[] result = new int[getComponentSize(component)];
+        System.arraycopy(members, memberStart[component], result, 0, result.length);
+        return result;
+    }
+
+    // Shortest path between the components of source and target, as a
+    // sequence of component ids.
+    public DAGShortestPath.PathResult shortestPath(int source, int target) {
+        return prepared.shortestPath(componentOf[source], componentOf[target]);
+    }
+
+    // Critical path of the condensation, computed at load.
+    public DAGShortestPath.PathResult longestPath() {
+        return longestPath;
+    }
+
+    public boolean reachable(int u, int v) {
+        return reachability.reachable(u, v);
+    }
+
+    // Relaxations and vertices searched by shortestPath over all requests.
+    public Metrics getQueryMetrics() {
+        return prepared.getMetrics();
+    }
+
+    public ReachabilityIndex getReachabilityIndex() {
+        return reachability;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Graph getGraph() {
+        return graph;
+    }
+
+    public int getNumVertices() {
+        return graph.getNumVertices();
+    }
+
+    public int getNumComponents() {
+        return memberStart.length - 1;
+    }
+
+    public Graph getCondensation() {
+        return condensation;
+    }
+
+    public long getAnalysisNanos() {
+        return analysisNanos;
+    }
+}
@@ -0,0 +1,188 @@
+package com.company.service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Drives a GraphQueryServer with a fixed number of closed-loop clients, each
+// on a virtual thread sending one request at a time, and reports QPS and
+// p50/p99 latency per query kind. Without --url it loads the given graphs,
+// starts a server on a free local port and measures that.
+//
+//   LoadGenerator [--url http://127.0.0.1:8080] [--clients 64] [--seconds 10]
+//                 [--mix shortest,reachable,scc,longest] [graph files...]
+public class LoadGenerator {
+    private static final Pattern GRAPH_ENTRY = Pattern.compile("\"name\":\"([^\"]*)\",\"vertices\":(\\d+)");
+
+    public static void main(String[] args) throws Exception {
+        String url = null;
+        int clients = 64;
+        int seconds = 10;
+        String[] mix = {"shortest", "reachable", "scc", "longest"};
+        List<String> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--url" -> url = args[++i];
+                case "--clients" -> clients = Integer.parseInt(args[++i]);
+                case "--seconds" -> seconds = Integer.parseInt(args[++i]);
+                case "--mix" -> mix = args[++i].split(",");
+                default -> files.add(args[i]);
+            }
+        }
+
+        GraphQueryServer server = null;
+        if (url == null) {
+            if (files.isEmpty()) {
+                files.add("data/large_dag.json");
+            }
+            server = new GraphQueryServer(0);
+            for (String file : files) {
+                server.addGraph(load(file));
+            }
+            server.start();
+            url = "http://127.0.0.1:" + server.getPort();
+        }
+
+        try {
+            run(url, clients, seconds, mix);
+        } finally {
+            if (server != null) {
+                server.stop();
+            }
+        }
+    }
+
+    static GraphSnapshot load(String file) throws IOException {
+        GraphSnapshot snapshot = GraphSnapshot.load(file);
+        System.out.printf("Loaded %s: %d vertices, %d components, analyzed in %.1f ms%n", snapshot.getName(),
+                snapshot.getNumVertices(), snapshot.getNumComponents(), snapshot.getAnalysisNanos() / 1e6);
+        return snapshot;
+    }
+
+    private static void run(String url, int clients, int seconds, String[] mix) throws Exception {
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        String listing = http.send(HttpRequest.newBuilder(URI.create(url + "/graphs")).build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+        List<String> names = new ArrayList<>();
+        List<Integer> sizes = new ArrayList<>();
+        Matcher m = GRAPH_ENTRY.matcher(listing);
+        while (m.find()) {
+            names.add(m.group(1));
+            sizes.add(Integer.parseInt(m.group(2)));
+        }
+        if (names.isEmpty()) {
+            throw new IllegalStateException("No graphs loaded at " + url);
+        }
+
+        System.out.println("=".repeat(70));
+        System.out.println("Load: " + clients + " clients, " + seconds + " s, mix " + String.join(",", mix)
+                + ", graphs " + names);
+        System.out.println("=".repeat(70));
+
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        long started = System.nanoTime();
+        List<Future<Samples[]>> results = new ArrayList<>();
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                long seed = c;
+                results.add(threads.submit(() -> client(http, url, names, sizes, mix, deadline, seed)));
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+
+        Samples total = new Samples();
+        Samples[] byKind = new Samples[mix.length];
+        for (int k = 0; k < mix.length; k++) {
+            byKind[k] = new Samples();
+        }
+        int errors = 0;
+        for (Future<Samples[]> result : results) {
+            Samples[] samples = result.get();
+            for (int k = 0; k < mix.length; k++) {
+                byKind[k].addAll(samples[k]);
+                total.addAll(samples[k]);
+                errors += samples[k].errors;
+            }
+        }
+        for (int k = 0; k < mix.length; k++) {
+            byKind[k].report(mix[k], elapsed);
+        }
+        total.report("all", elapsed);
+        if (errors > 0) {
+            System.out.println(errors + " requests failed");
+        }
+    }
+
+    private static Samples[] client(HttpClient http, String url, List<String> names, List<Integer> sizes,
+                                    String[] mix, long deadline, long seed) throws Exception {
+        SplittableRandom random = new SplittableRandom(seed);
+        Samples[] samples = new Samples[mix.length];
+        for (int k = 0; k < mix.length; k++) {
+            samples[k] = new Samples();
+        }
+        while (System.nanoTime() < deadline) {
+            int g = random.nextInt(names.size());
+            int n = sizes.get(g);
+            int kind = random.nextInt(mix.length);
+            String path = switch (mix[kind]) {
+                case "shortest", "reachable" -> "/" + mix[kind] + "?from=" + random.nextInt(n) + "&to=" + random.nextInt(n);
+                case "scc" -> "/scc?v=" + random.nextInt(n);
+                case "longest" -> "/longest?";
+                default -> throw new IllegalArgumentException("Unknown query kind " + mix[kind]);
+            };
+            String sep = path.endsWith("?") ? "" : "&";
+            String graph = URLEncoder.encode(names.get(g), StandardCharsets.UTF_8);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url + path + sep + "graph=" + graph)).build();
+            long start = System.nanoTime();
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            samples[kind].add(System.nanoTime() - start);
+            if (response.statusCode() != 200) {
+                samples[kind].errors++;
+            }
+        }
+        return samples;
+    }
+
+    private static final class Samples {
+        long[] nanos = new long[1024];
+        int size;
+        int errors;
+
+        void add(long value) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = value;
+        }
+
+        void addAll(Samples other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.nanos[i]);
+            }
+        }
+
+        void report(String label, long elapsed) {
+            if (size == 0) {
+                System.out.printf("%-10s no requests%n", label);
+                return;
+            }
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            System.out.printf("%-10s %9d requests %10.1f QPS   p50 %8.1f us   p99 %8.1f us%n", label, size,
+                    size / (elapsed / 1e9), sorted[size / 2] / 1e3, sorted[Math.min(size - 1, size * 99 / 100)] / 1e3);
+        }
+    }
+}
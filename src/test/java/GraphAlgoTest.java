@@ -1,12 +1,57 @@
+import com.company.algorithms.CondensationBuilder;
 import com.company.algorithms.DAGShortestPath;
+import com.company.algorithms.DAGTaskExecutor;
+import com.company.algorithms.IncrementalSCC;
+import com.company.algorithms.IncrementalTopologicalOrder;
+import com.company.algorithms.MultiSourceShortestPaths;
+import com.company.algorithms.ParallelSCC;
+import com.company.algorithms.PreparedDAG;
+import com.company.algorithms.ReachabilityIndex;
+import com.company.algorithms.ScheduleAnalysis;
 import com.company.algorithms.TarjanSCC;
+import com.company.algorithms.TopologicalLevels;
 import com.company.algorithms.TopologicalSort;
+import com.company.algorithms.TransitiveClosure;
+import com.company.benchmarkRunner.MacroBenchmark;
+import com.company.graphRepresentation.BinaryGraphFormat;
+import com.company.graphRepresentation.CsrGraph;
 import com.company.graphRepresentation.Graph;
+import com.company.graphRepresentation.SyntheticGraphGenerator;
+import com.company.graphRepresentation.WeightType;
+import com.company.metrics.ConcurrentMetrics;
 import com.company.metrics.Metrics;
+import com.company.metrics.SampleStats;
+import com.company.metrics.resultWriter.ResultComparator;
+import com.company.metrics.resultWriter.ResultWriter;
+import com.company.service.GraphQueryServer;
+import com.company.service.GraphSnapshot;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.io.TempDir;
 import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
 
 public class GraphAlgoTest {
 
@@ -80,6 +125,219 @@ public class GraphAlgoTest {
         assertEquals(3, sccs.size(), "Self-loop creates its own SCC");
     }
 
+    @Test
+    public void testSCC_DeepChainDoesNotOverflow() {
+        int n = 200_000;
+        Graph graph = new Graph(n, n);
+        for (int i = 0; i + 1 < n; i++) {
+            graph.addEdge(i, i + 1, 1);
+        }
+        graph.addEdge(n - 1, n / 2, 1);
+
+        TarjanSCC scc = new TarjanSCC(graph);
+        List<List<Integer>> sccs = scc.findSCCs();
+
+        assertEquals(n / 2 + 1, sccs.size());
+        assertEquals(n / 2, sccs.get(0).size());
+        assertEquals(n, scc.getMetrics().getCounter("DFS_visits"));
+        assertEquals(n, scc.getMetrics().getCounter("edges_explored"));
+
+        TopologicalSort topo = new TopologicalSort(graph);
+        assertEquals(n, topo.sortDFS().size());
+    }
+
+    @Test
+    public void testParallelSCC_MatchesTarjan() {
+        Random random = new Random(11);
+        int n = 30_000;
+        Graph graph = new Graph(n);
+        for (int i = 0; i < 45_000; i++) {
+            graph.addEdge(random.nextInt(n), random.nextInt(n), 1);
+        }
+        // A long cycle so that one partition is far above the sequential cutoff.
+        for (int i = 0; i < 10_000; i++) {
+            graph.addEdge(i, (i + 1) % 10_000, 1);
+        }
+
+        List<List<Integer>> expected = new TarjanSCC(graph).findSCCs();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        List<List<Integer>> actual = new ParallelSCC(graph, pool).findSCCs();
+        pool.shutdown();
+
+        assertEquals(expected.size(), actual.size());
+        int[] expectedRep = smallestMember(expected, n);
+        int[] actualRep = smallestMember(actual, n);
+        assertArrayEquals(expectedRep, actualRep);
+
+        int[] index = new int[n];
+        for (int c = 0; c < actual.size(); c++) {
+            for (int v : actual.get(c)) {
+                index[v] = c;
+            }
+        }
+        for (int i = 0; i < graph.getNumEdges(); i++) {
+            assertTrue(index[graph.getEdgeSource(i)] >= index[graph.getEdgeTarget(i)],
+                    "Components must be in reverse topological order");
+        }
+    }
+
+    @Test
+    public void testIncrementalSCC_MergesOnClosingEdge() {
+        Graph graph = new Graph(5);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 3, 1);
+        graph.addEdge(3, 4, 1);
+        IncrementalSCC scc = new IncrementalSCC(graph);
+        assertEquals(5, scc.getNumComponents());
+
+        assertFalse(scc.addEdge(0, 2, 1), "Forward edge keeps the components");
+        assertTrue(scc.addEdge(3, 1, 1), "3 -> 1 closes 1 -> 2 -> 3");
+        assertEquals(3, scc.getNumComponents());
+        int merged = scc.getComponent(2);
+        assertEquals(merged, scc.getComponent(1));
+        assertEquals(merged, scc.getComponent(3));
+        int[] members = scc.getMembers(merged);
+        Arrays.sort(members);
+        assertArrayEquals(new int[]{1, 2, 3}, members);
+        assertArrayEquals(new int[]{scc.getComponent(4)}, scc.getSuccessors(merged));
+        assertArrayEquals(new int[]{scc.getComponent(0), merged, scc.getComponent(4)}, scc.getComponentOrder());
+
+        graph.addEdge(4, 0, 1);
+        assertEquals(1, scc.getNumComponents(), "Edges added to the graph directly are picked up");
+        assertEquals(1, scc.findSCCs().size());
+        assertEquals(1, scc.buildCondensationGraph().getNumVertices());
+    }
+
+    @Test
+    public void testIncrementalSCC_MatchesTarjanOnRandomInsertions() {
+        int n = 3_000;
+        Random random = new Random(17);
+        Graph graph = new Graph(n);
+        for (int i = 0; i < 2_000; i++) {
+            graph.addEdge(random.nextInt(n), random.nextInt(n), 1);
+        }
+        IncrementalSCC incremental = new IncrementalSCC(graph);
+        for (int i = 0; i < 3_000; i++) {
+            incremental.addEdge(random.nextInt(n), random.nextInt(n), 1);
+            if (i % 500 == 0) {
+                assertEquals(new TarjanSCC(graph).findSCCs().size(), incremental.getNumComponents());
+            }
+        }
+
+        List<List<Integer>> expected = new TarjanSCC(graph).findSCCs();
+        List<List<Integer>> actual = incremental.findSCCs();
+        assertEquals(expected.size(), actual.size());
+        assertArrayEquals(smallestMember(expected, n), smallestMember(actual, n));
+
+        int[] index = incremental.getComponentMap();
+        for (int i = 0; i < graph.getNumEdges(); i++) {
+            assertTrue(index[graph.getEdgeSource(i)] >= index[graph.getEdgeTarget(i)],
+                    "Components must be in reverse topological order");
+        }
+        assertTrue(incremental.getMetrics().getCounter("merges") > 0);
+    }
+
+    private static int[] smallestMember(List<List<Integer>> sccs, int n) {
+        int[] rep = new int[n];
+        for (List<Integer> scc : sccs) {
+            int min = scc.stream().mapToInt(Integer::intValue).min().orElse(-1);
+            for (int v : scc) {
+                rep[v] = min;
+            }
+        }
+        return rep;
+    }
+
+    @Test
+    public void testReachabilityIndex_MatchesBfsOnAllPairs() {
+        int n = 300;
+        Random random = new Random(23);
+        Graph graph = new Graph(n);
+        for (int i = 0; i < 450; i++) {
+            graph.addEdge(random.nextInt(n), random.nextInt(n), 1);
+        }
+        ReachabilityIndex index = new ReachabilityIndex(graph, 2, 5);
+        int reachable = 0;
+        for (int u = 0; u < n; u++) {
+            boolean[] seen = new boolean[n];
+            ArrayDeque<Integer> queue = new ArrayDeque<>(List.of(u));
+            seen[u] = true;
+            while (!queue.isEmpty()) {
+                for (Graph.Edge e : graph.getNeighbors(queue.poll())) {
+                    if (!seen[e.v]) {
+                        seen[e.v] = true;
+                        queue.add(e.v);
+                    }
+                }
+            }
+            for (int v = 0; v < n; v++) {
+                assertEquals(seen[v], index.reachable(u, v), "reachable(" + u + ", " + v + ")");
+                reachable += seen[v] ? 1 : 0;
+            }
+        }
+        assertTrue(reachable > n && reachable < n * n, "Graph should mix reachable and unreachable pairs");
+    }
+
+    @Test
+    public void testTransitiveClosure_MatchesSearchAndFallsBackOverBudget() {
+        int n = 400;
+        Random random = new Random(29);
+        Graph graph = new Graph(n);
+        for (int i = 0; i < 700; i++) {
+            int u = random.nextInt(n);
+            int v = random.nextInt(n);
+            // Mostly forward edges, so the condensation keeps many components.
+            graph.addEdge(Math.min(u, v), Math.max(u, v), 1);
+            if (i % 50 == 0) {
+                graph.addEdge(Math.max(u, v), Math.min(u, v), 1);
+            }
+        }
+        TarjanSCC tarjan = new TarjanSCC(graph);
+        int[] componentOf = tarjan.getComponentMap();
+        Graph dag = tarjan.buildCondensationGraph();
+        int k = dag.getNumVertices();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        TransitiveClosure closure = new TransitiveClosure(componentOf, dag, Long.MAX_VALUE, pool);
+        TransitiveClosure limited = new TransitiveClosure(componentOf, dag, 0, pool);
+        assertTrue(closure.isMaterialized());
+        assertFalse(limited.isMaterialized());
+
+        int[] descendantCounts = closure.getDescendantCounts();
+        int[] ancestorCounts = closure.getAncestorCounts();
+        int[] ancestorsSeen = new int[k];
+        for (int c = 0; c < k; c++) {
+            boolean[] seen = new boolean[k];
+            ArrayDeque<Integer> queue = new ArrayDeque<>(List.of(c));
+            while (!queue.isEmpty()) {
+                for (Graph.Edge e : dag.getNeighbors(queue.poll())) {
+                    if (!seen[e.v]) {
+                        seen[e.v] = true;
+                        queue.add(e.v);
+                    }
+                }
+            }
+            int[] expected = IntStream.range(0, k).filter(d -> seen[d]).toArray();
+            int[] actual = closure.getDescendants(c);
+            Arrays.sort(actual);
+            assertArrayEquals(expected, actual, "descendants of " + c);
+            assertEquals(expected.length, descendantCounts[c]);
+            assertEquals(expected.length, limited.getDescendantCount(c));
+            for (int d = 0; d < k; d++) {
+                assertEquals(seen[d] || d == c, closure.reaches(c, d));
+                assertEquals(seen[d] || d == c, limited.reaches(c, d));
+            }
+            for (int d : expected) {
+                ancestorsSeen[d]++;
+            }
+        }
+        pool.shutdown();
+        assertArrayEquals(ancestorsSeen, ancestorCounts);
+        assertEquals(ancestorsSeen[k - 1], limited.getAncestors(k - 1).length);
+        assertTrue(closure.getMemoryBytes() > 0);
+        assertEquals(0, limited.getMemoryBytes());
+    }
+
     @Test
     public void testCondensationGraph() {
         Graph graph = new Graph(5);
@@ -97,6 +355,50 @@ public class GraphAlgoTest {
         assertNotNull(condensation);
     }
 
+    @Test
+    public void testCondensation_ReusesDecompositionAndWeightPolicy() {
+        Graph graph = new Graph(4);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 0, 1);
+        graph.addEdge(0, 2, 7);
+        graph.addEdge(1, 2, 3);
+        graph.addEdge(1, 2, 9);
+        graph.addEdge(2, 3, 4);
+
+        TarjanSCC scc = new TarjanSCC(graph);
+        List<List<Integer>> sccs = scc.findSCCs();
+        int[] componentOf = scc.getComponentMap();
+        long visits = scc.getMetrics().getCounter("DFS_visits");
+
+        assertEquals(componentOf[0], componentOf[1]);
+        assertTrue(sccs.get(componentOf[0]).contains(1));
+
+        Graph first = scc.buildCondensationGraph();
+        Graph min = scc.buildCondensationGraph(CondensationBuilder.WeightPolicy.MIN);
+        Graph max = scc.buildCondensationGraph(CondensationBuilder.WeightPolicy.MAX);
+        assertEquals(visits, scc.getMetrics().getCounter("DFS_visits"), "Decomposition must not be repeated");
+
+        assertEquals(3, first.getNumVertices());
+        assertEquals(2, first.getNumEdges());
+        int c01 = componentOf[0];
+        int c2 = componentOf[2];
+        assertEquals(7, weightBetween(first, c01, c2));
+        assertEquals(3, weightBetween(min, c01, c2));
+        assertEquals(9, weightBetween(max, c01, c2));
+
+        graph.addEdge(3, 2, 1);
+        assertEquals(2, scc.buildCondensationGraph().getNumVertices(), "Mutation must invalidate the cached SCCs");
+    }
+
+    private static int weightBetween(Graph graph, int u, int v) {
+        for (Graph.Edge edge : graph.getNeighbors(u)) {
+            if (edge.v == v) {
+                return edge.w;
+            }
+        }
+        return -1;
+    }
+
     // ========== Topological Sort Tests ==========
 
     @Test
@@ -164,6 +466,157 @@ public class GraphAlgoTest {
         assertTrue(orderDFS.indexOf(0) < orderDFS.indexOf(1));
     }
 
+    @Test
+    public void testTopoSort_LevelsOnDiamond() {
+        Graph graph = new Graph(5);
+        graph.addEdge(0, 2, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(0, 3, 1);
+        graph.addEdge(2, 4, 1);
+        graph.addEdge(3, 4, 1);
+
+        TopologicalLevels levels = new TopologicalSort(graph).sortLevels();
+
+        assertTrue(levels.isAcyclic());
+        assertEquals(3, levels.getNumLevels());
+        assertArrayEquals(new int[]{0, 1}, levels.getLevel(0));
+        assertArrayEquals(new int[]{2, 3}, levels.getLevel(1));
+        assertArrayEquals(new int[]{0, 0, 1, 1, 2}, levels.getLevelOf());
+        assertEquals(List.of(0, 1, 2, 3, 4), levels.toList());
+        assertEquals(0, levels.findCycle().length);
+    }
+
+    @Test
+    public void testTopoSort_ParallelLevelsOnWideGraph() {
+        Graph graph = new SyntheticGraphGenerator(SyntheticGraphGenerator.Type.LAYERED, 40_000, 200_000, 9)
+                .layers(20).toGraph();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        TopologicalLevels levels;
+        try {
+            levels = new TopologicalSort(graph).sortLevels(pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        assertTrue(levels.isAcyclic());
+        int[] levelOf = levels.getLevelOf();
+        int[] deepestPredecessor = new int[graph.getNumVertices()];
+        Arrays.fill(deepestPredecessor, -1);
+        for (int i = 0; i < graph.getNumEdges(); i++) {
+            int u = graph.getEdgeSource(i);
+            int v = graph.getEdgeTarget(i);
+            assertTrue(levelOf[u] < levelOf[v]);
+            deepestPredecessor[v] = Math.max(deepestPredecessor[v], levelOf[u]);
+        }
+        for (int v = 0; v < levelOf.length; v++) {
+            assertEquals(deepestPredecessor[v] + 1, levelOf[v], "Level is one past the deepest predecessor");
+        }
+        assertEquals(new TopologicalSort(graph).sortLevels().toList(), levels.toList(), "Order must be deterministic");
+    }
+
+    @Test
+    public void testTopoSort_LevelsReportCycle() {
+        Graph graph = new Graph(6);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 3, 1);
+        graph.addEdge(3, 1, 1);
+        graph.addEdge(3, 4, 1);
+        graph.addEdge(0, 5, 1);
+
+        TopologicalLevels levels = new TopologicalSort(graph).sortLevels();
+
+        assertFalse(levels.isAcyclic());
+        assertTrue(levels.toList().isEmpty(), "Same contract as sortKahn");
+        assertTrue(new TopologicalSort(graph).sortKahn().isEmpty());
+        assertArrayEquals(new int[]{0, 5}, levels.getOrder());
+        assertEquals(-1, levels.getLevelOf()[4]);
+
+        int[] cycle = levels.findCycle();
+        assertEquals(3, cycle.length);
+        for (int i = 0; i < cycle.length; i++) {
+            assertTrue(hasEdge(graph, cycle[i], cycle[(i + 1) % cycle.length]));
+        }
+    }
+
+    @Test
+    public void testIncrementalTopo_RepairsOrderAndRejectsCycles() {
+        Graph graph = new Graph(4);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(2, 3, 1);
+        IncrementalTopologicalOrder topo = new IncrementalTopologicalOrder(graph);
+        assertArrayEquals(new int[]{0, 2, 1, 3}, topo.getOrder());
+
+        assertTrue(topo.addEdge(3, 0, 1), "3 -> 0 only needs a reorder");
+        assertTrue(topo.getPosition(3) < topo.getPosition(0));
+        assertTrue(topo.getPosition(2) < topo.getPosition(3));
+        assertEquals(3, graph.getNumEdges());
+
+        assertFalse(topo.canAddEdge(1, 2));
+        assertFalse(topo.addEdge(1, 2, 1), "1 -> 2 closes 2 -> 3 -> 0 -> 1");
+        assertArrayEquals(new int[]{2, 3, 0, 1}, topo.getLastCycle());
+        assertEquals(3, graph.getNumEdges(), "A rejected edge must not reach the graph");
+        assertFalse(topo.addEdge(1, 1, 1));
+        assertEquals(2, topo.getMetrics().getCounter("cycles_rejected"));
+
+        graph.addEdge(1, 2, 1);
+        assertThrows(IllegalStateException.class, topo::getOrder);
+    }
+
+    @Test
+    public void testIncrementalTopo_MatchesRecomputationOnRandomInsertions() {
+        int n = 2_000;
+        Random random = new Random(5);
+        // Edges follow a hidden order, so the graph stays acyclic while the
+        // maintained order starts out unrelated to it.
+        int[] hidden = IntStream.range(0, n).toArray();
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = hidden[i];
+            hidden[i] = hidden[j];
+            hidden[j] = tmp;
+        }
+        Graph graph = new Graph(n);
+        IncrementalTopologicalOrder topo = new IncrementalTopologicalOrder(graph);
+        for (int i = 0; i < 6_000; i++) {
+            int a = random.nextInt(n);
+            int b = random.nextInt(n);
+            if (a == b) {
+                continue;
+            }
+            int u = hidden[Math.min(a, b)];
+            int v = hidden[Math.max(a, b)];
+            if (i % 3 == 0) {
+                graph.addEdge(u, v, 1);
+            } else {
+                assertTrue(topo.addEdge(u, v, 1));
+            }
+            if (random.nextInt(20) == 0) {
+                assertFalse(topo.addEdge(v, u, 1));
+            }
+        }
+
+        int[] order = topo.getOrder();
+        int[] position = new int[n];
+        for (int i = 0; i < n; i++) {
+            position[order[i]] = i;
+        }
+        for (int i = 0; i < graph.getNumEdges(); i++) {
+            assertTrue(position[graph.getEdgeSource(i)] < position[graph.getEdgeTarget(i)]);
+        }
+        assertEquals(n, new TopologicalSort(graph).sortKahn().size());
+        assertTrue(topo.getMetrics().getCounter("reorders") > 0);
+    }
+
+    private static boolean hasEdge(Graph graph, int u, int v) {
+        for (Graph.Edge edge : graph.getNeighbors(u)) {
+            if (edge.v == v) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     // ========== Shortest Path Tests ==========
 
     @Test
@@ -246,6 +699,628 @@ public class GraphAlgoTest {
         assertEquals(3, (int) result.getPath().get(result.getPath().size() - 1));
     }
 
+    @Test
+    public void testPreparedDAG_PointToPointMatchesFullSweep() {
+        for (int vertices : new int[]{3_000, 600}) {
+            Graph graph = new SyntheticGraphGenerator(SyntheticGraphGenerator.Type.DAG, vertices, 4_000, 3).toGraph();
+            PreparedDAG prepared = new PreparedDAG(graph);
+            Random random = new Random(vertices);
+            for (int q = 0; q < 300; q++) {
+                int source = random.nextInt(vertices);
+                int target = random.nextInt(vertices);
+                if (q % 2 == 0) {
+                    // A target a few hops downstream, where the pruned search applies.
+                    target = source;
+                    for (int hop = 0; hop < 3 && !graph.getNeighbors(target).isEmpty(); hop++) {
+                        List<Graph.Edge> out = graph.getNeighbors(target);
+                        target = out.get(random.nextInt(out.size())).v;
+                    }
+                }
+                int expected = prepared.shortestPaths(source)[target];
+                DAGShortestPath.PathResult result = prepared.shortestPath(source, target);
+                assertEquals(expected, result.getLength());
+                if (expected == Integer.MAX_VALUE) {
+                    assertEquals(List.of(target), result.getPath());
+                    continue;
+                }
+                List<Integer> path = result.getPath();
+                assertEquals(source, path.get(0));
+                assertEquals(target, path.get(path.size() - 1));
+                int length = 0;
+                for (int i = 0; i + 1 < path.size(); i++) {
+                    int lightest = Integer.MAX_VALUE;
+                    for (Graph.Edge edge : graph.getNeighbors(path.get(i))) {
+                        if (edge.v == path.get(i + 1)) {
+                            lightest = Math.min(lightest, edge.w);
+                        }
+                    }
+                    length += lightest;
+                }
+                assertEquals(expected, length, "Path must add up to the reported length");
+            }
+        }
+    }
+
+    @Test
+    public void testKBestPaths_MatchesEnumeration() {
+        int n = 14;
+        Random random = new Random(31);
+        Graph graph = new Graph(n);
+        for (int i = 0; i < 40; i++) {
+            int u = random.nextInt(n - 1);
+            graph.addEdge(u, u + 1 + random.nextInt(n - 1 - u), 1 + random.nextInt(9));
+        }
+        List<Integer> expectedShortest = new ArrayList<>();
+        allPaths(graph, 0, n - 1, 0, expectedShortest);
+        expectedShortest.sort(null);
+        List<Integer> expectedLongest = new ArrayList<>();
+        int[] inDegree = graph.toCsr().inDegrees();
+        for (int v = 0; v < n; v++) {
+            if (inDegree[v] == 0) {
+                allPaths(graph, v, -1, 0, expectedLongest);
+            }
+        }
+        expectedLongest.sort(Comparator.reverseOrder());
+        assertTrue(expectedShortest.size() > 50, "Graph should have many paths");
+
+        DAGShortestPath dag = new DAGShortestPath(graph);
+        List<DAGShortestPath.PathResult> shortest = dag.shortestPaths(0, n - 1, expectedShortest.size() + 10);
+        assertEquals(expectedShortest, shortest.stream().map(DAGShortestPath.PathResult::getLength).toList());
+        for (DAGShortestPath.PathResult path : shortest) {
+            assertEquals(0, path.getPath().get(0));
+            assertEquals(n - 1, path.getPath().get(path.getPath().size() - 1));
+            for (int i = 0; i + 1 < path.getPath().size(); i++) {
+                assertTrue(hasEdge(graph, path.getPath().get(i), path.getPath().get(i + 1)));
+            }
+        }
+        List<DAGShortestPath.PathResult> longest = dag.longestPaths(25);
+        assertEquals(expectedLongest.subList(0, 25), longest.stream().map(DAGShortestPath.PathResult::getLength).toList());
+        assertEquals(dag.longestPath().getLength(), longest.get(0).getLength());
+        assertTrue(dag.shortestPaths(n - 1, 0, 5).isEmpty());
+        assertEquals(1, dag.shortestPaths(0, n - 1, 1).size());
+        assertThrows(IllegalArgumentException.class, () -> dag.shortestPaths(0, n - 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> dag.longestPaths(0));
+        assertThrows(IllegalArgumentException.class, () -> dag.longestPaths(-1));
+    }
+
+    // Lengths of all paths from u to target, or to any vertex without out-edges when target is -1.
+    private static void allPaths(Graph graph, int u, int target, int length, List<Integer> lengths) {
+        if (u == target || (target == -1 && graph.getNeighbors(u).isEmpty())) {
+            lengths.add(length);
+            return;
+        }
+        for (Graph.Edge e : graph.getNeighbors(u)) {
+            allPaths(graph, e.v, target, length + e.w, lengths);
+        }
+    }
+
+    @Test
+    public void testPreparedDAG_OverflowIsReported() {
+        Graph graph = new Graph(3);
+        graph.addEdge(0, 1, Integer.MAX_VALUE - 5);
+        graph.addEdge(1, 2, 10);
+        PreparedDAG prepared = new PreparedDAG(graph);
+
+        assertEquals(Integer.MAX_VALUE - 5, prepared.shortestPath(0, 1).getLength());
+        assertThrows(ArithmeticException.class, () -> prepared.shortestPath(0, 2));
+        assertThrows(ArithmeticException.class, () -> prepared.shortestPaths(0));
+        assertThrows(ArithmeticException.class, prepared::longestPath);
+
+        // A path past the int range that loses to a shorter one is no overflow.
+        Graph detour = new Graph(3);
+        detour.addEdge(0, 2, 2_000_000_000);
+        detour.addEdge(0, 1, 5);
+        detour.addEdge(2, 1, 2_000_000_000);
+        PreparedDAG fits = new PreparedDAG(detour);
+        assertArrayEquals(new int[]{0, 5, 2_000_000_000}, fits.shortestPaths(0));
+        assertEquals(5, fits.shortestPath(0, 1).getLength());
+        assertArrayEquals(new int[]{0, 5, 2_000_000_000},
+                new MultiSourceShortestPaths(detour).distances(new int[]{0})[0]);
+        assertThrows(ArithmeticException.class, fits::longestPath);
+
+        Graph wide = new Graph(3);
+        wide.addEdge(0, 2, Long.MAX_VALUE / 2 + 1);
+        wide.addEdge(0, 1, 5L);
+        wide.addEdge(2, 1, Long.MAX_VALUE / 2 + 1);
+        assertArrayEquals(new long[]{0, 5, Long.MAX_VALUE / 2 + 1}, new PreparedDAG(wide).shortestPathsLong(0));
+        assertThrows(ArithmeticException.class, () -> new PreparedDAG(wide).longestPathLong());
+    }
+
+    @Test
+    public void testPreparedDAG_ReusesOrderUntilMutation() {
+        Graph graph = new Graph(5);
+        graph.addEdge(0, 1, 4);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(0, 2, 9);
+        graph.addEdge(2, 3, 2);
+
+        PreparedDAG prepared = new PreparedDAG(graph);
+        int[] order = prepared.getTopologicalOrder();
+        assertEquals(7, prepared.shortestPaths(0)[3]);
+        assertEquals(List.of(0, 1, 2, 3), prepared.shortestPath(0, 3).getPath());
+        assertEquals(11, prepared.longestPath().getLength());
+        assertSame(order, prepared.getTopologicalOrder(), "Queries must not recompute the order");
+
+        graph.addEdge(4, 0, 10);
+        assertNotSame(order, prepared.getTopologicalOrder(), "Mutation must invalidate the order");
+        assertEquals(0, prepared.getPosition(4));
+        assertEquals(17, prepared.shortestPaths(4)[3]);
+        assertEquals(List.of(4, 0, 2, 3), prepared.longestPath().getPath());
+    }
+
+    @Test
+    public void testMultiSource_MatchesPerSourceCalls() {
+        Graph graph = new SyntheticGraphGenerator(SyntheticGraphGenerator.Type.DAG, 3_000, 15_000, 5).toGraph();
+        int[] sources = {2_999, 0, 17, 17, 1_500, 42, 2_000, 7, 999, 123, 2};
+
+        ForkJoinPool pool = new ForkJoinPool(3);
+        int[][] matrix;
+        int[][] streamed = new int[graph.getNumVertices()][];
+        try {
+            MultiSourceShortestPaths batch = new MultiSourceShortestPaths(graph, pool, 4);
+            matrix = batch.distances(sources);
+            batch.forEachSource(sources, (source, dist) -> streamed[source] = dist.clone());
+        } finally {
+            pool.shutdown();
+        }
+
+        for (int i = 0; i < sources.length; i++) {
+            int[] expected = new DAGShortestPath(graph).shortestPaths(sources[i]);
+            assertArrayEquals(expected, matrix[i], "Row " + i);
+            assertArrayEquals(expected, streamed[sources[i]]);
+        }
+    }
+
+    // ========== Graph Representation Tests ==========
+
+    @Test
+    public void testCsr_NeighborsKeepInsertionOrder() {
+        Graph graph = new Graph(3);
+        graph.addEdge(1, 2, 7);
+        graph.addEdge(0, 2, 4);
+        graph.addEdge(0, 1, 5);
+
+        CsrGraph csr = graph.toCsr();
+
+        assertEquals(3, csr.getNumEdges());
+        assertEquals(2, csr.getOutDegree(0));
+        assertEquals(2, csr.getTarget(csr.getEdgeStart(0)));
+        assertEquals(1, csr.getTarget(csr.getEdgeStart(0) + 1));
+        assertEquals(5, csr.getWeight(csr.getEdgeStart(0) + 1));
+        assertEquals(0, csr.getOutDegree(2));
+    }
+
+    @Test
+    public void testCsr_RebuiltAfterAddEdge() {
+        Graph graph = new Graph(3);
+        graph.addEdge(0, 1, 1);
+        CsrGraph first = graph.toCsr();
+        assertSame(first, graph.toCsr());
+
+        graph.addEdge(1, 2, 1);
+
+        assertEquals(2, graph.toCsr().getNumEdges());
+        assertEquals(1, graph.getNeighbors(1).size());
+        assertEquals(2, graph.getNeighbors(1).get(0).v);
+        assertEquals(2, graph.getEdges().size());
+    }
+
+    @Test
+    public void testFromJson_SampleFile() throws IOException {
+        Graph graph = Graph.fromJson("data/tasks (1).json");
+
+        assertEquals(8, graph.getNumVertices());
+        assertEquals(7, graph.getNumEdges());
+        assertEquals(4, (int) graph.getSource());
+        assertEquals("edge", graph.getWeightModel());
+        assertEquals(3, graph.getEdgeWeight(0));
+    }
+
+    @Test
+    public void testFromJson_FieldsAfterEdges(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("graph.json");
+        Files.writeString(file, "{\"edges\": [{\"w\": 9, \"v\": 2, \"u\": 1}, {\"u\":0,\"v\":1}],"
+                + " \"meta\": {\"tags\": [\"x\", 1.5, null]}, \"weight_model\": \"node\","
+                + " \"source\": 2, \"n\": 3}");
+
+        Graph graph = Graph.fromJson(file.toString());
+
+        assertEquals(3, graph.getNumVertices());
+        assertEquals(2, graph.getNumEdges());
+        assertEquals(9, graph.getEdgeWeight(0));
+        assertEquals(2, graph.getEdgeTarget(0));
+        assertEquals(1, graph.getEdgeWeight(1));
+        assertEquals(2, (int) graph.getSource());
+        assertEquals("node", graph.getWeightModel());
+    }
+
+    @Test
+    public void testFromJson_MissingVertexCount(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("graph.json");
+        Files.writeString(file, "{\"edges\": []}");
+
+        assertThrows(IOException.class, () -> Graph.fromJson(file.toString()));
+    }
+
+    @Test
+    public void testFromJson_ParallelMatchesSequential(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("large.json");
+        StringBuilder json = new StringBuilder("{\"directed\": true, \"edges\": [\n");
+        for (int i = 0; i < 150_000; i++) {
+            if (i > 0) {
+                json.append(",\n");
+            }
+            json.append("  {\"u\": ").append(i % 1000).append(", \"v\": ").append((i * 7) % 1000)
+                    .append(", \"w\": ").append(i % 13);
+            // Nested values inside an edge are skipped like any unknown key.
+            json.append(i == 120_000 ? ", \"meta\": {\"x\": 1}}" : "}");
+        }
+        json.append("\n], \"source\": 5, \"n\": 1000, \"weight_model\": \"edge\"}");
+        Files.writeString(file, json);
+
+        Graph sequential = Graph.fromJson(file.toString());
+        Graph parallel = Graph.fromJson(file.toString(), 4);
+
+        assertEquals(150_000, parallel.getNumEdges());
+        assertEquals(1000, parallel.getNumVertices());
+        assertEquals(5, (int) parallel.getSource());
+        for (int i = 0; i < sequential.getNumEdges(); i += 997) {
+            assertEquals(sequential.getEdgeSource(i), parallel.getEdgeSource(i));
+            assertEquals(sequential.getEdgeTarget(i), parallel.getEdgeTarget(i));
+            assertEquals(sequential.getEdgeWeight(i), parallel.getEdgeWeight(i));
+        }
+
+        Files.writeString(file, json.toString().replace(", \"meta\": {\"x\": 1}", ""));
+        Graph aligned = Graph.fromJson(file.toString(), 4);
+        assertEquals(150_000, aligned.getNumEdges());
+        assertEquals(sequential.getEdgeTarget(149_999), aligned.getEdgeTarget(149_999));
+    }
+
+    @Test
+    public void testBinaryFormat_RoundTrip(@TempDir Path dir) throws IOException {
+        Path json = dir.resolve("graph.json");
+        Files.writeString(json, "{\"n\": 4, \"edges\": [{\"u\": 2, \"v\": 3, \"w\": 6},"
+                + " {\"u\": 0, \"v\": 1, \"w\": 2}, {\"u\": 0, \"v\": 2, \"w\": 5}],"
+                + " \"source\": 1, \"weight_model\": \"edge\"}");
+        Graph original = Graph.fromJson(json.toString());
+
+        Path binary = BinaryGraphFormat.siblingOf(json);
+        BinaryGraphFormat.write(original, binary);
+        Graph loaded = Graph.load(json.toString());
+
+        assertEquals(dir.resolve("graph.bin"), binary);
+        assertEquals(4, loaded.getNumVertices());
+        assertEquals(3, loaded.getNumEdges());
+        assertEquals(1, (int) loaded.getSource());
+        assertEquals("edge", loaded.getWeightModel());
+        CsrGraph csr = loaded.toCsr();
+        assertEquals(2, csr.getOutDegree(0));
+        assertEquals(5, csr.getWeight(csr.getEdgeStart(0) + 1));
+        assertEquals(2, loaded.getEdgeSource(2));
+
+        loaded.addEdge(3, 0, 1);
+        assertEquals(4, loaded.getNumEdges());
+        assertEquals(1, loaded.toCsr().getOutDegree(3));
+    }
+
+    @Test
+    public void testWeightTypes_LongAndDoubleKernels(@TempDir Path dir) throws IOException {
+        Path json = dir.resolve("costs.json");
+        Files.writeString(json, "{\"n\": 4, \"edges\": [{\"u\": 0, \"v\": 1, \"w\": 3000000000},"
+                + " {\"u\": 1, \"v\": 3, \"w\": 3000000000}, {\"u\": 0, \"v\": 2, \"w\": -9223372036854775808},"
+                + " {\"u\": 2, \"v\": 3, \"w\": 7}]}");
+        Graph costs = Graph.fromJson(json.toString());
+        assertEquals(WeightType.LONG, costs.getWeightType());
+        assertEquals(Integer.MIN_VALUE, costs.getEdgeWeight(2), "int view saturates");
+
+        costs = new Graph(4);
+        costs.addEdge(0, 1, 3_000_000_000L);
+        costs.addEdge(1, 3, 3_000_000_000L);
+        costs.addEdge(0, 2, 5);
+        costs.addEdge(2, 3, 7);
+        BinaryGraphFormat.write(costs, BinaryGraphFormat.siblingOf(json));
+        Graph loaded = BinaryGraphFormat.read(BinaryGraphFormat.siblingOf(json));
+        assertEquals(WeightType.LONG, loaded.getWeightType());
+        DAGShortestPath paths = new DAGShortestPath(loaded);
+        assertArrayEquals(new long[]{0, 3_000_000_000L, 5, 12}, paths.shortestPathsLong(0));
+        assertEquals(6_000_000_000L, paths.longestPathLong().getLength());
+        assertEquals(List.of(0, 1, 3), paths.longestPathLong().getPath());
+        assertThrows(IllegalStateException.class, paths::longestPath);
+        assertThrows(IllegalStateException.class, () -> paths.longestPaths(2));
+        assertThrows(IllegalStateException.class, () -> paths.shortestPaths(0, 3, 2));
+        assertThrows(IllegalStateException.class, () -> new MultiSourceShortestPaths(loaded));
+        IOException refused = assertThrows(IOException.class,
+                () -> GraphSnapshot.load(BinaryGraphFormat.siblingOf(json).toString()));
+        assertTrue(refused.getMessage().contains("LONG"));
+
+        Graph huge = new Graph(3);
+        huge.addEdge(0, 1, Long.MAX_VALUE / 2 + 1);
+        huge.addEdge(1, 2, Long.MAX_VALUE / 2 + 1);
+        assertThrows(ArithmeticException.class, () -> new DAGShortestPath(huge).longestPathLong());
+
+        // Widening keeps the earlier weights; the condensation keeps the exact ones.
+        Graph durations = new Graph(4);
+        durations.addEdge(0, 1, 2);
+        durations.addEdge(1, 0, 4_000_000_000L);
+        durations.addEdge(1, 2, 0.5);
+        durations.addEdge(0, 2, 1.75);
+        durations.addEdge(2, 3, 1);
+        assertEquals(WeightType.DOUBLE, durations.getWeightType());
+        assertEquals(4e9, durations.getEdgeWeightDouble(1));
+        Graph dag = new TarjanSCC(durations).buildCondensationGraph(CondensationBuilder.WeightPolicy.MAX);
+        assertEquals(WeightType.DOUBLE, dag.getWeightType());
+        DAGShortestPath.DoublePathResult critical = new DAGShortestPath(dag).longestPathDouble();
+        assertEquals(2.75, critical.getLength());
+        assertEquals(3, critical.getPath().size());
+
+        // A fraction or a large integer late in the file widens the parallel merge too.
+        StringBuilder text = new StringBuilder("{\"n\": 1000, \"edges\": [\n");
+        for (int i = 0; i < 150_000; i++) {
+            String w = i == 100_000 ? "5000000000" : i == 140_000 ? "0.5" : Integer.toString(i % 13);
+            text.append(i > 0 ? ",\n" : "").append("  {\"u\": ").append(i % 1000).append(", \"v\": ")
+                    .append((i * 7) % 1000).append(", \"w\": ").append(w).append("}");
+        }
+        Path large = dir.resolve("large.json");
+        Files.writeString(large, text.append("\n]}"));
+        Graph sequential = Graph.fromJson(large.toString());
+        Graph parallel = Graph.fromJson(large.toString(), 4);
+        assertEquals(WeightType.DOUBLE, parallel.getWeightType());
+        for (int i = 0; i < 150_000; i += 997) {
+            assertEquals(sequential.getEdgeWeightDouble(i), parallel.getEdgeWeightDouble(i));
+        }
+        assertEquals(5e9, parallel.getEdgeWeightDouble(100_000));
+        assertEquals(0.5, parallel.getEdgeWeightDouble(140_000));
+    }
+
+    @Test
+    public void testScheduleAnalysis_NodeWeightsFromJsonAndBinary(@TempDir Path dir) throws IOException {
+        // 0 (3) -> 1 (2) -> 3 (1), 0 -> 2 (5) -> 3; 4 <-> 5 (1 + 1) run alone.
+        Path json = dir.resolve("tasks.json");
+        Files.writeString(json, "{\"n\": 6, \"weight_model\": \"node\", \"durations\": [3, 2, 5, 1, 1, 1],"
+                + " \"edges\": [{\"u\": 0, \"v\": 1, \"w\": 9}, {\"u\": 0, \"v\": 2, \"w\": 9},"
+                + " {\"u\": 1, \"v\": 3, \"w\": 9}, {\"u\": 2, \"v\": 3, \"w\": 9},"
+                + " {\"u\": 4, \"v\": 5, \"w\": 9}, {\"u\": 5, \"v\": 4, \"w\": 9}]}");
+        Graph parsed = Graph.fromJson(json.toString());
+        BinaryGraphFormat.write(parsed, BinaryGraphFormat.siblingOf(json));
+        Graph loaded = Graph.load(json.toString());
+        assertArrayEquals(new int[]{3, 2, 5, 1, 1, 1}, loaded.getNodeWeights());
+
+        ScheduleAnalysis schedule = new ScheduleAnalysis(loaded);
+        assertTrue(schedule.isNodeWeighted());
+        assertEquals(9, schedule.getProjectLength());
+        assertArrayEquals(new long[]{0, 3, 3, 8, 0, 0}, schedule.getEarliestStart());
+        assertArrayEquals(new long[]{0, 6, 3, 8, 7, 7}, schedule.getLatestStart());
+        assertArrayEquals(new long[]{0, 3, 0, 0, 7, 7}, schedule.getSlack());
+        assertArrayEquals(new boolean[]{true, false, true, true, false, false}, schedule.getCritical());
+        assertEquals(2, schedule.getDuration(4), "A cycle runs as one task");
+
+        Path broken = dir.resolve("broken.json");
+        Files.writeString(broken, "{\"n\": 2, \"weight_model\": \"node\", \"durations\": [1], \"edges\": []}");
+        assertThrows(IOException.class, () -> Graph.fromJson(broken.toString()));
+    }
+
+    @Test
+    public void testBinaryFormat_OldNodeModelCacheFallsBackToJson(@TempDir Path dir) throws IOException {
+        // A version 1 cache of a "node" graph, as written before node weights
+        // were stored: same header, no nodeWeights array.
+        Path json = dir.resolve("tasks.json");
+        Files.writeString(json, "{\"n\": 3, \"weight_model\": \"node\", \"durations\": [4, 5, 6],"
+                + " \"edges\": [{\"u\": 0, \"v\": 1, \"w\": 1}, {\"u\": 1, \"v\": 2, \"w\": 1}]}");
+        Path binary = BinaryGraphFormat.siblingOf(json);
+        BinaryGraphFormat.write(Graph.fromJson(json.toString()), binary);
+        byte[] bytes = Files.readAllBytes(binary);
+        bytes[4] = 1;
+        Files.write(binary, Arrays.copyOf(bytes, bytes.length - 4 * 3));
+        assertFalse(BinaryGraphFormat.isReadable(binary));
+        assertThrows(IOException.class, () -> Graph.load(binary.toString()));
+        assertArrayEquals(new int[]{4, 5, 6}, Graph.load(json.toString()).getNodeWeights());
+
+        // Edge-model files did not change layout, so version 1 still reads.
+        Path edges = dir.resolve("edges.bin");
+        Graph graph = new Graph(3);
+        graph.addEdge(0, 1, 7);
+        graph.addEdge(1, 2, 8);
+        BinaryGraphFormat.write(graph, edges);
+        bytes = Files.readAllBytes(edges);
+        bytes[4] = 1;
+        Files.write(edges, bytes);
+        assertTrue(BinaryGraphFormat.isReadable(edges));
+        assertArrayEquals(new int[]{7, 8}, Graph.load(edges.toString()).toCsr().getWeights());
+    }
+
+    @Test
+    public void testScheduleAnalysis_EdgeWeightsMatchLongestPath() {
+        Random random = new Random(37);
+        Graph graph = new Graph(200);
+        for (int i = 0; i < 600; i++) {
+            graph.addEdge(random.nextInt(200), random.nextInt(200), random.nextInt(20));
+        }
+        ScheduleAnalysis schedule = new ScheduleAnalysis(graph);
+        TarjanSCC tarjan = new TarjanSCC(graph);
+        Graph dag = tarjan.buildCondensationGraph(CondensationBuilder.WeightPolicy.MAX);
+        assertEquals(new DAGShortestPath(dag).longestPath().getLength(), schedule.getProjectLength());
+        for (int i = 0; i < graph.getNumEdges(); i++) {
+            int u = graph.getEdgeSource(i);
+            int v = graph.getEdgeTarget(i);
+            if (tarjan.getComponentMap()[u] != tarjan.getComponentMap()[v]) {
+                long w = graph.getEdgeWeight(i);
+                assertTrue(schedule.getEarliestStart()[v] >= schedule.getEarliestStart()[u] + w);
+                assertTrue(schedule.getLatestStart()[v] >= schedule.getLatestStart()[u] + w);
+            }
+            assertTrue(schedule.getSlack()[u] >= 0);
+        }
+        assertTrue(schedule.getNumCritical() > 0);
+    }
+
+    @Test
+    public void testDAGTaskExecutor_RunsEachComponentAfterItsDependencies() {
+        Random random = new Random(41);
+        Graph graph = new Graph(300);
+        for (int i = 0; i < 900; i++) {
+            graph.addEdge(random.nextInt(300), random.nextInt(300), 1);
+        }
+        TarjanSCC tarjan = new TarjanSCC(graph);
+        DAGTaskExecutor executor = new DAGTaskExecutor(tarjan);
+        int k = executor.getNumComponents();
+        CsrGraph dag = tarjan.buildCondensationGraph().toCsr();
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        for (int mode = 0; mode < 3; mode++) {
+            AtomicInteger clock = new AtomicInteger();
+            AtomicIntegerArray started = new AtomicIntegerArray(k);
+            AtomicIntegerArray finished = new AtomicIntegerArray(k);
+            DAGTaskExecutor.ComponentTask task = (component, members) -> {
+                assertEquals(0, started.getAndSet(component, clock.incrementAndGet()), "Ran twice");
+                for (int v : members) {
+                    assertEquals(component, tarjan.getComponentMap()[v]);
+                }
+                finished.set(component, clock.incrementAndGet());
+            };
+            DAGTaskExecutor.Report report = mode == 0 ? executor.executeSerial(task)
+                    : mode == 1 ? executor.execute(task, pool) : executor.executeOnVirtualThreads(task);
+
+            assertEquals(k, report.getTasksRun());
+            for (int c = 0; c < k; c++) {
+                assertTrue(finished.get(c) > 0);
+                for (int e = dag.getEdgeStart(c); e < dag.getEdgeEnd(c); e++) {
+                    assertTrue(finished.get(c) < started.get(dag.getTarget(e)), "Started before a dependency");
+                }
+            }
+            assertTrue(report.getCriticalPathNanos() <= report.getMakespanNanos());
+            assertTrue(report.getBusyNanos() >= report.getCriticalPathNanos());
+        }
+
+        // A failing task stops everything downstream of it and is rethrown.
+        int root = IntStream.range(0, k).filter(c -> dag.getOutDegree(c) > 0).findFirst().getAsInt();
+        int child = dag.getTarget(dag.getEdgeStart(root));
+        AtomicIntegerArray ran = new AtomicIntegerArray(k);
+        CompletionException failure = assertThrows(CompletionException.class, () -> executor.execute(
+                (component, members) -> {
+                    ran.set(component, 1);
+                    if (component == root) {
+                        throw new IllegalStateException("task failed");
+                    }
+                }, pool));
+        assertEquals("task failed", failure.getCause().getMessage());
+        assertEquals(0, ran.get(child));
+        pool.shutdown();
+    }
+
+    @Test
+    public void testMacroBenchmark_SampleStatsAndDatasetGlob(@TempDir Path dir) throws IOException {
+        SampleStats stats = new SampleStats(new long[]{50, 10, 30, 20, 40});
+        assertEquals(30, stats.getMedian());
+        assertEquals(50, stats.percentile(90));
+        assertEquals(50, stats.percentile(99));
+        assertEquals(10, stats.getMin());
+        assertEquals(30.0, stats.getMean());
+        assertEquals(Math.sqrt(250), stats.getStddev(), 1e-9);
+        assertEquals(0.0, new SampleStats(new long[]{7}).getStddev());
+
+        Files.createDirectories(dir.resolve("nested"));
+        for (String name : new String[]{"a.json", "a.bin", "b.bin", "notes.txt", "nested/c.json"}) {
+            Files.writeString(dir.resolve(name), "");
+        }
+        String base = dir.toString().replace('\\', '/');
+        assertEquals(List.of(dir.resolve("a.json"), dir.resolve("b.bin")),
+                MacroBenchmark.expand(List.of(base + "/*.json", base + "/*.bin")));
+        assertEquals(List.of(dir.resolve("a.json"), dir.resolve("nested/c.json")),
+                MacroBenchmark.expand(List.of(base + "/**.json")));
+    }
+
+    @Test
+    public void testResultComparator_StreamedBaselineFlagsOnlyRealRegressions(@TempDir Path dir) throws IOException {
+        List<ResultWriter.PhaseResult> baseline = List.of(
+                phaseResult("tasks", "scc", new long[]{1000, 1100, 900, 1000, 1000}, 4096, 20),
+                phaseResult("tasks", "longest", new long[]{500, 900, 100, 700, 300}, 0, 8));
+        for (String name : new String[]{"base.csv", "base.jsonl"}) {
+            String file = dir.resolve(name).toString();
+            try (ResultWriter.PhaseStream stream = new ResultWriter.PhaseStream(file)) {
+                baseline.forEach(stream::write);
+            }
+            List<ResultWriter.PhaseResult> read = ResultWriter.readPhaseResults(file);
+            assertEquals(2, read.size());
+            assertEquals("longest", read.get(1).phase);
+            assertEquals(1000.0, read.get(0).meanNanos, 1e-6);
+            assertEquals(baseline.get(1).stddevNanos, read.get(1).stddevNanos, 1.0);
+            assertEquals(4096.0, read.get(0).meanAllocatedBytes);
+            assertEquals(Map.of("visits", 20L), read.get(0).counters);
+
+            ResultComparator comparator = new ResultComparator(0.05, 3);
+            // Within noise: +3% on the stable phase, +40% on the noisy one.
+            assertFalse(comparator.compare(read, List.of(
+                    phaseResult("tasks", "scc", new long[]{1030, 1030, 1030, 1030, 1030}, 4096, 20),
+                    phaseResult("tasks", "longest", new long[]{700, 700, 700, 700, 700}, 0, 8),
+                    phaseResult("tasks", "topo", new long[]{1}, 0, 1))));
+            assertEquals(List.of("new: tasks/topo"), comparator.getUnmatched());
+            // +20% time on the stable phase, +10% visits, twice the bytes.
+            assertTrue(comparator.compare(read, List.of(
+                    phaseResult("tasks", "scc", new long[]{1200, 1200, 1200, 1200, 1200}, 8192, 22))));
+            List<String> regressed = new ArrayList<>();
+            comparator.getRegressions().forEach(d -> regressed.add(d.metric));
+            assertEquals(List.of("time_ns", "alloc_bytes", "visits"), regressed);
+            assertEquals(List.of("missing: tasks/longest"), comparator.getUnmatched());
+            // A phase that crashed leaves no row, which fails on its own.
+            assertTrue(comparator.compare(read, read.subList(0, 1)));
+            assertTrue(comparator.getRegressions().isEmpty());
+        }
+    }
+
+    private static ResultWriter.PhaseResult phaseResult(String dataset, String phase, long[] nanos, long bytes,
+                                                        long visits) {
+        ResultWriter.PhaseResult result = new ResultWriter.PhaseResult(dataset, phase);
+        result.setTimes(new SampleStats(nanos));
+        result.setAllocations(new SampleStats(new long[]{bytes}));
+        result.counters.put("visits", visits);
+        return result;
+    }
+
+    // ========== Generator Tests ==========
+
+    @Test
+    public void testGenerator_StreamedFilesMatchInMemoryGraph(@TempDir Path dir) throws IOException {
+        SyntheticGraphGenerator generator =
+                new SyntheticGraphGenerator(SyntheticGraphGenerator.Type.CYCLIC, 5_000, 40_000, 7);
+        Path json = dir.resolve("cyclic.json");
+        Path binary = dir.resolve("other.bin");
+        generator.writeJson(json);
+        generator.writeBinary(binary);
+
+        CsrGraph expected = generator.toGraph().toCsr();
+        CsrGraph fromJson = Graph.fromJson(json.toString()).toCsr();
+        CsrGraph fromBinary = Graph.load(binary.toString()).toCsr();
+        assertEquals(40_000, expected.getNumEdges());
+        assertArrayEquals(expected.getOffsets(), fromJson.getOffsets());
+        assertArrayEquals(expected.getTargets(), fromJson.getTargets());
+        assertArrayEquals(expected.getWeights(), fromJson.getWeights());
+        assertArrayEquals(expected.getOffsets(), fromBinary.getOffsets());
+        assertArrayEquals(expected.getTargets(), fromBinary.getTargets());
+        assertArrayEquals(expected.getWeights(), fromBinary.getWeights());
+
+        Path again = dir.resolve("again.json");
+        new SyntheticGraphGenerator(SyntheticGraphGenerator.Type.CYCLIC, 5_000, 40_000, 7).writeJson(again);
+        assertEquals(-1, Files.mismatch(json, again), "Same seed must give the same file");
+    }
+
+    @Test
+    public void testGenerator_StructureMatchesType() {
+        SyntheticGraphGenerator cyclic = new SyntheticGraphGenerator(SyntheticGraphGenerator.Type.CYCLIC, 20_000, 100_000, 3)
+                .sccSizes("uniform:1:50");
+        assertEquals(cyclic.getNumComponents(), new TarjanSCC(cyclic.toGraph()).findSCCs().size());
+
+        for (SyntheticGraphGenerator.Type type : new SyntheticGraphGenerator.Type[]{
+                SyntheticGraphGenerator.Type.DAG, SyntheticGraphGenerator.Type.LAYERED}) {
+            Graph graph = new SyntheticGraphGenerator(type, 10_000, 60_000, 3).toGraph();
+            assertEquals(60_000, graph.getNumEdges());
+            assertEquals(10_000, new TopologicalSort(graph).sortKahn().size(), type + " must be acyclic");
+        }
+
+        Graph dense = new SyntheticGraphGenerator(SyntheticGraphGenerator.Type.DENSE, 300, 300 * 299, 3).toGraph();
+        assertEquals(1, new TarjanSCC(dense).findSCCs().size(), "The complete graph is one SCC");
+        assertThrows(IllegalArgumentException.class,
+                () -> new SyntheticGraphGenerator(SyntheticGraphGenerator.Type.DENSE, 300, 300 * 299 + 1, 3).toGraph());
+    }
+
     // ========== Metrics Tests ==========
 
     @Test
@@ -286,6 +1361,42 @@ public class GraphAlgoTest {
         assertEquals(0, metrics.getElapsedTime());
     }
 
+    @Test
+    public void testMetrics_HandlesShareCountersWithNames() {
+        Metrics metrics = new Metrics();
+        int first = metrics.register("first");
+        for (int i = 0; i < 20; i++) {
+            metrics.register("filler" + i);
+        }
+
+        assertEquals(first, metrics.register("first"));
+        metrics.increment(first);
+        metrics.add(first, 4);
+        metrics.incrementCounter("first");
+
+        assertEquals(6, metrics.getCounter("first"));
+        assertEquals(6, metrics.get(first));
+        assertEquals(0, metrics.getCounter("never_registered"));
+    }
+
+    @Test
+    public void testConcurrentMetrics_CountsFromManyThreads() {
+        ConcurrentMetrics metrics = new ConcurrentMetrics();
+        int handle = metrics.register("work");
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            pool.submit(() -> IntStream.range(0, 100_000).parallel().forEach(i -> metrics.increment(handle)))
+                    .join();
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(100_000, metrics.getCounter("work"));
+        metrics.reset();
+        assertEquals(0, metrics.get(handle));
+    }
+
     // ========== Integration Tests ==========
 
     @Test
@@ -317,6 +1428,87 @@ public class GraphAlgoTest {
         assertNotNull(distances);
     }
 
+    @Test
+    public void testQueryServer_AnswersOverHttp() throws Exception {
+        Graph graph = new Graph(5);
+        graph.addEdge(0, 1, 2);
+        graph.addEdge(1, 2, 3);
+        graph.addEdge(2, 1, 1); // Cycle
+        graph.addEdge(2, 3, 4);
+        GraphSnapshot snapshot = new GraphSnapshot("demo", graph);
+        assertTrue(snapshot.reachable(0, 3));
+        assertTrue(snapshot.reachable(2, 1));
+        assertFalse(snapshot.reachable(3, 0));
+        assertFalse(snapshot.reachable(0, 4));
+
+        GraphQueryServer server = new GraphQueryServer(0);
+        server.addGraph(snapshot);
+        server.start();
+        try {
+            HttpClient http = HttpClient.newHttpClient();
+            String base = "http://127.0.0.1:" + server.getPort();
+            int c0 = snapshot.getComponent(0);
+            int c12 = snapshot.getComponent(1);
+            int c3 = snapshot.getComponent(3);
+
+            assertEquals("{\"from\":0,\"to\":3,\"reachable\":true,\"length\":6,\"components\":["
+                    + c0 + "," + c12 + "," + c3 + "]}", get(http, base + "/shortest?graph=demo&from=0&to=3"));
+            assertEquals("{\"from\":3,\"to\":0,\"reachable\":false}", get(http, base + "/reachable?from=3&to=0"));
+            assertTrue(get(http, base + "/scc?v=2").contains("\"size\":2"));
+            assertTrue(get(http, base + "/longest").startsWith("{\"length\":6,"));
+            assertTrue(get(http, base + "/scc?v=9").contains("out of range"));
+            try (Socket socket = new Socket("127.0.0.1", server.getPort())) {
+                socket.getOutputStream().write("GET /scc?v=%zz HTTP/1.0\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+                String reply = new String(socket.getInputStream().readAllBytes(), StandardCharsets.US_ASCII);
+                assertTrue(reply.startsWith("HTTP/1.1 400"), reply);
+            }
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testGraphSnapshot_ConcurrentQueriesCountEveryRelaxation() throws Exception {
+        Graph graph = new Graph(200);
+        for (int i = 0; i < 199; i++) {
+            graph.addEdge(i, i + 1, 1);
+            if (i + 7 < 200) {
+                graph.addEdge(i, i + 7, 5);
+            }
+        }
+        GraphSnapshot snapshot = new GraphSnapshot("chain", graph);
+        Metrics metrics = snapshot.getQueryMetrics();
+        metrics.reset();
+        assertEquals(108, snapshot.shortestPath(10, 160).getLength());
+        long relaxations = metrics.getCounter("relaxations");
+        long searched = metrics.getCounter("vertices_searched");
+        assertTrue(relaxations > 0);
+
+        metrics.reset();
+        int threads = 8;
+        int queries = 500;
+        List<Future<?>> futures = new ArrayList<>();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int q = 0; q < queries; q++) {
+                        assertEquals(108, snapshot.shortestPath(10, 160).getLength());
+                    }
+                }));
+            }
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        assertEquals(threads * queries * relaxations, metrics.getCounter("relaxations"));
+        assertEquals(threads * queries * searched, metrics.getCounter("vertices_searched"));
+        assertTrue(metrics.getElapsedTime() > 0);
+    }
+
+    private static String get(HttpClient http, String url) throws Exception {
+        return http.send(HttpRequest.newBuilder(URI.create(url)).build(), HttpResponse.BodyHandlers.ofString()).body();
+    }
+
     @Test
     public void testPerformance_LargeGraph() {
         Graph graph = new Graph(100);